@@ -0,0 +1,132 @@
+package com.company.project.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.company.project.config.CacheConfig;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotSearchCriteria;
+import com.company.project.dto.PlotWatermark;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.event.PlotsCreatedEvent;
+import com.company.project.event.PlotsReloadedEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Read-through caches for single plots and plot listing pages
+ *
+ * Entries are dropped when a committed plot change could alter them:
+ * - The changed plot's own entry
+ * - Listing pages without a bounding box, since any change can move plots between their pages
+ * - Bounding box pages that contain the plot's new location or already list the plot
+ *
+ * A load that read the database before a change committed can still store its result afterwards,
+ * so both caches also expire entries after a TTL. Listing pages are also keyed by the watermark their
+ * response is validated against, read before the page is loaded, so a stale page is never served
+ * under a newer ETag. Size and TTL are set under caching.plots and caching.plot-queries.
+ */
+@Slf4j
+@Component
+public class PlotCache {
+
+    private final Cache plotsById;
+    private final Cache plotQueries;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> plotQueriesNative;
+
+    /**
+     * Identifies one listing page
+     *
+     * @param operation Listing the page belongs to
+     * @param filters Filters and bounding box of the listing, null if unfiltered; must not be modified after use
+     * @param position Keyset position the page starts after
+     * @param size Page size
+     * @param state Watermark of the database state the page must not be older than
+     */
+    public record QueryKey(String operation, PlotSearchCriteria filters, Object position, int size,
+                           PlotWatermark state) {
+    }
+
+    @SuppressWarnings("unchecked")
+    public PlotCache(CacheManager cacheManager) {
+        this.plotsById = cacheManager.getCache(CacheConfig.PLOTS_BY_ID);
+        this.plotQueries = cacheManager.getCache(CacheConfig.PLOT_QUERIES);
+        this.plotQueriesNative = (com.github.benmanes.caffeine.cache.Cache<Object, Object>) plotQueries.getNativeCache();
+    }
+
+    /**
+     * Get a plot, loading and caching it on a miss
+     * Exceptions thrown by the loader propagate and nothing is cached
+     */
+    public PlotDto getPlot(Long id, Supplier<PlotDto> loader) {
+        return plotsById.get(id, loader::get);
+    }
+
+    /**
+     * Get a listing page, loading and caching it on a miss
+     */
+    @SuppressWarnings("unchecked")
+    public Slice<PlotDto> getPage(QueryKey key, Supplier<Slice<PlotDto>> loader) {
+        return (Slice<PlotDto>) plotQueries.get(key, loader::get);
+    }
+
+    /**
+     * Drop every cached plot and page
+     */
+    public void invalidateAll() {
+        plotsById.clear();
+        plotQueries.clear();
+    }
+
+    /**
+     * Drop everything after plots were written without change events, here or on another instance
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlotsReloaded(PlotsReloadedEvent event) {
+        log.debug("Plots reloaded, dropping all cached plots and pages");
+        invalidateAll();
+    }
+
+    /**
+     * Drop the entries a committed plot change could affect
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlotChanged(PlotChangedEvent event) {
+        PlotDto plot = event.getPlot();
+        plotsById.evict(plot.getId());
+        int before = plotQueriesNative.asMap().size();
+        plotQueriesNative.asMap().entrySet().removeIf(entry -> isAffected(entry, plot));
+        log.debug("Plot {} {}: dropped {} cached pages", plot.getId(), event.getType(),
+                before - plotQueriesNative.asMap().size());
+    }
+
+    /**
+     * Drop the entries plots created together could affect, in one pass over the cached pages
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlotsCreated(PlotsCreatedEvent event) {
+        List<PlotDto> plots = event.getPlots();
+        plots.forEach(plot -> plotsById.evict(plot.getId()));
+        int before = plotQueriesNative.asMap().size();
+        plotQueriesNative.asMap().entrySet().removeIf(entry -> plots.stream().anyMatch(plot -> isAffected(entry, plot)));
+        log.debug("{} plots created: dropped {} cached pages", plots.size(), before - plotQueriesNative.asMap().size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean isAffected(Map.Entry<Object, Object> entry, PlotDto plot) {
+        PlotSearchCriteria filters = ((QueryKey) entry.getKey()).filters();
+        if (filters == null || !filters.hasBounds()) {
+            return true;
+        }
+        boolean inBounds = plot.getLatitude() >= filters.getMinLat() && plot.getLatitude() <= filters.getMaxLat()
+                && plot.getLongitude() >= filters.getMinLng() && plot.getLongitude() <= filters.getMaxLng();
+        return inBounds || ((Slice<PlotDto>) entry.getValue()).stream().anyMatch(cached -> cached.getId().equals(plot.getId()));
+    }
+}
@@ -0,0 +1,75 @@
+package com.company.project.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Caffeine-backed Spring caches
+ *
+ * Every cache is registered up front with its own size and TTL, and records statistics
+ * so that hits, misses and evictions are published as cache.gets and cache.evictions metrics.
+ * The account caches are transaction-aware: puts and evictions made inside a transaction are
+ * applied after it commits.
+ */
+@Configuration
+@EnableCaching
+@RequiredArgsConstructor
+public class CacheConfig {
+
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+    public static final String USERS_BY_EMAIL = "usersByEmail";
+    public static final String GEOCODING_SEARCH = "geocodingSearch";
+    public static final String PLOTS_BY_ID = "plotsById";
+    public static final String PLOT_QUERIES = "plotQueries";
+
+    private static final Set<String> TRANSACTION_AWARE = Set.of(USERS_BY_USERNAME, USERS_BY_EMAIL);
+
+    private final CachingProperties cachingProperties;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                Cache adapted = super.adaptCaffeineCache(name, cache);
+                return TRANSACTION_AWARE.contains(name) ? new TransactionAwareCacheDecorator(adapted) : adapted;
+            }
+        };
+        // Only the caches registered below exist; unknown names fail instead of creating unbounded caches
+        cacheManager.setCacheNames(List.of());
+        cacheManager.setAllowNullValues(false);
+        register(cacheManager, USERS_BY_USERNAME, cachingProperties.getUsers());
+        register(cacheManager, USERS_BY_EMAIL, cachingProperties.getUsers());
+        register(cacheManager, PLOTS_BY_ID, cachingProperties.getPlots());
+        register(cacheManager, PLOT_QUERIES, cachingProperties.getPlotQueries());
+        // Async so that concurrent searches for the same query share one pending upstream call
+        CachingProperties.CacheSpec geocoding = cachingProperties.getGeocoding();
+        cacheManager.registerCustomCache(GEOCODING_SEARCH, Caffeine.newBuilder()
+                .maximumSize(geocoding.getMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(geocoding.getTtlSeconds()))
+                .recordStats()
+                .buildAsync());
+        return cacheManager;
+    }
+
+    private static void register(CaffeineCacheManager cacheManager, String name, CachingProperties.CacheSpec spec) {
+        cacheManager.registerCustomCache(name, Caffeine.newBuilder()
+                .maximumSize(spec.getMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(spec.getTtlSeconds()))
+                .recordStats()
+                .build());
+    }
+}
@@ -0,0 +1,55 @@
+package com.company.project.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory cache configuration properties
+ * Configurable via application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "caching")
+public class CachingProperties {
+
+    /**
+     * Users looked up by username or email
+     */
+    private CacheSpec users = new CacheSpec(10_000, 600); // 10000 users for 10 minutes
+
+    /**
+     * Geocoding search responses by normalized query
+     */
+    private CacheSpec geocoding = new CacheSpec(5_000, 86_400); // 5000 queries for 1 day
+
+    /**
+     * Plots by ID
+     */
+    private CacheSpec plots = new CacheSpec(20_000, 600); // 20000 plots for 10 minutes
+
+    /**
+     * Plot listing pages by filters, bounding box and position; evicted on matching plot changes
+     */
+    private CacheSpec plotQueries = new CacheSpec(2_000, 60); // 2000 pages for 1 minute
+
+    /**
+     * Size and TTL of one cache
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CacheSpec {
+        /**
+         * Maximum number of entries before least recently used ones are evicted
+         */
+        private long maxSize;
+
+        /**
+         * Time after which an entry is evicted, in seconds
+         */
+        private long ttlSeconds;
+    }
+}
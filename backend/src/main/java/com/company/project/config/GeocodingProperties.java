@@ -0,0 +1,73 @@
+package com.company.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Geocoding configuration properties
+ * Configurable via application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "geocoding")
+public class GeocodingProperties {
+
+    /**
+     * Base URL of the Nominatim API
+     */
+    private String baseUrl = "https://nominatim.openstreetmap.org";
+
+    /**
+     * User-Agent sent to Nominatim, which requires an identifying one
+     */
+    private String userAgent = "PlotPulse/1.0 (https://plotpulse.syrez.co.in)";
+
+    /**
+     * Timeout for connecting to and reading from Nominatim, in seconds
+     */
+    private int timeoutSeconds = 10;
+
+    /**
+     * Minimum interval between upstream requests, in milliseconds.
+     * Nominatim's usage policy allows at most one request per second.
+     */
+    private long minIntervalMillis = 1000;
+
+    /**
+     * Maximum number of upstream requests in flight; further searches fail fast with 503
+     */
+    private int maxConcurrentRequests = 4;
+
+    /**
+     * Store search responses in the geocoding_cache table so they survive restarts
+     */
+    private boolean persistentCache = true;
+
+    /**
+     * Age after which a persisted response is fetched again, in days
+     */
+    private int persistentCacheTtlDays = 30;
+
+    /**
+     * Local gazetteer consulted before Nominatim
+     */
+    private Gazetteer gazetteer = new Gazetteer();
+
+    /**
+     * Local gazetteer configuration
+     */
+    @Data
+    public static class Gazetteer {
+        /**
+         * CSV of localities (name,state,latitude,longitude[,aliases]) as a Spring resource location;
+         * blank disables the gazetteer
+         */
+        private String location = "classpath:gazetteer/india-localities.csv";
+
+        /**
+         * Maximum distance from a point to the locality returned by reverse geocoding, in meters
+         */
+        private double reverseMaxDistanceMeters = 10_000;
+    }
+}
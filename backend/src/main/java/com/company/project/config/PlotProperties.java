@@ -0,0 +1,299 @@
+package com.company.project.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Plot feature configuration properties
+ * Configurable via application.yml
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "plots")
+public class PlotProperties {
+
+    /**
+     * Settings for the viewport clustering endpoint
+     */
+    private Clustering clustering = new Clustering();
+
+    /**
+     * Settings for the vector tile endpoint
+     */
+    private Tiles tiles = new Tiles();
+
+    /**
+     * Settings for the in-memory spatial index
+     */
+    private Index index = new Index();
+
+    /**
+     * Settings for duplicate-location detection
+     */
+    private Duplicates duplicates = new Duplicates();
+
+    /**
+     * Settings for bulk plot ingestion
+     */
+    private Bulk bulk = new Bulk();
+
+    /**
+     * Settings for JSONL imports of collected listings
+     */
+    private Imports imports = new Imports();
+
+    /**
+     * Settings for the delta sync endpoint
+     */
+    private Changes changes = new Changes();
+
+    /**
+     * Settings for the live change stream
+     */
+    private Stream stream = new Stream();
+
+    /**
+     * Settings for the price statistics grid
+     */
+    private Stats stats = new Stats();
+
+    /**
+     * Settings for streamed exports
+     */
+    private Export export = new Export();
+
+    /**
+     * Clustering configuration
+     */
+    @Data
+    public static class Clustering {
+        /**
+         * Size of one cluster cell on screen, in pixels.
+         * The grid cell size in degrees is derived from this and the zoom level,
+         * so the number of clusters depends on screen resolution rather than plot density.
+         */
+        private int cellSizePixels = 64;
+
+        /**
+         * Highest zoom level accepted by the clustering endpoint
+         */
+        private int maxZoom = 22;
+    }
+
+    /**
+     * Vector tile configuration
+     */
+    @Data
+    public static class Tiles {
+        /**
+         * Highest zoom level served as a vector tile
+         */
+        private int maxZoom = 22;
+
+        /**
+         * Cache-Control max-age sent with every tile, in seconds
+         */
+        private long cacheMaxAgeSeconds = 60;
+    }
+
+    /**
+     * In-memory spatial index configuration
+     */
+    @Data
+    public static class Index {
+        /**
+         * Load all plots into memory at startup and serve bounds and nearest queries from it
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of changed plots after which the packed tree is rebuilt
+         */
+        private int rebuildThreshold = 256;
+    }
+
+    /**
+     * Duplicate-location configuration
+     */
+    @Data
+    public static class Duplicates {
+        /**
+         * Minimum distance in meters between two plots; closer locations are rejected as duplicates
+         */
+        private double minDistanceMeters = 10.0;
+    }
+
+    /**
+     * Bulk ingestion configuration
+     */
+    @Data
+    public static class Bulk {
+        /**
+         * Maximum number of plots accepted in one bulk request
+         */
+        private int maxPlots = 5000;
+
+        /**
+         * Number of inserted plots after which the persistence context is flushed and cleared.
+         * Should match hibernate.jdbc.batch_size so each flush sends full JDBC batches.
+         */
+        private int flushSize = 50;
+    }
+
+    /**
+     * JSONL import configuration
+     */
+    @Data
+    public static class Imports {
+        /**
+         * Directory import files are read from; requests can only name files inside it
+         */
+        private String directory = "imports";
+
+        /**
+         * Number of lines per chunk; each chunk is upserted in one transaction and JDBC batch
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Number of chunks upserted concurrently. Keep below the connection pool size.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Geocode records that have no coordinates from their locality and city
+         */
+        private boolean geocodeMissing = true;
+    }
+
+    /**
+     * Delta sync configuration
+     */
+    @Data
+    public static class Changes {
+        /**
+         * How far the returned watermark trails the current time, or the start of the oldest transaction
+         * still writing, in milliseconds. Covers commits that land just after a sync reads and clock
+         * differences between the application and the database.
+         */
+        private long commitLagMillis = 5000;
+    }
+
+    /**
+     * Streamed export configuration
+     * An export holds a database connection and a read-only transaction until the last row is
+     * written, so the number running at once is capped; further exports are refused with 503.
+     */
+    @Data
+    public static class Export {
+        /**
+         * Most exports running at once on this instance
+         */
+        private int maxConcurrent = 4;
+
+        /**
+         * Most exports running at once for one user
+         */
+        private int maxConcurrentPerUser = 1;
+
+        /**
+         * Retry-After sent with a refused export, in seconds
+         */
+        private long retryAfterSeconds = 30;
+    }
+
+    /**
+     * Live change stream configuration
+     */
+    @Data
+    public static class Stream {
+        /**
+         * Size of one subscriber registry shard, in degrees; an event is only matched against
+         * the subscribers of the shard it falls in
+         */
+        private double cellSizeDegrees = 0.5;
+
+        /**
+         * Subscribers whose viewport spans more shards than this are kept in one shared shard
+         * that every event is matched against
+         */
+        private int maxCellsPerSubscriber = 64;
+
+        /**
+         * Time after which a stream is closed; EventSource clients reconnect on their own
+         */
+        private long timeoutMinutes = 30;
+
+        /**
+         * Interval between keep-alive comments, which also detect disconnected clients
+         */
+        private long heartbeatSeconds = 25;
+
+        /**
+         * Most streams open on this instance; further subscriptions are refused with 503
+         */
+        private int maxSubscribers = 5000;
+
+        /**
+         * Most streams open from one client IP address
+         */
+        private int maxSubscribersPerClient = 10;
+
+        /**
+         * Events waiting to be written to one subscriber; a subscriber that falls further behind
+         * has its backlog replaced by a reload event
+         */
+        private int maxQueuedEvents = 256;
+
+        /**
+         * Threads writing events to subscribers; a slow client holds one of them while its write blocks
+         */
+        private int writerThreads = 4;
+
+        /**
+         * How changes reach the other instances: LOCAL for a single instance, or POSTGRES
+         * to relay them through LISTEN/NOTIFY
+         */
+        private Relay relay = Relay.LOCAL;
+
+        /**
+         * Notification channel used by the POSTGRES relay
+         */
+        private String channel = "plot_changes";
+
+        /**
+         * Change relay backends
+         */
+        public enum Relay {
+            LOCAL, POSTGRES
+        }
+    }
+
+    /**
+     * Price statistics grid configuration
+     */
+    @Data
+    public static class Stats {
+        /**
+         * Keep per-cell price statistics in memory, updated on every write; when disabled or not
+         * loaded yet they are computed by the database per request
+         */
+        private boolean enabled = true;
+
+        /**
+         * Finest geohash precision maintained; 7 is about 150 m
+         */
+        private int maxPrecision = 7;
+
+        /**
+         * Relative error of the price percentiles, e.g. 0.01 for 1%
+         */
+        private double relativeAccuracy = 0.01;
+
+        /**
+         * Most cells returned for one request; coarser cells are used for larger areas
+         */
+        private int maxCells = 4096;
+    }
+}
@@ -44,6 +44,35 @@ public class RateLimitProperties {
      */
     private boolean enabled = true;
     
+    /**
+     * Maximum number of IP and endpoint buckets held in memory
+     * Least recently used buckets are evicted beyond this
+     */
+    private long maxBuckets = 10_000;
+    
+    /**
+     * Where bucket state is kept: LOCAL per instance, or POSTGRES shared by all instances
+     */
+    private Store store = Store.LOCAL;
+    
+    /**
+     * Tokens an instance may consume locally before synchronizing with the shared store
+     * Bounds the overshoot to this many requests per instance; 0 synchronizes every request
+     */
+    private long prefetchTokens = 5;
+    
+    /**
+     * Maximum time locally consumed tokens stay unsynchronized, in milliseconds
+     */
+    private long prefetchTimeoutMillis = 1000;
+    
+    /**
+     * Bucket state storage backends
+     */
+    public enum Store {
+        LOCAL, POSTGRES
+    }
+    
     /**
      * Endpoint-specific rate limit configuration
      */
@@ -1,8 +1,11 @@
 package com.company.project.config;
 
+import java.util.List;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
 import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
 import org.springframework.security.access.hierarchicalroles.RoleHierarchy;
@@ -26,6 +29,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import com.company.project.security.AuthEntryPointJwt;
 import com.company.project.security.JwtAuthenticationFilter;
 import com.company.project.security.RateLimitFilter;
+import com.company.project.util.AppConstants;
 
 import lombok.RequiredArgsConstructor;
 
@@ -137,6 +141,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(corsProperties.getAllowedOrigins());
         configuration.setAllowedMethods(corsProperties.getAllowedMethods());
         configuration.setAllowedHeaders(corsProperties.getAllowedHeaders());
+        configuration.setExposedHeaders(List.of(AppConstants.NEXT_CURSOR_HEADER, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED));
         configuration.setAllowCredentials(true); // Enable credentials for authentication
         configuration.setMaxAge(corsProperties.getMaxAge());
 
@@ -188,6 +193,8 @@ public class SecurityConfig {
                         .requestMatchers("/health/**", "/auth/**", "/users/create", "/geocoding/**").permitAll()
                         // Also allow with explicit API prefix patterns (in case context path changes)
                         .requestMatchers("/api/v1/health/**", "/api/auth/**", "/api/users/create", "/api/health/**", "/api/v1/geocoding/**").permitAll()
+                        // Bulk export streams whole regions, so it is limited to signed-in users
+                        .requestMatchers("/plots/export", "/api/v1/plots/export").authenticated()
                         // Plot endpoints: GET is public (viewing), write operations checked in service layer
                         .requestMatchers("/plots", "/plots/**").permitAll()
                         .requestMatchers("/api/v1/plots", "/api/v1/plots/**").permitAll()
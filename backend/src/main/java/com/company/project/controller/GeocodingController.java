@@ -1,82 +1,104 @@
 package com.company.project.controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.URLEncoder;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
-import java.time.Duration;
+import com.company.project.dto.request.BatchGeocodeRequest;
+import com.company.project.exception.GeocodingBusyException;
+import com.company.project.exception.GeocodingException;
+import com.company.project.service.GeocodingService;
+import com.company.project.util.GeometryUtil;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
 
 /**
  * Geocoding controller that proxies Nominatim API requests
  * This allows us to set proper User-Agent headers which browsers cannot do
+ * 
+ * Searches are asynchronous, so servlet threads are released while Nominatim responds
+ * Reverse and batch lookups are answered from the local gazetteer where possible
  */
 @RestController
 @RequestMapping("/geocoding")
+@RequiredArgsConstructor
 public class GeocodingController {
 
-    private static final String NOMINATIM_BASE_URL = "https://nominatim.openstreetmap.org";
-    private static final String USER_AGENT = "PlotPulse/1.0 (https://plotpulse.syrez.co.in)";
-    private final HttpClient httpClient;
-
-    public GeocodingController() {
-        this.httpClient = HttpClient.newBuilder()
-                .connectTimeout(Duration.ofSeconds(10))
-                .build();
-    }
+    private final GeocodingService geocodingService;
 
     /**
      * Search for locations using Nominatim geocoding
      * 
      * @param q Search query
      * @param limit Maximum number of results (default: 5)
-     * @return JSON response from Nominatim
+     * @return JSON response from Nominatim, or 503 when too many searches are in flight
      */
     @GetMapping("/search")
-    public ResponseEntity<String> search(
+    public CompletableFuture<ResponseEntity<String>> search(
             @RequestParam String q,
             @RequestParam(defaultValue = "5") int limit) {
         
-        try {
-            String encodedQuery = URLEncoder.encode(q, StandardCharsets.UTF_8);
-            String url = String.format(
-                "%s/search?format=json&q=%s&limit=%d&addressdetails=1",
-                NOMINATIM_BASE_URL,
-                encodedQuery,
-                limit
-            );
+        return geocodingService.searchAsync(q, limit)
+                .thenApply(body -> ResponseEntity.ok()
+                        .header("Content-Type", "application/json")
+                        .body(body))
+                .exceptionally(this::toErrorResponse);
+    }
+
+    /**
+     * Find the locality at a point
+     * 
+     * @param lat Latitude coordinate
+     * @param lng Longitude coordinate
+     * @return Locality at the point, or 404 if none is known
+     */
+    @GetMapping("/reverse")
+    public CompletableFuture<ResponseEntity<?>> reverse(
+            @RequestParam double lat,
+            @RequestParam double lng) {
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .header("User-Agent", USER_AGENT)
-                    .header("Accept", "application/json")
-                    .timeout(Duration.ofSeconds(10))
-                    .GET()
-                    .build();
+        GeometryUtil.validateCoordinates(lat, lng);
+        return geocodingService.reverseAsync(lat, lng)
+                .<ResponseEntity<?>>thenApply(location -> location
+                        .<ResponseEntity<?>>map(ResponseEntity::ok)
+                        .orElseGet(() -> ResponseEntity.notFound().build()))
+                .exceptionally(this::toErrorResponse);
+    }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Geocode several free-form queries in one request
+     * 
+     * @param request Queries to resolve (at most 100)
+     * @return One result per query, in request order
+     */
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<?>> batch(@Valid @RequestBody BatchGeocodeRequest request) {
+        return geocodingService.geocodeBatchAsync(request.getQueries())
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(this::toErrorResponse);
+    }
 
-            if (response.statusCode() == 200) {
-                return ResponseEntity.ok()
-                        .header("Content-Type", "application/json")
-                        .body(response.body());
-            } else {
-                return ResponseEntity.status(response.statusCode())
-                        .body(response.body());
-            }
-        } catch (IOException | InterruptedException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("{\"error\": \"Geocoding service unavailable\"}");
+    private ResponseEntity<String> toErrorResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof GeocodingBusyException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "1")
+                    .body("{\"error\": \"Geocoding service busy\"}");
         }
+        if (cause instanceof GeocodingException e && e.getUpstreamStatus() > 0) {
+            return ResponseEntity.status(e.getUpstreamStatus())
+                    .body(e.getUpstreamBody());
+        }
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body("{\"error\": \"Geocoding service unavailable\"}");
     }
 }
-
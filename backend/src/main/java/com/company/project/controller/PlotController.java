@@ -1,12 +1,23 @@
 package com.company.project.controller;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,10 +28,32 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotClusterDto;
 import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotGridCellDto;
+import com.company.project.dto.PlotSearchCriteria;
+import com.company.project.dto.PlotWatermark;
+import com.company.project.dto.response.BulkPlotResponse;
+import com.company.project.dto.response.PlotChangesPage;
+import com.company.project.dto.response.PlotSearchPage;
+import com.company.project.exception.InvalidCoordinateException;
+import com.company.project.exception.InvalidCursorException;
+import com.company.project.exception.InvalidParameterException;
+import com.company.project.service.PlotExportService;
 import com.company.project.service.PlotService;
+import com.company.project.stream.PlotSubscriberRegistry;
+import com.company.project.util.AppConstants;
+import com.company.project.util.GeometryUtil;
+import com.company.project.util.PlotCursor;
+import com.company.project.util.PriceUnits;
+import com.company.project.util.RequestUtils;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -32,46 +65,241 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class PlotController {
 
+    private static final MediaType MVT_MEDIA_TYPE = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
     private final PlotService plotService;
+    private final PlotExportService plotExportService;
+    private final PlotProperties plotProperties;
+    private final PlotSubscriberRegistry plotSubscriberRegistry;
 
     /**
-     * Get all plots with pagination and filtering
+     * Get all plots with keyset pagination and filtering
+     * When more plots are available, the X-Next-Cursor response header carries the cursor for the next page.
+     * Responses carry an ETag derived from the plot count, latest modification and latest tombstone in
+     * the database; a matching If-None-Match is answered with 304 without running the query.
      * 
-     * @param page Page number (default: 0)
-     * @param size Page size (default: 10)
+     * @param cursor Cursor from a previous response (optional, omit for the first page)
+     * @param page Legacy page number; only 0 is accepted, use cursor for later pages
+     * @param size Page size (default: 10, at most AppConstants.MAX_PAGE_SIZE)
      * @param minPrice Minimum price filter (optional)
      * @param maxPrice Maximum price filter (optional)
      * @param isForSale Sale status filter (optional)
-     * @return List of plots matching the criteria
+     * @param priceUnit Price unit filter, e.g. per_sqft or sqft (optional)
+     * @param areaUnit When set, minPrice and maxPrice are prices per this area unit and match plots in any unit (optional)
+     * @param sort Order of the listing: id (default), pricePerSqm or pricePerSqm,desc
+     * @return List of plots matching the criteria, ordered by ID
      */
     @GetMapping
     public ResponseEntity<List<PlotDto>> getAllPlots(
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
-            @RequestParam(required = false) Boolean isForSale) {
+            @RequestParam(required = false) Boolean isForSale,
+            @RequestParam(required = false) String priceUnit,
+            @RequestParam(required = false) String areaUnit,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLng,
+            @RequestParam(defaultValue = "id") String sort,
+            WebRequest request) {
+        
+        PlotSearchCriteria filters = buildCriteria(null, minPrice, maxPrice, isForSale, priceUnit, areaUnit,
+                minLat, maxLat, minLng, maxLng);
+        // Pages are cached per size, so an unbounded size would let one request fill the cache
+        int limit = Math.max(1, Math.min(size, AppConstants.MAX_PAGE_SIZE));
         
-        Pageable pageable = PageRequest.of(page, size);
+        String order = sort.trim().replace(" ", "").toLowerCase(Locale.ROOT);
+        boolean byPrice = order.equals("pricepersqm") || order.equals("pricepersqm,asc") || order.equals("pricepersqm,desc");
+        if (!byPrice && !order.equals("id")) {
+            throw new InvalidParameterException("Unsupported sort: " + sort + " (expected id, pricePerSqm or pricePerSqm,desc)");
+        }
+        // Decode the cursor before the validator check so malformed requests are still rejected
+        PlotCursor.PricedPosition pricedAfter = null;
+        long afterId = 0;
+        if (byPrice) {
+            rejectOffsetPage(cursor, page);
+            pricedAfter = PlotCursor.decodePriced(cursor);
+        } else {
+            afterId = resolveCursor(cursor, page);
+        }
+        
+        PlotWatermark watermark = plotService.getWatermark(filters.getMinLat(), filters.getMaxLat(),
+                filters.getMinLng(), filters.getMaxLng());
+        String etag = collectionETag(watermark);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        
+        if (byPrice) {
+            boolean descending = order.endsWith(",desc");
+            Slice<PlotDto> plotSlice = plotService.getPlotsByPricePerSqm(filters, pricedAfter, descending, limit, watermark);
+            return withNextCursor(validated(etag), plotSlice,
+                    last -> PlotCursor.encodePriced(last.getPricePerSqm(), last.getId()));
+        }
         
         // If no filters are provided, use the basic method, otherwise use filtering
-        Page<PlotDto> plotPage;
-        if (minPrice == null && maxPrice == null && isForSale == null) {
-            plotPage = plotService.getAllPlots(pageable);
+        Slice<PlotDto> plotSlice;
+        if (!filters.hasFilters()) {
+            plotSlice = plotService.getAllPlots(afterId, limit, watermark);
         } else {
-            plotPage = plotService.getAllPlotsWithFilters(pageable, minPrice, maxPrice, isForSale);
+            plotSlice = plotService.getAllPlotsWithFilters(afterId, limit, filters, watermark);
         }
         
-        return ResponseEntity.ok(plotPage.getContent());
+        return withNextCursor(validated(etag), plotSlice);
+    }
+
+    /**
+     * Search plots by name and description, best match first
+     * The last word of the query also matches as a prefix, and near spellings of a plot name match too.
+     * Paginated via cursor and the X-Next-Cursor header; cursors are not interchangeable with the listing's.
+     * 
+     * @param q Search text
+     * @param cursor Cursor from a previous response (optional, omit for the first page)
+     * @param size Page size (default: 10, capped at the maximum page size)
+     * @param minPrice Minimum price filter (optional)
+     * @param maxPrice Maximum price filter (optional)
+     * @param isForSale Sale status filter (optional)
+     * @param priceUnit Price unit filter, e.g. per_sqft or sqft (optional)
+     * @param areaUnit When set, minPrice and maxPrice are prices per this area unit and match plots in any unit (optional)
+     * @return Matching plots ordered by relevance
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<PlotDto>> searchPlots(
+            @RequestParam String q,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Boolean isForSale,
+            @RequestParam(required = false) String priceUnit,
+            @RequestParam(required = false) String areaUnit,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLng) {
+        
+        PlotSearchCriteria criteria = buildCriteria(q, minPrice, maxPrice, isForSale, priceUnit, areaUnit,
+                minLat, maxLat, minLng, maxLng);
+        int limit = Math.max(1, Math.min(size, AppConstants.MAX_PAGE_SIZE));
+        PlotSearchPage page = plotService.searchPlots(criteria, cursor, limit);
+        if (page.getNextCursor() == null) {
+            return ResponseEntity.ok(page.getPlots());
+        }
+        return ResponseEntity.ok()
+                .header(AppConstants.NEXT_CURSOR_HEADER, page.getNextCursor())
+                .body(page.getPlots());
+    }
+
+    /**
+     * Get the plots created or updated since a watermark, plus tombstones for deleted plots
+     * Lets clients that keep plots locally refresh a region without downloading it again. Pass the
+     * returned watermark as since on the next sync; a sync may return plots already seen, which
+     * replace the local copy. Tombstones come before plots; when more changed than fit one page,
+     * the X-Next-Cursor header carries the cursor for the rest, with the same since.
+     * 
+     * @param since Watermark from the previous sync, e.g. 2024-05-01T10:15:30
+     * @param cursor Cursor from a previous page of the same sync (optional)
+     * @param size Page size (default and maximum: the maximum page size)
+     * @param minLat Minimum latitude (optional, with the other bounds)
+     * @param maxLat Maximum latitude (optional)
+     * @param minLng Minimum longitude (optional)
+     * @param maxLng Maximum longitude (optional)
+     * @return Changed plots, oldest change first, tombstones and the next watermark
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<PlotChangesPage> getPlotChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + AppConstants.MAX_PAGE_SIZE) int size,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLng) {
+        
+        PlotSearchCriteria bounds = buildCriteria(null, null, null, null, null, null, minLat, maxLat, minLng, maxLng);
+        int limit = Math.max(1, Math.min(size, AppConstants.MAX_PAGE_SIZE));
+        PlotChangesPage changes = plotService.getPlotChanges(since, bounds, cursor, limit);
+        if (changes.getNextCursor() == null) {
+            return ResponseEntity.ok(changes);
+        }
+        return ResponseEntity.ok()
+                .header(AppConstants.NEXT_CURSOR_HEADER, changes.getNextCursor())
+                .body(changes);
+    }
+
+    /**
+     * Follow the changes to plots within a viewport as Server-Sent Events
+     * Events are named created, updated or deleted and carry the plot as JSON; an updated plot outside
+     * the viewport has moved out of it. A reload event means plots changed without individual events,
+     * e.g. through an import, and the viewport should be fetched again. Events are not replayed, so after
+     * reconnecting clients should catch up through /plots/changes. Keep-alive comments are sent while
+     * nothing changes.
+     * 
+     * @param minLat Minimum latitude
+     * @param maxLat Maximum latitude
+     * @param minLng Minimum longitude
+     * @param maxLng Maximum longitude
+     * @return Event stream that stays open until the client disconnects or it times out;
+     *         503 when too many streams are open on this instance or from the client's address
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPlotChanges(
+            @RequestParam Double minLat,
+            @RequestParam Double maxLat,
+            @RequestParam Double minLng,
+            @RequestParam Double maxLng,
+            HttpServletRequest request) {
+        
+        validateBounds(minLat, maxLat, minLng, maxLng);
+        return plotSubscriberRegistry.subscribe(RequestUtils.getClientIpAddress(request), minLat, maxLat, minLng, maxLng);
+    }
+
+    /**
+     * Price statistics per geohash cell within a bounding box, for the heatmap view
+     * Each cell has its plot count, for-sale ratio and the 10th, 25th, 50th, 75th and 90th percentile
+     * of the price per square meter, estimated within 1%. Cells overlapping the box are returned whole.
+     * 
+     * @param minLat Minimum latitude
+     * @param maxLat Maximum latitude
+     * @param minLng Minimum longitude
+     * @param maxLng Maximum longitude
+     * @param cellSize Approximate cell width in meters (default: 1000); larger cells are used for large areas
+     * @return Non-empty cells ordered by geohash
+     */
+    @GetMapping("/stats/grid")
+    public ResponseEntity<List<PlotGridCellDto>> getPriceGrid(
+            @RequestParam Double minLat,
+            @RequestParam Double maxLat,
+            @RequestParam Double minLng,
+            @RequestParam Double maxLng,
+            @RequestParam(defaultValue = "1000") double cellSize) {
+        
+        validateBounds(minLat, maxLat, minLng, maxLng);
+        if (!(cellSize > 0)) {
+            throw new InvalidParameterException("cellSize must be a positive number of meters");
+        }
+        return ResponseEntity.ok(plotService.getPriceGrid(minLat, maxLat, minLng, maxLng, cellSize));
     }
 
     /**
      * Get a specific plot by ID
+     * Supports If-None-Match and If-Modified-Since against the plot's last modification in the database.
+     * The validators sent back describe the plot actually returned, which may come from the cache, so a
+     * stale copy is revalidated on the next request instead of being confirmed with 304.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<PlotDto> getPlotById(@PathVariable Long id) {
+    public ResponseEntity<PlotDto> getPlotById(@PathVariable Long id, WebRequest request) {
+        LocalDateTime updatedAt = plotService.getPlotUpdatedAt(id);
+        if (request.checkNotModified(plotETag(id, updatedAt), toEpochMillis(updatedAt))) {
+            return notModified(plotETag(id, updatedAt));
+        }
         PlotDto plot = plotService.getPlotById(id);
-        return ResponseEntity.ok(plot);
+        return validated(plotETag(id, plot.getUpdatedAt()))
+                .lastModified(toEpochMillis(plot.getUpdatedAt()))
+                .body(plot);
     }
 
     /**
@@ -86,8 +314,23 @@ public class PlotController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdPlot);
     }
 
+    /**
+     * Create many plots in one request
+     * Plots are validated individually; rejected plots are reported by position and do not fail the request
+     * 
+     * @param plotDtos Plots to create
+     * @return Created IDs and rejections
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkPlotResponse> createPlots(@RequestBody List<PlotDto> plotDtos) {
+        BulkPlotResponse response = plotService.createPlots(plotDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
     /**
      * Find plots within a bounding box
+     * Paginated the same way as the plot listing, via cursor and the X-Next-Cursor header.
+     * The ETag covers only the plots inside the box, so edits elsewhere keep it valid.
      */
     @GetMapping("/bounds")
     public ResponseEntity<List<PlotDto>> getPlotsInBounds(
@@ -95,12 +338,116 @@ public class PlotController {
             @RequestParam Double maxLat,
             @RequestParam Double minLng,
             @RequestParam Double maxLng,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            WebRequest request) {
+        
+        long afterId = resolveCursor(cursor, page);
+        int limit = Math.max(1, Math.min(size, AppConstants.MAX_PAGE_SIZE));
+        PlotWatermark watermark = plotService.getWatermark(minLat, maxLat, minLng, maxLng);
+        String etag = collectionETag(watermark);
+        if (request.checkNotModified(etag)) {
+            return notModified(etag);
+        }
+        Slice<PlotDto> plotSlice = plotService.getPlotsInBounds(minLat, maxLat, minLng, maxLng, afterId, limit, watermark);
+        return withNextCursor(validated(etag), plotSlice);
+    }
+
+    /**
+     * Export every plot in a region as a streamed download
+     * The region is either a bounding box or a WKT polygon; rows are written as they are read
+     * from the database, so large regions do not need to be paged through.
+     * Requires authentication; unlike the other plot reads it is not public.
+     * The number of exports running at once is limited, per instance and per user; beyond that
+     * the export is refused with 503 and Retry-After.
+     * 
+     * @param minLat Minimum latitude (optional when polygon is given)
+     * @param maxLat Maximum latitude (optional when polygon is given)
+     * @param minLng Minimum longitude (optional when polygon is given)
+     * @param maxLng Maximum longitude (optional when polygon is given)
+     * @param polygon WKT POLYGON or MULTIPOLYGON in WGS84 (optional)
+     * @param format ndjson (default) or geojson
+     * @return Streamed plots ordered by ID
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPlots(
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLng,
+            @RequestParam(required = false) String polygon,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        
+        PlotExportService.Format exportFormat = parseExportFormat(format);
+        // Resolve before streaming starts so invalid regions still get a 400 response
+        Geometry region = plotExportService.resolveRegion(minLat, maxLat, minLng, maxLng, polygon);
+        // Likewise reserve the slot up front so a busy instance answers 503; it is held until the body is written
+        PlotExportService.Permit permit = plotExportService.reserve();
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                plotExportService.exportPlots(region, exportFormat, out);
+            }
+        };
+        
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("plots." + exportFormat.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    /**
+     * Aggregate plots within a bounding box into clusters for the given zoom level
+     * The number of clusters is bounded by the viewport size, not by plot density
+     * 
+     * @param minLat Minimum latitude
+     * @param maxLat Maximum latitude
+     * @param minLng Minimum longitude
+     * @param maxLng Maximum longitude
+     * @param zoom Map zoom level
+     * @return Clusters with centroid, count and price statistics per price unit
+     */
+    @GetMapping("/clusters")
+    public ResponseEntity<List<PlotClusterDto>> getPlotClusters(
+            @RequestParam Double minLat,
+            @RequestParam Double maxLat,
+            @RequestParam Double minLng,
+            @RequestParam Double maxLng,
+            @RequestParam int zoom) {
+        
+        validateBounds(minLat, maxLat, minLng, maxLng);
+        List<PlotClusterDto> clusters = plotService.getPlotClusters(minLat, maxLat, minLng, maxLng, zoom);
+        return ResponseEntity.ok(clusters);
+    }
+
+    /**
+     * Get the plots of a web mercator tile as a Mapbox Vector Tile
+     * Each feature carries id, price, price_unit, is_for_sale and location_approximate attributes;
+     * approximate features sit at their area's point rather than the plot's
+     * 
+     * @param z Tile zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return Binary tile, or 204 if the tile contains no plots
+     */
+    @GetMapping("/tiles/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getPlotTile(@PathVariable int z, @PathVariable int x, @PathVariable int y) {
+        byte[] tile = plotService.getPlotTile(z, x, y);
+        CacheControl cacheControl = CacheControl
+                .maxAge(plotProperties.getTiles().getCacheMaxAgeSeconds(), TimeUnit.SECONDS)
+                .cachePublic();
+        
+        if (tile.length == 0) {
+            return ResponseEntity.noContent().cacheControl(cacheControl).build();
+        }
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<PlotDto> plotPage = plotService.getPlotsInBounds(minLat, maxLat, minLng, maxLng, pageable);
-        return ResponseEntity.ok(plotPage.getContent());
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(MVT_MEDIA_TYPE)
+                .body(tile);
     }
 
     /**
@@ -126,6 +473,27 @@ public class PlotController {
         return ResponseEntity.ok(nearestPlot);
     }
 
+    /**
+     * Find the k nearest plots to a location
+     * Selected instead of the single-plot variant when the k parameter is present
+     * 
+     * @param lat Latitude coordinate
+     * @param lon Longitude coordinate
+     * @param radius Search radius in meters (optional, default: 1000)
+     * @param k Number of plots to return (capped at the maximum page size)
+     * @return Plots within the radius, nearest first
+     */
+    @GetMapping(value = "/nearest", params = "k")
+    public ResponseEntity<List<PlotDto>> getNearestPlots(
+            @RequestParam Double lat,
+            @RequestParam Double lon,
+            @RequestParam(defaultValue = "1000") Double radius,
+            @RequestParam int k) {
+        
+        int limit = Math.max(1, Math.min(k, AppConstants.MAX_PAGE_SIZE));
+        return ResponseEntity.ok(plotService.getNearestPlots(lat, lon, radius, limit));
+    }
+
     /**
      * Update an existing plot
      * 
@@ -147,4 +515,127 @@ public class PlotController {
         plotService.deletePlot(id);
         return ResponseEntity.noContent().build();
     }
-} 
\ No newline at end of file
+
+    /**
+     * Collect listing and search filters, normalizing the price unit
+     * With an area unit, the price bounds are converted to bounds on the price per square meter.
+     * A bounding box must be given completely or not at all
+     */
+    private static PlotSearchCriteria buildCriteria(String query, BigDecimal minPrice, BigDecimal maxPrice,
+            Boolean isForSale, String priceUnit, String areaUnit,
+            Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        String normalizedAreaUnit = PriceUnits.normalize(areaUnit);
+        boolean normalizedPrices = normalizedAreaUnit != null;
+        PlotSearchCriteria criteria = PlotSearchCriteria.builder()
+                .query(query)
+                .priceUnit(PriceUnits.normalize(priceUnit))
+                .minPrice(normalizedPrices ? null : minPrice)
+                .maxPrice(normalizedPrices ? null : maxPrice)
+                .minPricePerSqm(normalizedPrices ? PriceUnits.toPricePerSqm(minPrice, normalizedAreaUnit) : null)
+                .maxPricePerSqm(normalizedPrices ? PriceUnits.toPricePerSqm(maxPrice, normalizedAreaUnit) : null)
+                .isForSale(isForSale)
+                .minLat(minLat)
+                .maxLat(maxLat)
+                .minLng(minLng)
+                .maxLng(maxLng)
+                .build();
+        boolean anyBound = minLat != null || maxLat != null || minLng != null || maxLng != null;
+        if (anyBound && !criteria.hasBounds()) {
+            throw new InvalidCoordinateException("Bounding box requires minLat, maxLat, minLng and maxLng");
+        }
+        return criteria;
+    }
+
+    private static void validateBounds(Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        GeometryUtil.validateCoordinates(minLat, minLng);
+        GeometryUtil.validateCoordinates(maxLat, maxLng);
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new InvalidCoordinateException("Bounding box minimums must not exceed its maximums");
+        }
+    }
+
+    /**
+     * Resolve the keyset position for a listing request
+     * Offset pages beyond the first are rejected rather than silently returning page 0
+     */
+    private static long resolveCursor(String cursor, int page) {
+        rejectOffsetPage(cursor, page);
+        return PlotCursor.decode(cursor);
+    }
+
+    private static void rejectOffsetPage(String cursor, int page) {
+        if (page != 0 && (cursor == null || cursor.isBlank())) {
+            throw new InvalidCursorException("Offset pagination is not supported, pass the "
+                    + AppConstants.NEXT_CURSOR_HEADER + " value from the previous response as cursor");
+        }
+    }
+
+    /**
+     * Build a listing response, adding the next-page cursor when more plots are available
+     */
+    private static ResponseEntity<List<PlotDto>> withNextCursor(ResponseEntity.BodyBuilder response, Slice<PlotDto> slice) {
+        return withNextCursor(response, slice, last -> PlotCursor.encode(last.getId()));
+    }
+
+    /**
+     * Build a listing response, encoding the next-page cursor from the last plot
+     */
+    private static ResponseEntity<List<PlotDto>> withNextCursor(ResponseEntity.BodyBuilder response, Slice<PlotDto> slice,
+            Function<PlotDto, String> cursorOf) {
+        List<PlotDto> content = slice.getContent();
+        if (slice.hasNext() && !content.isEmpty()) {
+            response.header(AppConstants.NEXT_CURSOR_HEADER, cursorOf.apply(content.get(content.size() - 1)));
+        }
+        return response.body(content);
+    }
+
+    /**
+     * Strong validator for a set of plots; a create or update changes the count or latest time, and a
+     * delete adds a tombstone, even when a delete and an insert land within the same millisecond.
+     * Deletes do not advance the latest time, so collections carry no Last-Modified header
+     */
+    private static String collectionETag(PlotWatermark watermark) {
+        long lastDeletionId = watermark.lastDeletionId() != null ? watermark.lastDeletionId() : 0;
+        return "\"" + watermark.count() + "-" + toEpochMicros(watermark.lastModified()) + "-" + lastDeletionId + "\"";
+    }
+
+    private static String plotETag(Long id, LocalDateTime updatedAt) {
+        return "\"" + id + "-" + toEpochMicros(updatedAt) + "\"";
+    }
+
+    /**
+     * Microseconds since the epoch, the precision the database keeps times at
+     */
+    private static long toEpochMicros(LocalDateTime time) {
+        return time == null ? 0 : ChronoUnit.MICROS.between(Instant.EPOCH,
+                time.atZone(ZoneId.systemDefault()).toInstant().plusNanos(500));
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Start a 200 response carrying the validator; clients must revalidate before reusing it
+     */
+    private static ResponseEntity.BodyBuilder validated(String etag) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .build();
+    }
+
+    private static PlotExportService.Format parseExportFormat(String format) {
+        try {
+            return PlotExportService.Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Unsupported export format: " + format + " (expected ndjson or geojson)");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.company.project.controller;
+
+import com.company.project.dto.response.ApiResponse;
+import com.company.project.entity.PlotImportCheckpoint;
+import com.company.project.service.PlotImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Plot Import Controller
+ * 
+ * Starts and monitors imports of collected listings from JSONL files in the import directory.
+ * All operations require admin privileges.
+ */
+@RestController
+@RequestMapping("/plots/imports")
+@RequiredArgsConstructor
+@PreAuthorize("hasAnyRole('ADMIN', 'SUPER_ADMIN')")
+public class PlotImportController {
+
+    private final PlotImportService plotImportService;
+
+    /**
+     * Start importing a file in the background
+     * 
+     * @param file File name relative to the import directory
+     * @return Checkpoint tracking the import
+     */
+    @PostMapping
+    public ResponseEntity<ApiResponse<PlotImportCheckpoint>> startImport(@RequestParam String file) {
+        PlotImportCheckpoint checkpoint = plotImportService.startImport(file);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+            .body(new ApiResponse<>("SUCCESS", HttpStatus.ACCEPTED.value(), 
+                "Import started", checkpoint));
+    }
+
+    /**
+     * Get the progress of all imports
+     * 
+     * @return Import checkpoints, most recent first
+     */
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<PlotImportCheckpoint>>> getImports() {
+        List<PlotImportCheckpoint> imports = plotImportService.getImports();
+        return ResponseEntity.ok(new ApiResponse<>("SUCCESS", HttpStatus.OK.value(), 
+            "Imports retrieved successfully", imports));
+    }
+}
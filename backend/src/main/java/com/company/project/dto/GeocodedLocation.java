@@ -0,0 +1,30 @@
+package com.company.project.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for a single geocoding match
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocodedLocation {
+    private Double latitude;
+    private Double longitude;
+    private String displayName;
+
+    /**
+     * Neighbourhood, town or city the match lies in, if known
+     */
+    private String locality;
+    private String state;
+
+    /**
+     * Where the match came from: gazetteer or nominatim
+     */
+    private String source;
+}
@@ -0,0 +1,54 @@
+package com.company.project.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for an aggregated cluster of plots within one grid cell
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlotClusterDto {
+
+    /**
+     * Latitude of the centroid of all plots in the cluster
+     */
+    private Double latitude;
+
+    /**
+     * Longitude of the centroid of all plots in the cluster
+     */
+    private Double longitude;
+
+    /**
+     * Total number of plots in the cluster
+     */
+    private Long count;
+
+    /**
+     * Price statistics, one entry per price unit present in the cluster
+     */
+    private List<PriceStats> prices;
+
+    /**
+     * Price statistics for the plots of a single price unit
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceStats {
+        private String priceUnit;
+        private Long count;
+        private BigDecimal minPrice;
+        private BigDecimal medianPrice;
+        private BigDecimal maxPrice;
+    }
+}
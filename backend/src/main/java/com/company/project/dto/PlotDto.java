@@ -36,6 +36,9 @@ public class PlotDto {
     @Size(max = 50, message = "Price unit cannot exceed 50 characters")
     private String priceUnit;
     
+    // Price per square meter, computed by the server; ignored on input
+    private BigDecimal pricePerSqm;
+    
     private Boolean isForSale;
     
     @Size(max = 500, message = "Description cannot exceed 500 characters")
@@ -51,6 +54,9 @@ public class PlotDto {
     @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180 degrees")
     private Double longitude;
     
+    // Whether the location is an area's point rather than the plot's, set by the server; ignored on input
+    private Boolean locationApproximate;
+    
     private LocalDateTime createdAt;
     
     private LocalDateTime updatedAt;
@@ -0,0 +1,53 @@
+package com.company.project.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for the price statistics of the plots in one geohash cell
+ * Prices are per square meter, so plots priced in different units are aggregated together
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlotGridCellDto {
+
+    /**
+     * Geohash of the cell; its length is the precision the statistics were computed at
+     */
+    private String geohash;
+
+    /**
+     * Latitude of the center of the cell
+     */
+    private Double latitude;
+
+    /**
+     * Longitude of the center of the cell
+     */
+    private Double longitude;
+
+    /**
+     * Number of plots in the cell
+     */
+    private Long count;
+
+    /**
+     * Share of the plots in the cell that are for sale, between 0 and 1
+     */
+    private Double forSaleRatio;
+
+    /**
+     * Percentiles of the price per square meter
+     */
+    private BigDecimal p10PricePerSqm;
+    private BigDecimal p25PricePerSqm;
+    private BigDecimal medianPricePerSqm;
+    private BigDecimal p75PricePerSqm;
+    private BigDecimal p90PricePerSqm;
+}
@@ -0,0 +1,53 @@
+package com.company.project.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object for one normalized record of a JSONL import file
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlotImportRecord {
+
+    /**
+     * Dataset the record comes from, together with externalId the upsert key
+     */
+    private String source;
+
+    private String externalId;
+
+    private String name;
+
+    /**
+     * Price per unit area, in priceUnit
+     */
+    private BigDecimal price;
+
+    private String priceUnit;
+
+    private String description;
+
+    /**
+     * Coordinates, null until geocoded when the source record has none
+     */
+    private Double latitude;
+
+    private Double longitude;
+
+    /**
+     * Whether the coordinates were geocoded from the address, so name an area rather than the plot
+     */
+    private boolean approximate;
+
+    /**
+     * Free-form address used to geocode records without coordinates
+     */
+    private String locationQuery;
+}
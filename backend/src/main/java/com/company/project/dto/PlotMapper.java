@@ -3,6 +3,7 @@ package com.company.project.dto;
 import com.company.project.entity.Plot;
 import com.company.project.entity.User;
 import com.company.project.util.GeometryUtil;
+import com.company.project.util.PriceUnits;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -30,10 +31,13 @@ public class PlotMapper {
                 .price(plot.getPrice())
                 .name(plot.getName())
                 .priceUnit(plot.getPriceUnit())
+                // Derived here rather than read back, as the entity only refreshes it on flush
+                .pricePerSqm(PriceUnits.toPricePerSqm(plot.getPrice(), plot.getPriceUnit()))
                 .isForSale(plot.getIsForSale())
                 .description(plot.getDescription())
                 .latitude(plot.getLatitude())
                 .longitude(plot.getLongitude())
+                .locationApproximate(Boolean.TRUE.equals(plot.getLocationApproximate()))
                 .createdAt(plot.getCreatedAt())
                 .updatedAt(plot.getUpdatedAt())
                 .userId(plot.getUser() != null ? plot.getUser().getId() : null)
@@ -68,7 +72,8 @@ public class PlotMapper {
         plot.setPrice(plotDto.getPrice());
         plot.setName(plotDto.getName());
         plot.setPriceUnit(plotDto.getPriceUnit());
-        plot.setIsForSale(plotDto.getIsForSale());
+        // Unset means for sale, as the column default
+        plot.setIsForSale(plotDto.getIsForSale() != null ? plotDto.getIsForSale() : Boolean.TRUE);
         plot.setDescription(plotDto.getDescription());
         
         // Create a Point geometry from latitude and longitude
@@ -0,0 +1,49 @@
+package com.company.project.dto;
+
+import java.math.BigDecimal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Plot Search Criteria DTO
+ * 
+ * Text query plus the optional listing filters; null filters are not applied.
+ * Listings use the filters alone and ignore the query.
+ * minPrice and maxPrice compare raw prices; the per-square-meter bounds compare prices across units.
+ * The bounding box is applied only when all four bounds are set.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlotSearchCriteria {
+    private String query;
+    private String priceUnit;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private BigDecimal minPricePerSqm;
+    private BigDecimal maxPricePerSqm;
+    private Boolean isForSale;
+    private Double minLat;
+    private Double maxLat;
+    private Double minLng;
+    private Double maxLng;
+
+    /**
+     * Whether any filter other than the text query is set
+     */
+    public boolean hasFilters() {
+        return priceUnit != null || minPrice != null || maxPrice != null || minPricePerSqm != null
+                || maxPricePerSqm != null || isForSale != null || hasBounds();
+    }
+
+    /**
+     * Whether all four bounding box edges are set
+     */
+    public boolean hasBounds() {
+        return minLat != null && maxLat != null && minLng != null && maxLng != null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.company.project.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of the plots in a region that changes whenever any of them is created, updated or deleted
+ * Derived from the data itself, so every instance computes the same watermark for the same state.
+ *
+ * @param count Number of plots in the region
+ * @param lastModified Latest updatedAt in the region, null if the region is empty
+ * @param lastDeletionId Latest tombstone ID in the region, null if none; advances on every delete or
+ *                       move out of the region, even when another change leaves count and time unchanged
+ */
+public record PlotWatermark(long count, LocalDateTime lastModified, Long lastDeletionId) {
+}
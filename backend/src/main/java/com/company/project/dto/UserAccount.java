@@ -0,0 +1,32 @@
+package com.company.project.dto;
+
+import com.company.project.entity.User;
+
+/**
+ * Immutable read model of a user account, safe to share through caches
+ * Carries neither the password hash nor the token version, so it cannot be used to log in or revoke tokens.
+ *
+ * @param id User ID
+ * @param username Username
+ * @param name Display name
+ * @param email Email address
+ * @param role Role
+ * @param status Account status
+ */
+public record UserAccount(Long id, String username, String name, String email, User.Role role, User.Status status) {
+
+    /**
+     * Build a detached User for use as a principal
+     * Every call returns a new instance, so changes to it never reach the cached account.
+     */
+    public User toUser() {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setName(name);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setStatus(status);
+        return user;
+    }
+}
@@ -0,0 +1,27 @@
+package com.company.project.dto.request;
+
+import java.util.List;
+
+import com.company.project.util.AppConstants;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request DTO for geocoding several free-form queries at once
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchGeocodeRequest {
+
+    @NotEmpty(message = "At least one query is required")
+    @Size(max = AppConstants.MAX_GEOCODE_BATCH_SIZE, message = "At most " + AppConstants.MAX_GEOCODE_BATCH_SIZE + " queries are allowed")
+    private List<@NotBlank(message = "Queries must not be blank") String> queries;
+}
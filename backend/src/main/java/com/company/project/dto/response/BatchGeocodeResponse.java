@@ -0,0 +1,36 @@
+package com.company.project.dto.response;
+
+import java.util.List;
+
+import com.company.project.dto.GeocodedLocation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Batch Geocode Response DTO
+ * 
+ * Holds one result per query, in request order.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchGeocodeResponse {
+    private List<Result> results;
+
+    /**
+     * Outcome for one query: a location, nothing found (both null), or an error
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Result {
+        private String query;
+        private GeocodedLocation location;
+        private String error;
+    }
+}
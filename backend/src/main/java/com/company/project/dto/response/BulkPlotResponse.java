@@ -0,0 +1,37 @@
+package com.company.project.dto.response;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bulk Plot Response DTO
+ * 
+ * Reports which plots of a bulk request were created and why the others were rejected.
+ * Rejections refer to plots by their zero-based position in the request.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkPlotResponse {
+    private int received;
+    private int created;
+    private List<Long> createdIds;
+    private List<Rejection> rejected;
+
+    /**
+     * A plot that was not created
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Rejection {
+        private int index;
+        private String reason;
+    }
+}
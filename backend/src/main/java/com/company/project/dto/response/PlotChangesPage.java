@@ -0,0 +1,40 @@
+package com.company.project.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.company.project.dto.PlotDto;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Plot Changes Page DTO
+ * 
+ * Plots created or updated since a watermark, oldest change first, and tombstones of plots
+ * deleted or moved away since then. Tombstones are paged before plots, so applying pages in order
+ * removes before it adds; a plot that moved within the requested area is returned as a plot, and
+ * its tombstone is left out of the same page. Pass watermark as since on the next sync once all
+ * pages have been read.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlotChangesPage {
+    private List<PlotDto> plots;
+    private List<Tombstone> deleted;
+    private LocalDateTime watermark;
+
+    @JsonIgnore
+    private String nextCursor;
+
+    /**
+     * A plot that no longer exists at the given location
+     */
+    public record Tombstone(Long id, Double latitude, Double longitude, LocalDateTime deletedAt) {
+    }
+}
@@ -0,0 +1,25 @@
+package com.company.project.dto.response;
+
+import java.util.List;
+
+import com.company.project.dto.PlotDto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Plot Search Page DTO
+ * 
+ * One page of search results, best match first, and the cursor for the next page
+ * (null when there are no more results).
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlotSearchPage {
+    private List<PlotDto> plots;
+    private String nextCursor;
+}
@@ -0,0 +1,37 @@
+package com.company.project.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity holding one cached geocoding search response
+ */
+@Entity
+@Table(name = "geocoding_cache")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeocodingCacheEntry {
+
+    /**
+     * Result limit and normalized query
+     */
+    @Id
+    @Column(name = "cache_key", length = 600)
+    private String cacheKey;
+
+    /**
+     * Provider response as a JSON array
+     */
+    @Column(name = "response", nullable = false, columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt;
+}
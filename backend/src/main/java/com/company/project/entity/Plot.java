@@ -11,6 +11,8 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.locationtech.jts.geom.Point;
 
+import com.company.project.util.PriceUnits;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -18,15 +20,22 @@ import java.time.LocalDateTime;
  * Entity representing a plot with geospatial data
  */
 @Entity
-@Table(name = "plots")
+@Table(name = "plots", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_plots_source_external_id", columnNames = {"source", "external_id"})
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Plot {
 
+    /**
+     * Sequence-generated so inserts can be sent as JDBC batches (IDENTITY disables batching)
+     * The allocation size must match the INCREMENT BY of plots_id_seq
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "plots_id_seq")
+    @SequenceGenerator(name = "plots_id_seq", sequenceName = "plots_id_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -51,6 +60,13 @@ public class Plot {
     @Column(length = 500)
     private String description;
 
+    /**
+     * Price converted to a price per square meter, so plots priced in different units can be compared
+     * Derived from price and priceUnit on every write
+     */
+    @Column(name = "price_per_sqm", nullable = false, precision = 19, scale = PriceUnits.PRICE_PER_SQM_SCALE)
+    private BigDecimal pricePerSqm;
+
     /**
      * The geographic location of the plot stored as a Point geometry
      * Uses SRID 4326 (WGS84) for coordinate system consistency
@@ -71,6 +87,28 @@ public class Plot {
     @Column(name = "longitude", nullable = false)
     private Double longitude;
 
+    /**
+     * Dataset the plot was imported from, null for plots created through the API
+     */
+    @Size(max = 50)
+    @Column(name = "source", length = 50)
+    private String source;
+
+    /**
+     * Identifier of the plot within its source dataset
+     */
+    @Size(max = 255)
+    @Column(name = "external_id", length = 255)
+    private String externalId;
+
+    /**
+     * Whether the location was geocoded from an address, so it names an area rather than the plot
+     * Such plots share their area's point and are left out of duplicate and nearest-plot checks
+     */
+    @Builder.Default
+    @Column(name = "location_approximate", nullable = false)
+    private Boolean locationApproximate = false;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -87,15 +125,30 @@ public class Plot {
     private User user;
 
     /**
-     * Pre-persist hook to extract latitude and longitude from Point
-     * Note: In PostGIS/JTS, Point coordinates are stored as (X, Y) = (longitude, latitude)
+     * Pre-persist hook to refresh the columns derived from location and price
      */
     @PrePersist
     @PreUpdate
+    public void updateDerivedColumns() {
+        updateCoordinates();
+        updatePricePerSqm();
+    }
+
+    /**
+     * Extract latitude and longitude from Point
+     * Note: In PostGIS/JTS, Point coordinates are stored as (X, Y) = (longitude, latitude)
+     */
     public void updateCoordinates() {
         if (location != null) {
             this.latitude = location.getY();  // Y coordinate is latitude
             this.longitude = location.getX(); // X coordinate is longitude
         }
     }
+
+    /**
+     * Recompute the normalized price from price and priceUnit
+     */
+    public void updatePricePerSqm() {
+        this.pricePerSqm = PriceUnits.toPricePerSqm(price, priceUnit);
+    }
 } 
\ No newline at end of file
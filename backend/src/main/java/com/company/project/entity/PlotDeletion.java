@@ -0,0 +1,43 @@
+package com.company.project.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tombstone of a plot that no longer exists at a location
+ * Written when a plot is deleted, and when an update moves it, with the location it left
+ */
+@Entity
+@Table(name = "plot_deletions")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlotDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * ID of the deleted or moved plot; not a foreign key, the plot row may be gone
+     */
+    @Column(name = "plot_id", nullable = false)
+    private Long plotId;
+
+    @Column(name = "latitude", nullable = false)
+    private Double latitude;
+
+    @Column(name = "longitude", nullable = false)
+    private Double longitude;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+}
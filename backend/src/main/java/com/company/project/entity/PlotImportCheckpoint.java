@@ -0,0 +1,94 @@
+package com.company.project.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity tracking the progress of one JSONL plot import
+ * committedLines only advances over contiguous finished chunks, so an interrupted import
+ * can resume from it without skipping or repeating work
+ */
+@Entity
+@Table(name = "plot_import_checkpoints", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_plot_import_checkpoints_file", columnNames = {"file_name", "fingerprint"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlotImportCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * File name relative to the import directory
+     */
+    @Column(name = "file_name", nullable = false, length = 255)
+    private String fileName;
+
+    /**
+     * File size and modification time, so a replaced file starts a new import
+     */
+    @Column(name = "fingerprint", nullable = false, length = 100)
+    private String fingerprint;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    /**
+     * Number of leading lines of the file that have been fully processed
+     */
+    @Column(name = "committed_lines", nullable = false)
+    private long committedLines;
+
+    /**
+     * Plots inserted or updated
+     */
+    @Column(name = "written_count", nullable = false)
+    private long writtenCount;
+
+    /**
+     * Records skipped because another plot is too close or the stored plot is unchanged
+     */
+    @Column(name = "duplicate_count", nullable = false)
+    private long duplicateCount;
+
+    /**
+     * Records that could not be parsed, priced or located
+     */
+    @Column(name = "rejected_count", nullable = false)
+    private long rejectedCount;
+
+    @Column(name = "error_message", length = 1000)
+    private String errorMessage;
+
+    @CreationTimestamp
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    /**
+     * Import states
+     */
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
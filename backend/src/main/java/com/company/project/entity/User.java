@@ -19,9 +19,17 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
 
 @Data
 @Entity
@@ -52,12 +60,34 @@ public class User implements UserDetails {
 
     private LocalDateTime lastLogin;
 
+    /**
+     * Embedded in access tokens; incrementing it revokes every token issued before
+     */
+    @Column(nullable = false)
+    private int tokenVersion = 0;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
+    /**
+     * Username and email as last read from or written to the database, so that a save that renames
+     * the user can evict the account cached under the old keys
+     */
+    @Transient
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String storedUsername;
+
+    @Transient
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private String storedEmail;
+
     /**
      * Pre-persist hook to ensure name is set (defaults to username if not provided)
      * This handles cases where name might be null during migration
@@ -69,6 +99,14 @@ public class User implements UserDetails {
         }
     }
 
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberStoredKeys() {
+        this.storedUsername = this.username;
+        this.storedEmail = this.email;
+    }
+
     public enum Role {
         USER,      // Regular user with minimal privileges (default for public registration)
         ADMIN,     // Administrator with elevated privileges
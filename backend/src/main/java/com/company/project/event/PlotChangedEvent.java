@@ -0,0 +1,74 @@
+package com.company.project.event;
+
+import com.company.project.dto.PlotDto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published by the plot service whenever a plot is created, updated or deleted.
+ * Listeners that keep derived state (indexes, caches) should react after the transaction commits.
+ * Changes made on another instance are republished locally with remote set, see PlotChangeRelay.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PlotChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final ChangeType type;
+
+    /**
+     * State of the plot after the change, or the last known state for deletions
+     */
+    private final PlotDto plot;
+
+    /**
+     * Location before an update that moved the plot, otherwise null
+     */
+    private final Double previousLatitude;
+
+    private final Double previousLongitude;
+
+    /**
+     * Whether the change was committed by another instance
+     */
+    private final boolean remote;
+
+    public Long getPlotId() {
+        return plot.getId();
+    }
+
+    /**
+     * Whether an update moved the plot away from the previous location
+     */
+    public boolean isMoved() {
+        return previousLatitude != null && previousLongitude != null;
+    }
+
+    public static PlotChangedEvent created(PlotDto plot) {
+        return new PlotChangedEvent(ChangeType.CREATED, plot, null, null, false);
+    }
+
+    public static PlotChangedEvent updated(PlotDto plot) {
+        return new PlotChangedEvent(ChangeType.UPDATED, plot, null, null, false);
+    }
+
+    public static PlotChangedEvent moved(PlotDto plot, Double previousLatitude, Double previousLongitude) {
+        return new PlotChangedEvent(ChangeType.UPDATED, plot, previousLatitude, previousLongitude, false);
+    }
+
+    public static PlotChangedEvent deleted(PlotDto plot) {
+        return new PlotChangedEvent(ChangeType.DELETED, plot, null, null, false);
+    }
+
+    /**
+     * A change received from another instance
+     */
+    public static PlotChangedEvent remote(ChangeType type, PlotDto plot, Double previousLatitude, Double previousLongitude) {
+        return new PlotChangedEvent(type, plot, previousLatitude, previousLongitude, true);
+    }
+}
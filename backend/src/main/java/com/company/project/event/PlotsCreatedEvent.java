@@ -0,0 +1,34 @@
+package com.company.project.event;
+
+import java.util.List;
+
+import com.company.project.dto.PlotDto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published once for plots created together, e.g. by a bulk request.
+ * Listeners apply the whole batch in one pass instead of handling a PlotChangedEvent per plot.
+ * Plots created on another instance are republished locally with remote set, see PlotChangeRelay.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PlotsCreatedEvent {
+
+    private final List<PlotDto> plots;
+
+    /**
+     * Whether the plots were created by another instance
+     */
+    private final boolean remote;
+
+    public static PlotsCreatedEvent local(List<PlotDto> plots) {
+        return new PlotsCreatedEvent(List.copyOf(plots), false);
+    }
+
+    public static PlotsCreatedEvent remote(List<PlotDto> plots) {
+        return new PlotsCreatedEvent(List.copyOf(plots), true);
+    }
+}
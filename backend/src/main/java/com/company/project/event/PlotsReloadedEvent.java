@@ -0,0 +1,29 @@
+package com.company.project.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Application event published when plots were written without PlotChangedEvents, e.g. by an import.
+ * Listeners that keep derived state (indexes, caches) reload it from the database rather than
+ * applying individual changes. Reloads requested by another instance are republished locally with
+ * remote set, see PlotChangeRelay.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PlotsReloadedEvent {
+
+    /**
+     * Whether the plots were written by another instance, or missed while the relay was disconnected
+     */
+    private final boolean remote;
+
+    public static PlotsReloadedEvent local() {
+        return new PlotsReloadedEvent(false);
+    }
+
+    public static PlotsReloadedEvent remote() {
+        return new PlotsReloadedEvent(true);
+    }
+}
@@ -0,0 +1,15 @@
+package com.company.project.exception;
+
+/**
+ * Exception thrown when a bulk request contains more items than allowed
+ */
+public class BulkRequestTooLargeException extends RuntimeException {
+    
+    public BulkRequestTooLargeException(String message) {
+        super(message);
+    }
+    
+    public BulkRequestTooLargeException(int size, int maxSize) {
+        super(String.format("Bulk request contains %d items, the maximum is %d", size, maxSize));
+    }
+}
@@ -0,0 +1,18 @@
+package com.company.project.exception;
+
+/**
+ * Exception thrown when an export cannot start because too many are already running
+ */
+public class ExportCapacityException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ExportCapacityException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
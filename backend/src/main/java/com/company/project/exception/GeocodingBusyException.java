@@ -0,0 +1,11 @@
+package com.company.project.exception;
+
+/**
+ * Exception thrown when the maximum number of concurrent geocoding requests is already in flight
+ */
+public class GeocodingBusyException extends GeocodingException {
+
+    public GeocodingBusyException() {
+        super("Too many concurrent geocoding requests", null);
+    }
+}
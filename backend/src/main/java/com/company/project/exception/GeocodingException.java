@@ -0,0 +1,37 @@
+package com.company.project.exception;
+
+/**
+ * Exception thrown when the geocoding provider cannot be reached or rejects a request
+ */
+public class GeocodingException extends RuntimeException {
+    
+    /**
+     * HTTP status returned by the provider, or 0 if no response was received
+     */
+    private final int upstreamStatus;
+    
+    /**
+     * Response body returned by the provider, if any
+     */
+    private final String upstreamBody;
+    
+    public GeocodingException(String message, Throwable cause) {
+        super(message, cause);
+        this.upstreamStatus = 0;
+        this.upstreamBody = null;
+    }
+    
+    public GeocodingException(int upstreamStatus, String upstreamBody) {
+        super("Geocoding provider returned status " + upstreamStatus);
+        this.upstreamStatus = upstreamStatus;
+        this.upstreamBody = upstreamBody;
+    }
+    
+    public int getUpstreamStatus() {
+        return upstreamStatus;
+    }
+    
+    public String getUpstreamBody() {
+        return upstreamBody;
+    }
+}
@@ -1,5 +1,6 @@
 package com.company.project.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -156,6 +157,30 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    @ExceptionHandler(BulkRequestTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handleBulkRequestTooLarge(BulkRequestTooLargeException ex) {
+        log.warn("Bulk request too large: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+                .status("ERROR")
+                .code(413)
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
+    }
+
+    @ExceptionHandler(PlotImportException.class)
+    public ResponseEntity<ErrorResponse> handlePlotImport(PlotImportException ex) {
+        log.warn("Plot import error: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+                .status("ERROR")
+                .code(400)
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(InvalidCoordinateException.class)
     public ResponseEntity<ErrorResponse> handleInvalidCoordinate(InvalidCoordinateException ex) {
         log.warn("Invalid coordinate error: {}", ex.getMessage());
@@ -168,6 +193,42 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursor(InvalidCursorException ex) {
+        log.warn("Invalid cursor error: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+                .status("ERROR")
+                .code(400)
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidParameterException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidParameter(InvalidParameterException ex) {
+        log.warn("Invalid parameter error: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+                .status("ERROR")
+                .code(400)
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    @ExceptionHandler(InvalidPriceUnitException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidPriceUnit(InvalidPriceUnitException ex) {
+        log.warn("Invalid price unit error: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+                .status("ERROR")
+                .code(400)
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
     @ExceptionHandler(InvalidRoleException.class)
     public ResponseEntity<ApiResponse<String>> handleInvalidRoleException(InvalidRoleException ex) {
         log.warn("Invalid role assignment attempt: {}", ex.getMessage());
@@ -180,6 +241,31 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(response, HttpStatus.FORBIDDEN);
     }
 
+    /**
+     * No body: the request asked for an event stream, which an error object cannot be written as
+     */
+    @ExceptionHandler(StreamCapacityException.class)
+    public ResponseEntity<Void> handleStreamCapacity(StreamCapacityException ex) {
+        log.warn("Plot change stream refused: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .build();
+    }
+
+    @ExceptionHandler(ExportCapacityException.class)
+    public ResponseEntity<ErrorResponse> handleExportCapacity(ExportCapacityException ex) {
+        log.warn("Plot export refused: {}", ex.getMessage());
+        ErrorResponse error = ErrorResponse.builder()
+                .status("ERROR")
+                .code(503)
+                .message(ex.getMessage())
+                .timestamp(LocalDateTime.now().toString())
+                .build();
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     @ExceptionHandler(PlotOwnershipException.class)
     public ResponseEntity<ErrorResponse> handlePlotOwnershipException(PlotOwnershipException ex) {
         log.warn("Plot ownership violation: {}", ex.getMessage());
@@ -0,0 +1,11 @@
+package com.company.project.exception;
+
+/**
+ * Exception thrown when a request parameter has an unsupported value
+ */
+public class InvalidParameterException extends RuntimeException {
+    
+    public InvalidParameterException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.company.project.exception;
+
+/**
+ * Exception thrown when a price unit filter does not name a known unit
+ */
+public class InvalidPriceUnitException extends RuntimeException {
+    
+    public InvalidPriceUnitException(String priceUnit) {
+        super("Unknown price unit: " + priceUnit);
+    }
+}
@@ -0,0 +1,15 @@
+package com.company.project.exception;
+
+/**
+ * Exception thrown when a plot import cannot be started
+ */
+public class PlotImportException extends RuntimeException {
+    
+    public PlotImportException(String message) {
+        super(message);
+    }
+    
+    public PlotImportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.company.project.exception;
+
+/**
+ * Exception thrown when a plot change stream cannot be opened because too many are open
+ */
+public class StreamCapacityException extends RuntimeException {
+
+    public StreamCapacityException(String message) {
+        super(message);
+    }
+}
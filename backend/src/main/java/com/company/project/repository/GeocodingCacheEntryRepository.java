@@ -0,0 +1,25 @@
+package com.company.project.repository;
+
+import com.company.project.entity.GeocodingCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for GeocodingCacheEntry entity
+ */
+@Repository
+public interface GeocodingCacheEntryRepository extends JpaRepository<GeocodingCacheEntry, String> {
+
+    /**
+     * Delete responses fetched before the cutoff; uses idx_geocoding_cache_fetched_at
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM GeocodingCacheEntry e WHERE e.fetchedAt < ?1")
+    int deleteFetchedBefore(LocalDateTime cutoff);
+}
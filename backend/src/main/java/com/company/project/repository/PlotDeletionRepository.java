@@ -0,0 +1,48 @@
+package com.company.project.repository;
+
+import com.company.project.entity.PlotDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for PlotDeletion entity
+ */
+@Repository
+public interface PlotDeletionRepository extends JpaRepository<PlotDeletion, Long> {
+
+    /**
+     * Find the next page of tombstones written after a point in time, oldest first
+     * Tombstones are ordered by deletion time and ID; a page starts after the given position.
+     */
+    @Query("SELECT d FROM PlotDeletion d WHERE d.deletedAt > :since " +
+           "AND (d.deletedAt > :afterDeletedAt OR (d.deletedAt = :afterDeletedAt AND d.id > :afterId)) " +
+           "ORDER BY d.deletedAt, d.id")
+    List<PlotDeletion> findPageAfter(
+            @Param("since") LocalDateTime since,
+            @Param("afterDeletedAt") LocalDateTime afterDeletedAt,
+            @Param("afterId") long afterId,
+            Pageable pageable);
+
+    /**
+     * Find the next page of tombstones within a bounding box written after a point in time, oldest first
+     */
+    @Query("SELECT d FROM PlotDeletion d WHERE d.deletedAt > :since " +
+           "AND (d.deletedAt > :afterDeletedAt OR (d.deletedAt = :afterDeletedAt AND d.id > :afterId)) " +
+           "AND d.latitude BETWEEN :minLat AND :maxLat AND d.longitude BETWEEN :minLng AND :maxLng " +
+           "ORDER BY d.deletedAt, d.id")
+    List<PlotDeletion> findPageWithinBoundingBoxAfter(
+            @Param("since") LocalDateTime since,
+            @Param("afterDeletedAt") LocalDateTime afterDeletedAt,
+            @Param("afterId") long afterId,
+            @Param("minLat") Double minLat,
+            @Param("minLng") Double minLng,
+            @Param("maxLat") Double maxLat,
+            @Param("maxLng") Double maxLng,
+            Pageable pageable);
+}
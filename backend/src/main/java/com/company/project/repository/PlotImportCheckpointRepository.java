@@ -0,0 +1,25 @@
+package com.company.project.repository;
+
+import com.company.project.entity.PlotImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for PlotImportCheckpoint entity
+ */
+@Repository
+public interface PlotImportCheckpointRepository extends JpaRepository<PlotImportCheckpoint, Long> {
+
+    /**
+     * Find the checkpoint of a specific version of a file
+     */
+    Optional<PlotImportCheckpoint> findByFileNameAndFingerprint(String fileName, String fingerprint);
+
+    /**
+     * Find all checkpoints, most recent first
+     */
+    List<PlotImportCheckpoint> findAllByOrderByStartedAtDesc();
+}
@@ -1,22 +1,34 @@
 package com.company.project.repository;
 
+import com.company.project.dto.PlotWatermark;
 import com.company.project.entity.Plot;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for the Plot entity with spatial query methods
+ * Filtered listings are built from {@link PlotSpecifications}
  */
 @Repository
-public interface PlotRepository extends JpaRepository<Plot, Long> {
+public interface PlotRepository extends JpaRepository<Plot, Long>, JpaSpecificationExecutor<Plot>, PlotRepositoryCustom {
+    
+    // Rows fetched per database round trip when streaming exports
+    String EXPORT_FETCH_SIZE = "500";
     
     /**
      * Find all plots within a specified distance of a point
@@ -32,14 +44,40 @@ public interface PlotRepository extends JpaRepository<Plot, Long> {
     /**
      * Find the nearest plot to a point within a specified distance
      *
-     * @param point The geographic point (location)
+     * @param latitude The latitude coordinate
+     * @param longitude The longitude coordinate
      * @param distanceInMeters The maximum distance in meters
      * @return Optional containing the nearest plot, if one exists within the distance
      */
-    @Query(value = "SELECT * FROM plots WHERE ST_Distance_Sphere(location, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)) <= :distanceInMeters " +
-            "ORDER BY ST_Distance_Sphere(location, ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326)) LIMIT 1", nativeQuery = true)
-    Optional<Plot> findNearestPlot(@Param("latitude") double latitude, @Param("longitude") double longitude, 
-                                  @Param("distanceInMeters") double distanceInMeters);
+    default Optional<Plot> findNearestPlot(double latitude, double longitude, double distanceInMeters) {
+        return findNearestPlots(latitude, longitude, distanceInMeters, 1).stream().findFirst();
+    }
+    
+    /**
+     * Find the k nearest plots to a point within a specified distance
+     * The bounding box overlap (&&) lets the planner use the geometry GIST index to narrow the rows; the
+     * box is widened by the smallest length of a degree, and for longitude at the latitude nearest the pole,
+     * so it always contains the radius. ST_DWithin then enforces the radius in meters, and ordering by
+     * geography distance ranks on the spheroid rather than in degrees, which would favour north-south
+     * neighbours away from the equator.
+     * Plots with approximate locations are left out, as their point is not where the plot is.
+     *
+     * @param latitude The latitude coordinate
+     * @param longitude The longitude coordinate
+     * @param distanceInMeters The maximum distance in meters
+     * @param k Maximum number of plots to return
+     * @return Up to k plots within the distance, nearest first
+     */
+    @Query(value = "SELECT * FROM plots " +
+            "WHERE NOT location_approximate " +
+            "AND location && ST_Expand(ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326), " +
+            "    :distanceInMeters / (110574.0 * GREATEST(cos(radians(LEAST(abs(:latitude) + :distanceInMeters / 110574.0, 90))), 0.000001)), " +
+            "    :distanceInMeters / 110574.0) " +
+            "AND ST_DWithin(CAST(location AS geography), CAST(ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326) AS geography), :distanceInMeters) " +
+            "ORDER BY CAST(location AS geography) <-> CAST(ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326) AS geography) " +
+            "LIMIT :k", nativeQuery = true)
+    List<Plot> findNearestPlots(@Param("latitude") double latitude, @Param("longitude") double longitude, 
+                                @Param("distanceInMeters") double distanceInMeters, @Param("k") int k);
     
     /**
      * Find all plots within a bounding box
@@ -48,17 +86,90 @@ public interface PlotRepository extends JpaRepository<Plot, Long> {
      * @param minLng Minimum longitude
      * @param maxLat Maximum latitude
      * @param maxLng Maximum longitude
-     * @param pageable Pagination information
-     * @return Page of plots within the bounding box
+     * @param afterId Only plots with a greater ID are returned (0 for the first page)
+     * @param pageable Page size; the page number must be 0
+     * @return Slice of plots within the bounding box, ordered by ID
      */
-    @Query(value = "SELECT p FROM Plot p WHERE p.latitude BETWEEN :minLat AND :maxLat AND p.longitude BETWEEN :minLng AND :maxLng")
-    Page<Plot> findPlotsWithinBoundingBox(
+    @Query(value = "SELECT p FROM Plot p WHERE p.latitude BETWEEN :minLat AND :maxLat AND p.longitude BETWEEN :minLng AND :maxLng " +
+           "AND p.id > :afterId ORDER BY p.id")
+    Slice<Plot> findPlotsWithinBoundingBox(
             @Param("minLat") double minLat,
             @Param("minLng") double minLng,
             @Param("maxLat") double maxLat,
             @Param("maxLng") double maxLng,
+            @Param("afterId") long afterId,
             Pageable pageable);
     
+    /**
+     * Find when a plot was last modified, without loading it
+     *
+     * @param id The plot ID
+     * @return Optional containing the plot's updatedAt, empty if the plot does not exist
+     */
+    @Query("SELECT p.updatedAt FROM Plot p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+    
+    /**
+     * Find the latest time delta sync can treat as complete: now, or the start of the oldest transaction
+     * still writing to the database if that is earlier. Such a transaction's rows are stamped no earlier
+     * than its start but stay invisible until it commits, so watermarks must not pass it.
+     * Both times come from the database clock and are returned as an absolute time, so neither the
+     * session time zone nor the application clock affects the result.
+     *
+     * @return Horizon in seconds since the epoch
+     */
+    @Query(value = "SELECT CAST(EXTRACT(EPOCH FROM LEAST(clock_timestamp(), MIN(xact_start))) AS double precision) " +
+            "FROM pg_stat_activity WHERE datname = current_database() AND backend_xid IS NOT NULL", nativeQuery = true)
+    double findChangeHorizonEpochSeconds();
+    
+    /**
+     * Summarize all plots for change detection
+     *
+     * @return Number of plots, their latest updatedAt and the latest tombstone ID
+     */
+    @Query("SELECT new com.company.project.dto.PlotWatermark(COUNT(p), MAX(p.updatedAt), " +
+           "(SELECT MAX(d.id) FROM PlotDeletion d)) FROM Plot p")
+    PlotWatermark findWatermark();
+    
+    /**
+     * Summarize the plots within a bounding box for change detection
+     *
+     * @return Number of plots in the bounding box, their latest updatedAt and the latest tombstone ID in it
+     */
+    @Query("SELECT new com.company.project.dto.PlotWatermark(COUNT(p), MAX(p.updatedAt), " +
+           "(SELECT MAX(d.id) FROM PlotDeletion d WHERE d.latitude BETWEEN :minLat AND :maxLat " +
+           "AND d.longitude BETWEEN :minLng AND :maxLng)) FROM Plot p " +
+           "WHERE p.latitude BETWEEN :minLat AND :maxLat AND p.longitude BETWEEN :minLng AND :maxLng")
+    PlotWatermark findWatermarkWithinBoundingBox(
+            @Param("minLat") double minLat,
+            @Param("minLng") double minLng,
+            @Param("maxLat") double maxLat,
+            @Param("maxLng") double maxLng);
+    
+    /**
+     * Find plots after a keyset position, without a count query
+     *
+     * @param afterId Only plots with a greater ID are returned (0 for the first page)
+     * @param pageable Page size; the page number must be 0
+     * @return Slice of plots ordered by ID
+     */
+    Slice<Plot> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+    
+    /**
+     * Stream all plots intersecting a region, ordered by ID
+     * Rows are fetched from a server-side cursor in batches of EXPORT_FETCH_SIZE, so the caller must
+     * consume the stream inside a transaction and close it when done
+     *
+     * @param regionWkt Region as WKT in WGS84
+     * @return Stream of plots inside the region
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT * FROM plots WHERE ST_Intersects(location, ST_GeomFromText(:regionWkt, 4326)) ORDER BY id", nativeQuery = true)
+    Stream<Plot> streamPlotsIntersecting(@Param("regionWkt") String regionWkt);
+    
     /**
      * Find plots by user ID
      *
@@ -68,39 +179,24 @@ public interface PlotRepository extends JpaRepository<Plot, Long> {
      */
     Page<Plot> findByUserId(Long userId, Pageable pageable);
     
-    /**
-     * Find plots with optional filters
-     *
-     * @param pageable Pagination information
-     * @param minPrice Minimum price filter (optional)
-     * @param maxPrice Maximum price filter (optional)
-     * @param isForSale Sale status filter (optional)
-     * @return Page of plots matching the criteria
-     */
-    @Query("SELECT p FROM Plot p WHERE " +
-           "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
-           "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
-           "(:isForSale IS NULL OR p.isForSale = :isForSale)")
-    Page<Plot> findPlotsWithFilters(
-            Pageable pageable,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            @Param("isForSale") Boolean isForSale);
-    
     /**
      * Check if any plots exist within a specified distance of a location
+     * Measured on the spheroid and answered from the geography index, stopping at the first match.
+     * Plots with approximate locations are ignored, since many share one area's point.
      *
      * @param latitude The latitude coordinate
      * @param longitude The longitude coordinate
      * @param distanceInMeters The distance in meters
      * @return True if any plots exist within the distance, false otherwise
      */
-    @Query(value = "SELECT COUNT(*) > 0 FROM plots WHERE ST_DWithin(ST_Transform(location, 3857), ST_Transform(ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326), 3857), :distanceInMeters)", nativeQuery = true)
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM plots WHERE NOT location_approximate " +
+            "AND ST_DWithin(CAST(location AS geography), CAST(ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326) AS geography), :distanceInMeters))", nativeQuery = true)
     boolean existsPlotsWithinDistance(@Param("latitude") double latitude, @Param("longitude") double longitude, 
                                      @Param("distanceInMeters") double distanceInMeters);
     
     /**
      * Check if any plots exist within a specified distance of a location, excluding a specific plot ID
+     * Plots with approximate locations are ignored, as in {@link #existsPlotsWithinDistance}
      *
      * @param latitude The latitude coordinate
      * @param longitude The longitude coordinate
@@ -108,7 +204,105 @@ public interface PlotRepository extends JpaRepository<Plot, Long> {
      * @param excludeId Plot ID to exclude from the check
      * @return True if any plots exist within the distance, false otherwise
      */
-    @Query(value = "SELECT COUNT(*) > 0 FROM plots WHERE id != :excludeId AND ST_DWithin(ST_Transform(location, 3857), ST_Transform(ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326), 3857), :distanceInMeters)", nativeQuery = true)
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM plots WHERE id != :excludeId AND NOT location_approximate " +
+            "AND ST_DWithin(CAST(location AS geography), CAST(ST_SetSRID(ST_MakePoint(:longitude, :latitude), 4326) AS geography), :distanceInMeters))", nativeQuery = true)
     boolean existsPlotsWithinDistanceExcluding(@Param("latitude") double latitude, @Param("longitude") double longitude, 
                                               @Param("distanceInMeters") double distanceInMeters, @Param("excludeId") Long excludeId);
-} 
\ No newline at end of file
+    
+    /**
+     * Aggregate the plots inside a bounding box into square grid cells, one row per cell and price unit.
+     * The envelope filter uses the GIST index on location.
+     *
+     * @param minLat Minimum latitude
+     * @param minLng Minimum longitude
+     * @param maxLat Maximum latitude
+     * @param maxLng Maximum longitude
+     * @param cellSize Grid cell size in degrees
+     * @return Cluster buckets within the bounding box
+     */
+    @Query(value = "SELECT CAST(FLOOR(longitude / :cellSize) AS BIGINT) AS \"cellX\", " +
+            "CAST(FLOOR(latitude / :cellSize) AS BIGINT) AS \"cellY\", " +
+            "price_unit AS \"priceUnit\", " +
+            "COUNT(*) AS \"plotCount\", " +
+            "AVG(latitude) AS \"centroidLat\", " +
+            "AVG(longitude) AS \"centroidLng\", " +
+            "MIN(price) AS \"minPrice\", " +
+            "percentile_cont(0.5) WITHIN GROUP (ORDER BY price) AS \"medianPrice\", " +
+            "MAX(price) AS \"maxPrice\" " +
+            "FROM plots WHERE location && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326) " +
+            "GROUP BY 1, 2, 3", nativeQuery = true)
+    List<ClusterBucket> findClusterBuckets(
+            @Param("minLat") double minLat,
+            @Param("minLng") double minLng,
+            @Param("maxLat") double maxLat,
+            @Param("maxLng") double maxLng,
+            @Param("cellSize") double cellSize);
+    
+    /**
+     * Projection of one grid cell and price unit produced by {@link #findClusterBuckets}
+     */
+    interface ClusterBucket {
+        Long getCellX();
+        Long getCellY();
+        String getPriceUnit();
+        Long getPlotCount();
+        Double getCentroidLat();
+        Double getCentroidLng();
+        BigDecimal getMinPrice();
+        Double getMedianPrice();
+        BigDecimal getMaxPrice();
+    }
+    
+    /**
+     * Read the columns the price grid aggregates, for every plot
+     */
+    @Query("SELECT p.id AS id, p.latitude AS latitude, p.longitude AS longitude, " +
+           "p.pricePerSqm AS pricePerSqm, p.isForSale AS isForSale FROM Plot p")
+    List<PriceGridEntry> findPriceGridEntries();
+    
+    /**
+     * Projection of one plot as read by {@link #findPriceGridEntries}
+     */
+    interface PriceGridEntry {
+        Long getId();
+        Double getLatitude();
+        Double getLongitude();
+        BigDecimal getPricePerSqm();
+        Boolean getIsForSale();
+    }
+    
+    /**
+     * Aggregate normalized prices per geohash cell within an envelope
+     * Used when the in-memory price grid is not available; the envelope should be aligned to cell edges
+     */
+    @Query(value = "SELECT ST_GeoHash(location, :precision) AS \"geohash\", " +
+            "COUNT(*) AS \"plotCount\", " +
+            "COUNT(*) FILTER (WHERE is_for_sale) AS \"forSaleCount\", " +
+            "percentile_cont(0.1) WITHIN GROUP (ORDER BY price_per_sqm) AS \"p10\", " +
+            "percentile_cont(0.25) WITHIN GROUP (ORDER BY price_per_sqm) AS \"p25\", " +
+            "percentile_cont(0.5) WITHIN GROUP (ORDER BY price_per_sqm) AS \"p50\", " +
+            "percentile_cont(0.75) WITHIN GROUP (ORDER BY price_per_sqm) AS \"p75\", " +
+            "percentile_cont(0.9) WITHIN GROUP (ORDER BY price_per_sqm) AS \"p90\" " +
+            "FROM plots WHERE location && ST_MakeEnvelope(:minLng, :minLat, :maxLng, :maxLat, 4326) " +
+            "GROUP BY 1", nativeQuery = true)
+    List<GridCellBucket> findGridCells(
+            @Param("minLat") double minLat,
+            @Param("minLng") double minLng,
+            @Param("maxLat") double maxLat,
+            @Param("maxLng") double maxLng,
+            @Param("precision") int precision);
+    
+    /**
+     * Projection of one geohash cell produced by {@link #findGridCells}
+     */
+    interface GridCellBucket {
+        String getGeohash();
+        Long getPlotCount();
+        Long getForSaleCount();
+        Double getP10();
+        Double getP25();
+        Double getP50();
+        Double getP75();
+        Double getP90();
+    }
+}
@@ -0,0 +1,63 @@
+package com.company.project.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import com.company.project.dto.PlotImportRecord;
+import com.company.project.dto.PlotSearchCriteria;
+
+/**
+ * Custom plot queries that need direct JDBC access rather than JPA mapping
+ */
+public interface PlotRepositoryCustom {
+
+    /**
+     * Render the plots inside a web mercator tile as a Mapbox Vector Tile
+     *
+     * @param zoom Tile zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return Encoded tile with a single "plots" layer, empty if the tile contains no plots
+     */
+    byte[] findTileAsMvt(int zoom, int x, int y);
+
+    /**
+     * Find which candidate locations lie within a distance of an existing plot, in a single query
+     *
+     * @param latitudes Candidate latitudes
+     * @param longitudes Candidate longitudes, same length as latitudes
+     * @param distanceInMeters The distance in meters
+     * @return Zero-based positions of the candidates that have an existing plot within the distance
+     */
+    Set<Integer> findPositionsNearExistingPlots(double[] latitudes, double[] longitudes, double distanceInMeters);
+
+    /**
+     * Insert imported plots, or update the plot with the same source and external ID, in one JDBC batch
+     * A record is skipped when a different plot with a precise location lies within the distance, or when it
+     * matches the stored plot. Records with approximate coordinates skip the distance check and are stored
+     * as approximate. A record that moves its stored plot leaves a tombstone at the old location.
+     *
+     * @param records Records with coordinates
+     * @param distanceInMeters Minimum distance to other plots
+     * @return Rows written per record: 1 if inserted or updated, 0 if skipped
+     */
+    int[] upsertImportedPlots(List<PlotImportRecord> records, double distanceInMeters);
+
+    /**
+     * Find plots matching a text query and filters, best match first
+     * Matches words and word prefixes in name and description, and similar spellings of the name.
+     * Only the filters present in the criteria are added to the query.
+     *
+     * @param criteria Query text and optional filters
+     * @param after Rank and ID of the last hit already returned, or null for the first page
+     * @param limit Maximum number of hits to return
+     * @return Hits ordered by rank descending, then ID
+     */
+    List<SearchHit> searchPlots(PlotSearchCriteria criteria, SearchHit after, int limit);
+
+    /**
+     * A plot ID with its search rank
+     */
+    record SearchHit(long id, float rank) {
+    }
+}
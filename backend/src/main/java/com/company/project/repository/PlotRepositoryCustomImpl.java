@@ -0,0 +1,241 @@
+package com.company.project.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+
+import com.company.project.dto.PlotImportRecord;
+import com.company.project.dto.PlotSearchCriteria;
+import com.company.project.util.PriceUnits;
+
+/**
+ * JDBC implementation of {@link PlotRepositoryCustom}
+ * Picked up by Spring Data as a fragment of {@link PlotRepository}
+ */
+@RequiredArgsConstructor
+public class PlotRepositoryCustomImpl implements PlotRepositoryCustom {
+
+    /**
+     * Tile geometry is clipped to the tile envelope in 3857 while the envelope itself is
+     * transformed once to 4326, so the bounding box filter on location uses idx_plots_location.
+     */
+    private static final String TILE_SQL =
+            "WITH bounds AS (SELECT ST_TileEnvelope(?, ?, ?) AS geom) " +
+            "SELECT ST_AsMVT(tile, 'plots', 4096, 'geom') FROM (" +
+            "  SELECT ST_AsMVTGeom(ST_Transform(p.location, 3857), bounds.geom, 4096, 64, true) AS geom," +
+            "         p.id," +
+            "         CAST(p.price AS double precision) AS price," +
+            "         p.price_unit," +
+            "         p.is_for_sale," +
+            "         p.location_approximate" +
+            "  FROM plots p, bounds" +
+            "  WHERE p.location && ST_Transform(bounds.geom, 4326)" +
+            ") AS tile";
+
+    /**
+     * Candidates are passed as two arrays and joined against plots with the geography index,
+     * so checking a whole batch costs one round trip instead of one query per plot.
+     * Plots with approximate locations are not compared against.
+     */
+    private static final String NEAR_EXISTING_SQL =
+            "SELECT c.ord - 1 FROM unnest(CAST(? AS float8[]), CAST(? AS float8[])) WITH ORDINALITY AS c(lat, lng, ord) " +
+            "WHERE EXISTS (SELECT 1 FROM plots p " +
+            "  WHERE NOT p.location_approximate AND ST_DWithin(CAST(p.location AS geography), CAST(ST_SetSRID(ST_MakePoint(c.lng, c.lat), 4326) AS geography), ?))";
+
+    /**
+     * Upsert keyed on (source, external_id). The candidate holds the record if it passes the NOT EXISTS guard,
+     * which ignores the plot's own stored row and rows with approximate locations, and is bypassed for
+     * approximate coordinates, which are stored as such; the DO UPDATE ... WHERE clause turns unchanged
+     * re-imports into no-ops. When the record moves its stored plot, the moved CTE leaves a tombstone at the
+     * old location for delta sync; a move always changes the row, so its update is never skipped.
+     * Times come from clock_timestamp(), not now(), so rows are stamped when written rather than when the chunk began.
+     */
+    private static final String UPSERT_IMPORTED_SQL =
+            "WITH candidate AS (" +
+            "  SELECT CAST(? AS numeric) AS price, CAST(? AS varchar) AS name, CAST(? AS varchar) AS price_unit, " +
+            "         CAST(? AS varchar) AS description, CAST(? AS float8) AS longitude, CAST(? AS float8) AS latitude, " +
+            "         CAST(? AS varchar) AS source, CAST(? AS varchar) AS external_id, " +
+            "         CAST(? AS numeric) AS price_per_sqm, CAST(? AS boolean) AS location_approximate " +
+            "  WHERE CAST(? AS boolean) OR NOT EXISTS (SELECT 1 FROM plots p " +
+            "    WHERE NOT p.location_approximate AND ST_DWithin(CAST(p.location AS geography), CAST(ST_SetSRID(ST_MakePoint(?, ?), 4326) AS geography), ?) " +
+            "    AND (p.source IS DISTINCT FROM ? OR p.external_id IS DISTINCT FROM ?))" +
+            "), moved AS (" +
+            "  INSERT INTO plot_deletions (plot_id, latitude, longitude, deleted_at) " +
+            "  SELECT p.id, p.latitude, p.longitude, clock_timestamp() " +
+            "  FROM plots p JOIN candidate c ON p.source = c.source AND p.external_id = c.external_id " +
+            "  WHERE (p.latitude, p.longitude) IS DISTINCT FROM (c.latitude, c.longitude)" +
+            ") " +
+            "INSERT INTO plots (price, name, price_unit, is_for_sale, description, location, latitude, longitude, " +
+            "                   source, external_id, price_per_sqm, location_approximate, created_at, updated_at) " +
+            "SELECT price, name, price_unit, true, description, ST_SetSRID(ST_MakePoint(longitude, latitude), 4326), " +
+            "       latitude, longitude, source, external_id, price_per_sqm, location_approximate, " +
+            "       clock_timestamp(), clock_timestamp() " +
+            "FROM candidate " +
+            "ON CONFLICT (source, external_id) DO UPDATE SET " +
+            "  price = EXCLUDED.price, name = EXCLUDED.name, price_unit = EXCLUDED.price_unit, " +
+            "  description = EXCLUDED.description, location = EXCLUDED.location, " +
+            "  latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude, price_per_sqm = EXCLUDED.price_per_sqm, " +
+            "  location_approximate = EXCLUDED.location_approximate, updated_at = clock_timestamp() " +
+            "WHERE (plots.price, plots.name, plots.price_unit, plots.description, plots.latitude, plots.longitude, " +
+            "       plots.location_approximate) " +
+            "  IS DISTINCT FROM (EXCLUDED.price, EXCLUDED.name, EXCLUDED.price_unit, EXCLUDED.description, " +
+            "                    EXCLUDED.latitude, EXCLUDED.longitude, EXCLUDED.location_approximate)";
+
+    /**
+     * Word matches probe the GIN index on search_vector and similar names probe the trigram index on name.
+     * The rank adds both scores, so exact word hits sort before near spellings. Hits are ranked in a
+     * subquery so the keyset condition can compare against the rank.
+     */
+    private static final String SEARCH_SQL =
+            "SELECT p.id, CAST(ts_rank(p.search_vector, q.query) + similarity(p.name, ?) AS real) AS rank " +
+            "FROM plots p, to_tsquery('simple', ?) AS q(query) " +
+            "WHERE (p.search_vector @@ q.query OR p.name % ?)";
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public byte[] findTileAsMvt(int zoom, int x, int y) {
+        byte[] tile = jdbcTemplate.queryForObject(TILE_SQL, byte[].class, zoom, x, y);
+        return tile != null ? tile : new byte[0];
+    }
+
+    @Override
+    public Set<Integer> findPositionsNearExistingPlots(double[] latitudes, double[] longitudes, double distanceInMeters) {
+        Set<Integer> positions = new HashSet<>();
+        if (latitudes.length == 0) {
+            return positions;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(NEAR_EXISTING_SQL);
+            statement.setArray(1, connection.createArrayOf("float8", Arrays.stream(latitudes).boxed().toArray()));
+            statement.setArray(2, connection.createArrayOf("float8", Arrays.stream(longitudes).boxed().toArray()));
+            statement.setDouble(3, distanceInMeters);
+            return statement;
+        }, resultSet -> {
+            positions.add(resultSet.getInt(1));
+        });
+        return positions;
+    }
+
+    @Override
+    public int[] upsertImportedPlots(List<PlotImportRecord> records, double distanceInMeters) {
+        if (records.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(UPSERT_IMPORTED_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                PlotImportRecord record = records.get(i);
+                statement.setBigDecimal(1, record.getPrice());
+                statement.setString(2, record.getName());
+                statement.setString(3, record.getPriceUnit());
+                statement.setString(4, record.getDescription());
+                statement.setDouble(5, record.getLongitude());
+                statement.setDouble(6, record.getLatitude());
+                statement.setString(7, record.getSource());
+                statement.setString(8, record.getExternalId());
+                statement.setBigDecimal(9, PriceUnits.toPricePerSqm(record.getPrice(), record.getPriceUnit()));
+                statement.setBoolean(10, record.isApproximate());
+                // Geocoded records share their locality's point, so they are only matched by source and external ID
+                statement.setBoolean(11, record.isApproximate());
+                statement.setDouble(12, record.getLongitude());
+                statement.setDouble(13, record.getLatitude());
+                statement.setDouble(14, distanceInMeters);
+                statement.setString(15, record.getSource());
+                statement.setString(16, record.getExternalId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return records.size();
+            }
+        });
+    }
+
+    @Override
+    public List<SearchHit> searchPlots(PlotSearchCriteria criteria, SearchHit after, int limit) {
+        String text = criteria.getQuery() == null ? "" : criteria.getQuery().trim();
+        String tsQuery = toPrefixTsQuery(text);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+
+        StringBuilder sql = new StringBuilder(SEARCH_SQL);
+        List<Object> params = new ArrayList<>(List.of(text, tsQuery, text));
+        if (criteria.getPriceUnit() != null) {
+            sql.append(" AND p.price_unit = ?");
+            params.add(criteria.getPriceUnit());
+        }
+        if (criteria.getMinPrice() != null) {
+            sql.append(" AND p.price >= ?");
+            params.add(criteria.getMinPrice());
+        }
+        if (criteria.getMaxPrice() != null) {
+            sql.append(" AND p.price <= ?");
+            params.add(criteria.getMaxPrice());
+        }
+        if (criteria.getMinPricePerSqm() != null) {
+            sql.append(" AND p.price_per_sqm >= ?");
+            params.add(criteria.getMinPricePerSqm());
+        }
+        if (criteria.getMaxPricePerSqm() != null) {
+            sql.append(" AND p.price_per_sqm <= ?");
+            params.add(criteria.getMaxPricePerSqm());
+        }
+        if (criteria.getIsForSale() != null) {
+            sql.append(" AND p.is_for_sale = ?");
+            params.add(criteria.getIsForSale());
+        }
+        if (criteria.hasBounds()) {
+            sql.append(" AND p.location && ST_MakeEnvelope(?, ?, ?, ?, 4326)");
+            params.add(criteria.getMinLng());
+            params.add(criteria.getMinLat());
+            params.add(criteria.getMaxLng());
+            params.add(criteria.getMaxLat());
+        }
+
+        sql.insert(0, "SELECT id, rank FROM (").append(") AS hits");
+        if (after != null) {
+            sql.append(" WHERE rank < ? OR (rank = ? AND id > ?)");
+            params.add(after.rank());
+            params.add(after.rank());
+            params.add(after.id());
+        }
+        sql.append(" ORDER BY rank DESC, id LIMIT ?");
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(),
+                (resultSet, rowNum) -> new SearchHit(resultSet.getLong("id"), resultSet.getFloat("rank")),
+                params.toArray());
+    }
+
+    /**
+     * Turn free text into a tsquery that requires every word, treating the last one as a prefix
+     * so partially typed input matches. Only letters and digits are kept, so the result is always valid syntax.
+     *
+     * @return The tsquery, or an empty string if the text has no words
+     */
+    static String toPrefixTsQuery(String text) {
+        List<String> words = Arrays.stream(NON_WORD.split(text.toLowerCase(Locale.ROOT)))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toList());
+        if (words.isEmpty()) {
+            return "";
+        }
+        return String.join(" & ", words) + ":*";
+    }
+}
@@ -0,0 +1,112 @@
+package com.company.project.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.company.project.dto.PlotSearchCriteria;
+import com.company.project.entity.Plot;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * JPA specifications for filtered plot listings
+ *
+ * Only the filters that are set become predicates. A single statement with "(:param IS NULL OR ...)"
+ * guards is planned for the generic case and usually falls back to a sequential scan, while a
+ * statement with just the present predicates can use the matching index.
+ */
+public final class PlotSpecifications {
+
+    private PlotSpecifications() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Plots that match the filters in the criteria
+     * The text query of the criteria is ignored; the price unit must already be normalized.
+     *
+     * @param criteria Optional filters
+     */
+    public static Specification<Plot> matching(PlotSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getPriceUnit() != null) {
+                predicates.add(cb.equal(root.get("priceUnit"), criteria.getPriceUnit()));
+            }
+            if (criteria.getMinPrice() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get("price"), criteria.getMinPrice()));
+            }
+            if (criteria.getMaxPrice() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<BigDecimal>get("price"), criteria.getMaxPrice()));
+            }
+            if (criteria.getMinPricePerSqm() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get("pricePerSqm"), criteria.getMinPricePerSqm()));
+            }
+            if (criteria.getMaxPricePerSqm() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<BigDecimal>get("pricePerSqm"), criteria.getMaxPricePerSqm()));
+            }
+            if (criteria.getIsForSale() != null) {
+                predicates.add(criteria.getIsForSale() ? cb.isTrue(root.<Boolean>get("isForSale")) : cb.isFalse(root.<Boolean>get("isForSale")));
+            }
+            if (criteria.hasBounds()) {
+                predicates.add(cb.between(root.<Double>get("latitude"), criteria.getMinLat(), criteria.getMaxLat()));
+                predicates.add(cb.between(root.<Double>get("longitude"), criteria.getMinLng(), criteria.getMaxLng()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Plots after a keyset position in ID order
+     *
+     * @param afterId Only plots with a greater ID match (0 for the first page)
+     */
+    public static Specification<Plot> idAfter(long afterId) {
+        return (root, query, cb) -> afterId > 0 ? cb.greaterThan(root.<Long>get("id"), afterId) : cb.conjunction();
+    }
+
+    /**
+     * Plots after a keyset position in (pricePerSqm, id) order
+     * Descending pages order ties by descending ID too, so both directions walk idx_plots_price_per_sqm.
+     *
+     * @param pricePerSqm Normalized price of the last plot already returned, or null for the first page
+     * @param id ID of the last plot already returned
+     * @param descending Whether pages run from the highest price down
+     */
+    public static Specification<Plot> pricePerSqmAfter(BigDecimal pricePerSqm, long id, boolean descending) {
+        return (root, query, cb) -> {
+            if (pricePerSqm == null) {
+                return cb.conjunction();
+            }
+            var price = root.<BigDecimal>get("pricePerSqm");
+            var plotId = root.<Long>get("id");
+            return descending
+                    ? cb.or(cb.lessThan(price, pricePerSqm), cb.and(cb.equal(price, pricePerSqm), cb.lessThan(plotId, id)))
+                    : cb.or(cb.greaterThan(price, pricePerSqm), cb.and(cb.equal(price, pricePerSqm), cb.greaterThan(plotId, id)));
+        };
+    }
+
+    /**
+     * Plots modified after a point in time, after a keyset position in (updatedAt, id) order
+     * Pages walk idx_plots_updated_at from the watermark onwards.
+     *
+     * @param since Only plots modified after this time match
+     * @param updatedAt Modification time of the last plot already returned, or null for the first page
+     * @param id ID of the last plot already returned
+     */
+    public static Specification<Plot> changedAfter(LocalDateTime since, LocalDateTime updatedAt, long id) {
+        return (root, query, cb) -> {
+            var modified = root.<LocalDateTime>get("updatedAt");
+            if (updatedAt == null) {
+                return cb.greaterThan(modified, since);
+            }
+            var plotId = root.<Long>get("id");
+            return cb.and(cb.greaterThan(modified, since),
+                    cb.or(cb.greaterThan(modified, updatedAt), cb.and(cb.equal(modified, updatedAt), cb.greaterThan(plotId, id))));
+        };
+    }
+}
@@ -1,13 +1,86 @@
 package com.company.project.repository;
 
+import com.company.project.config.CacheConfig;
+import com.company.project.dto.UserAccount;
 import com.company.project.entity.User;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
+/**
+ * Account lookups by username and email are cached as immutable UserAccounts; every save or delete
+ * evicts the affected entries, under the stored username and email as well as the new ones. The caches
+ * are transaction-aware, so inside a transaction the eviction happens after commit and a concurrent
+ * lookup cannot cache the old row again. User entities are never cached: logins and writes load them from the
+ * database, so they see the current password hash and token version even when another instance changed them.
+ */
 public interface UserRepository extends JpaRepository<User, Long> {
+
     Optional<User> findByUsername(String username);
+
     Optional<User> findByEmail(String email);
+
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME, unless = "#result == null")
+    @Query("SELECT new com.company.project.dto.UserAccount(u.id, u.username, u.name, u.email, u.role, u.status) " +
+           "FROM User u WHERE u.username = :username")
+    Optional<UserAccount> findAccountByUsername(@Param("username") String username);
+
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_EMAIL, unless = "#result == null")
+    @Query("SELECT new com.company.project.dto.UserAccount(u.id, u.username, u.name, u.email, u.role, u.status) " +
+           "FROM User u WHERE u.email = :email")
+    Optional<UserAccount> findAccountByEmail(@Param("email") String email);
+
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
-} 
\ No newline at end of file
+
+    /**
+     * Load only the fields needed to check an access token against the current account state
+     */
+    Optional<AuthState> findAuthStateById(Long id);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#p0.username"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#p0.email"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#p0.storedUsername",
+                    condition = "#p0.storedUsername != null"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#p0.storedEmail",
+                    condition = "#p0.storedEmail != null")
+    })
+    <S extends User> S save(S user);
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#p0.username"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#p0.email"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#p0.storedUsername",
+                    condition = "#p0.storedUsername != null"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, key = "#p0.storedEmail",
+                    condition = "#p0.storedEmail != null")
+    })
+    void delete(User user);
+
+    /**
+     * Only the ID is known here, so both caches are cleared
+     */
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_EMAIL, allEntries = true)
+    })
+    void deleteById(Long id);
+
+    /**
+     * Projection of the account fields an access token is validated against
+     */
+    interface AuthState {
+        int getTokenVersion();
+        User.Status getStatus();
+        User.Role getRole();
+    }
+}
@@ -1,17 +1,19 @@
 package com.company.project.security;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.core.Ordered;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.company.project.dto.UserAccount;
+import com.company.project.repository.UserRepository;
 import com.company.project.util.AppConstants;
 
 import jakarta.servlet.FilterChain;
@@ -27,6 +29,9 @@ import lombok.RequiredArgsConstructor;
  * header.
  * If a valid token is found, the user is authenticated in the security context.
  * 
+ * In stateless mode the principal is built from the token's claims without loading the user;
+ * otherwise the user's account is looked up on every request, through the account cache.
+ * 
  * This filter only processes access tokens (JWTs), not refresh tokens.
  * Refresh tokens are handled separately by the AuthService.
  */
@@ -35,7 +40,7 @@ import lombok.RequiredArgsConstructor;
 public class JwtAuthenticationFilter extends OncePerRequestFilter implements Ordered {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserRepository userRepository;
 
     /**
      * Processes each request to validate JWT token if present
@@ -59,29 +64,45 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter implements Ord
 
         // Extract the JWT token (remove "Bearer " prefix)
         final String jwt = authHeader.substring(AppConstants.TOKEN_PREFIX.length());
+
+        if (jwtService.isStatelessAuthEnabled()) {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                jwtService.resolvePrincipal(jwt).ifPresent(principal -> authenticate(principal, request));
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         // Extract username from token
         final String username = jwtService.extractUsername(jwt);
 
         // If username exists and no authentication exists in context
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            // Load user details
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+            // Load the cached account; the principal is a detached copy of it
+            Optional<UserDetails> userDetails = userRepository.findAccountByUsername(username).map(UserAccount::toUser);
             // Validate token
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                // Create authentication token with user details and authorities
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities());
-                // Set details from request
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                // Update security context with authentication
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+            if (userDetails.isPresent() && jwtService.isTokenValid(jwt, userDetails.get())) {
+                authenticate(userDetails.get(), request);
             }
         }
         // Continue filter chain
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Sets an authenticated principal on the security context
+     */
+    private void authenticate(UserDetails userDetails, HttpServletRequest request) {
+        // Create authentication token with user details and authorities
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities());
+        // Set details from request
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        // Update security context with authentication
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+    }
     
     /**
      * Returns the order value for this filter.
@@ -1,5 +1,7 @@
 package com.company.project.security;
 
+import java.util.Optional;
+
 import org.springframework.security.core.userdetails.UserDetails;
 
 public interface JwtService {
@@ -7,4 +9,17 @@ public interface JwtService {
     boolean isTokenValid(String token, UserDetails userDetails);
     String generateToken(UserDetails userDetails);
     String getUsernameFromToken(String token);
+
+    /**
+     * Whether requests are authenticated from token claims alone, without loading the user
+     */
+    boolean isStatelessAuthEnabled();
+
+    /**
+     * Build the authenticated principal from a token's verified claims
+     *
+     * @param token JWT token
+     * @return The principal, or empty if the token is expired, lacks user claims, or has been revoked
+     */
+    Optional<UserDetails> resolvePrincipal(String token);
 } 
\ No newline at end of file
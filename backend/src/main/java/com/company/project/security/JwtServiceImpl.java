@@ -1,8 +1,14 @@
 package com.company.project.security;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import javax.crypto.SecretKey;
@@ -11,26 +17,73 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.company.project.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 
 /**
  * Service for JWT token operations
  * 
  * Handles creating, validating, and extracting information from JWT tokens.
  * These JWT tokens are used as access tokens for API authorization.
+ *
+ * The signing key and parser are built once at startup. Verified claims are cached
+ * by token hash until the token expires, so repeated requests with the same token
+ * skip signature verification.
+ *
+ * In stateless mode the principal is built from the token's claims. Revocation is handled by
+ * the token version claim, which is checked against a short-lived cache of the account state.
  */
 @Service
+@RequiredArgsConstructor
 public class JwtServiceImpl implements JwtService {
 
+    private static final String USER_ID_CLAIM = "userId";
+    private static final String ROLE_CLAIM = "role";
+    private static final String NAME_CLAIM = "name";
+    private static final String EMAIL_CLAIM = "email";
+    private static final String TOKEN_VERSION_CLAIM = "ver";
+
+    private final UserAuthStateCache userAuthStateCache;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
     @Value("${jwt.expiration:#{T(com.company.project.constants.AppConstants).DEFAULT_JWT_EXPIRATION}}")
     private long jwtExpiration;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    @Value("${jwt.stateless.enabled:true}")
+    private boolean statelessAuthEnabled;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private Cache<String, Claims> claimsCache;
+
+    /**
+     * Decodes the signing key and builds the parser and claims cache
+     */
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ClaimsExpiry())
+                .build();
+    }
+
     /**
      * Extracts the username from a JWT token
      * 
@@ -59,8 +112,43 @@ public class JwtServiceImpl implements JwtService {
      */
     @Override
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        final Claims claims = extractAllClaims(token);
+        return claims.getSubject().equals(userDetails.getUsername()) && !isExpired(claims);
+    }
+
+    @Override
+    public boolean isStatelessAuthEnabled() {
+        return statelessAuthEnabled;
+    }
+
+    /**
+     * Builds a detached User from the token's claims
+     * Only the fields carried in the token are set; the password is never available
+     */
+    @Override
+    public Optional<UserDetails> resolvePrincipal(String token) {
+        final Claims claims = extractAllClaims(token);
+        Long userId = claims.get(USER_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (isExpired(claims) || userId == null || role == null) {
+            return Optional.empty();
+        }
+        // Tokens issued before versioning carry no version and match the initial one
+        Integer tokenVersion = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        int version = tokenVersion != null ? tokenVersion : 0;
+        if (!userAuthStateCache.isCurrent(userId, version, role)) {
+            return Optional.empty();
+        }
+
+        User user = new User();
+        user.setId(userId);
+        user.setUsername(claims.getSubject());
+        user.setName(claims.get(NAME_CLAIM, String.class));
+        user.setEmail(claims.get(EMAIL_CLAIM, String.class));
+        user.setRole(User.Role.valueOf(role));
+        user.setStatus(User.Status.ACTIVE);
+        user.setTokenVersion(version);
+        return Optional.of(user);
     }
 
     /**
@@ -74,15 +162,16 @@ public class JwtServiceImpl implements JwtService {
         Map<String, Object> extraClaims = new HashMap<>();
         
         // Add userId if userDetails is a User entity
-        if (userDetails instanceof com.company.project.entity.User) {
-            com.company.project.entity.User user = (com.company.project.entity.User) userDetails;
-            extraClaims.put("userId", user.getId());
-            extraClaims.put("role", user.getRole() != null ? user.getRole().name() : "USER");
+        if (userDetails instanceof User) {
+            User user = (User) userDetails;
+            extraClaims.put(USER_ID_CLAIM, user.getId());
+            extraClaims.put(ROLE_CLAIM, user.getRole() != null ? user.getRole().name() : "USER");
+            extraClaims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
             if (user.getName() != null) {
-                extraClaims.put("name", user.getName());
+                extraClaims.put(NAME_CLAIM, user.getName());
             }
             if (user.getEmail() != null) {
-                extraClaims.put("email", user.getEmail());
+                extraClaims.put(EMAIL_CLAIM, user.getEmail());
             }
         }
         
@@ -103,28 +192,18 @@ public class JwtServiceImpl implements JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     /**
-     * Checks if a token is expired
+     * Checks if parsed claims are expired
      * 
-     * @param token JWT token
+     * @param claims Token claims
      * @return true if token is expired, false otherwise
      */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extracts the expiration date from a token
-     * 
-     * @param token JWT token
-     * @return Expiration date
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private boolean isExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     /**
@@ -140,27 +219,51 @@ public class JwtServiceImpl implements JwtService {
     }
 
     /**
-     * Extracts all claims from a token
+     * Extracts all claims from a token, verifying the signature on a cache miss
+     * Tokens that fail verification are not cached
      * 
      * @param token JWT token
      * @return All claims
      */
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return claimsCache.get(hash(token), key -> jwtParser.parseSignedClaims(token).getPayload());
     }
 
     /**
-     * Gets the signing key for JWT verification
-     * 
-     * @return Signing key
+     * SHA-256 of the token, so the cache does not hold bearer tokens in memory
+     */
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Evicts cached claims when the token itself expires
      */
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0;
+            }
+            long remainingMillis = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.company.project.security;
+
+import com.company.project.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.caffeine.CaffeineProxyManager;
+import io.github.bucket4j.distributed.jdbc.BucketTableSettings;
+import io.github.bucket4j.distributed.jdbc.PrimaryKeyMapper;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfiguration;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.postgresql.PostgreSQLSelectForUpdateBasedProxyManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storage for rate limit buckets
+ * 
+ * LOCAL keeps buckets in a bounded Caffeine store in this instance.
+ * POSTGRES keeps them in the rate_limit_buckets table so every instance draws from the same quota.
+ * Each instance holds a proxy per bucket that consumes up to prefetch-tokens locally before
+ * synchronizing, so most requests do not wait for a database round trip.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitBucketStore {
+
+    private static final String TABLE_NAME = "rate_limit_buckets";
+
+    private final RateLimitProperties rateLimitProperties;
+    private final ObjectProvider<DataSource> dataSourceProvider;
+
+    private ProxyManager<BucketKey> proxyManager;
+
+    // Bucket proxies reused across requests; they carry the unsynchronized local consumption
+    private Cache<BucketKey, Bucket> proxies;
+
+    private ScheduledExecutorService cleanupScheduler;
+
+    /**
+     * Bucket identity: one bucket per client IP and endpoint pattern
+     */
+    public record BucketKey(String clientIp, String endpoint) {
+        String id() {
+            return endpoint + ":" + clientIp;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        if (rateLimitProperties.getStore() == RateLimitProperties.Store.POSTGRES) {
+            initPostgres();
+        } else {
+            // Entries are kept until their bucket is full again, after which they are indistinguishable from a new one
+            proxyManager = new CaffeineProxyManager<>(
+                    Caffeine.newBuilder().maximumSize(rateLimitProperties.getMaxBuckets()),
+                    Duration.ZERO);
+        }
+    }
+
+    /**
+     * Get the bucket for a key, creating it with the given configuration on first use
+     */
+    public Bucket getBucket(BucketKey key, BucketConfiguration configuration) {
+        if (proxies == null) {
+            return proxyManager.builder().build(key, () -> configuration);
+        }
+        return proxies.get(key, k -> proxyManager.builder()
+                .withOptimization(Optimizations.delaying(new DelayParameters(
+                        rateLimitProperties.getPrefetchTokens(),
+                        Duration.ofMillis(rateLimitProperties.getPrefetchTimeoutMillis()))))
+                .build(k, () -> configuration));
+    }
+
+    private void initPostgres() {
+        DataSource dataSource = dataSourceProvider.getObject();
+        ProxyManager<String> postgres = new PostgreSQLSelectForUpdateBasedProxyManager<>(
+                SQLProxyConfiguration.builder()
+                        .withPrimaryKeyMapper(PrimaryKeyMapper.STRING)
+                        .withTableSettings(BucketTableSettings.customSettings(TABLE_NAME, "id", "state"))
+                        .build(dataSource));
+        proxyManager = postgres.withMapper(BucketKey::id);
+
+        // A bucket untouched for its longest window has refilled, so local proxies and rows can be dropped
+        Duration idle = Duration.ofSeconds(longestWindowSeconds());
+        proxies = Caffeine.newBuilder()
+                .maximumSize(rateLimitProperties.getMaxBuckets())
+                .expireAfterAccess(idle)
+                .build();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        cleanupScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "rate-limit-cleanup");
+            t.setDaemon(true);
+            return t;
+        });
+        cleanupScheduler.scheduleAtFixedRate(() -> deleteIdleBuckets(jdbcTemplate, idle), 5, 5, TimeUnit.MINUTES);
+        log.info("Rate limit buckets are shared through PostgreSQL table {}", TABLE_NAME);
+    }
+
+    private void deleteIdleBuckets(JdbcTemplate jdbcTemplate, Duration idle) {
+        try {
+            int removed = jdbcTemplate.update(
+                    "DELETE FROM " + TABLE_NAME + " WHERE updated_at < CURRENT_TIMESTAMP - make_interval(secs => ?)",
+                    idle.getSeconds());
+            if (removed > 0) {
+                log.debug("Deleted {} idle rate limit buckets", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete idle rate limit buckets: {}", e.getMessage());
+        }
+    }
+
+    private long longestWindowSeconds() {
+        return Math.max(Math.max(Math.max(
+                rateLimitProperties.getAuth().getWindowSeconds(),
+                rateLimitProperties.getPlots().getWindowSeconds()),
+                Math.max(rateLimitProperties.getGeocoding().getWindowSeconds(),
+                        rateLimitProperties.getAuthenticated().getWindowSeconds())),
+                rateLimitProperties.getHealth().getWindowSeconds());
+    }
+
+    /**
+     * Cleanup resources on shutdown
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (cleanupScheduler != null) {
+            cleanupScheduler.shutdownNow();
+        }
+    }
+}
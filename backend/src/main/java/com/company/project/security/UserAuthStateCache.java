@@ -0,0 +1,69 @@
+package com.company.project.security;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.company.project.entity.User;
+import com.company.project.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+
+/**
+ * Short-lived cache of the account state access tokens are checked against
+ *
+ * Stateless authentication trusts the claims in a verified token, so revocation relies on
+ * this cache: a token is rejected once its version, role or the account status no longer
+ * match. Changes made elsewhere are picked up when the entry expires.
+ */
+@Component
+public class UserAuthStateCache {
+
+    private final LoadingCache<Long, Optional<UserRepository.AuthState>> cache;
+
+    public UserAuthStateCache(
+            UserRepository userRepository,
+            @Value("${jwt.stateless.user-state-ttl-seconds:30}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(userRepository::findAuthStateById);
+    }
+
+    /**
+     * Whether a token with the given claims still matches the user's account
+     *
+     * @param userId       User ID claim
+     * @param tokenVersion Token version claim
+     * @param role         Role claim
+     * @return true if the user exists, is active, and neither version nor role changed
+     */
+    public boolean isCurrent(long userId, int tokenVersion, String role) {
+        return cache.get(userId)
+                .filter(state -> state.getStatus() == User.Status.ACTIVE)
+                .filter(state -> state.getTokenVersion() == tokenVersion)
+                .filter(state -> state.getRole() != null && state.getRole().name().equals(role))
+                .isPresent();
+    }
+
+    /**
+     * Drop the cached state for a user
+     * Inside a transaction this happens after commit, so a concurrent request cannot reload the old state
+     */
+    public void invalidate(long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        } else {
+            cache.invalidate(userId);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.company.project.service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import com.company.project.dto.GeocodedLocation;
+import com.company.project.dto.response.BatchGeocodeResponse;
+
+/**
+ * Service interface for forward and reverse geocoding
+ */
+public interface GeocodingService {
+
+    /**
+     * Search for locations matching a free-form query
+     * 
+     * @param query Search query
+     * @param limit Maximum number of results
+     * @return Provider response as a JSON array
+     * @throws com.company.project.exception.GeocodingException if the provider is unavailable or returns an error
+     */
+    String search(String query, int limit);
+
+    /**
+     * Search for locations without blocking the calling thread
+     * 
+     * @param query Search query
+     * @param limit Maximum number of results
+     * @return Future of the provider response as a JSON array; fails with
+     *         com.company.project.exception.GeocodingBusyException when too many requests are in flight
+     */
+    CompletableFuture<String> searchAsync(String query, int limit);
+
+    /**
+     * Resolve a free-form query to its best match, trying the local gazetteer first
+     * 
+     * @param query Search query
+     * @return The first match, or empty if nothing matched
+     * @throws com.company.project.exception.GeocodingException if the provider is unavailable or returns an error
+     */
+    Optional<GeocodedLocation> geocode(String query);
+
+    /**
+     * Find the locality at a point, trying the local gazetteer first
+     * 
+     * @return Future of the locality, empty if nothing is known at the point
+     */
+    CompletableFuture<Optional<GeocodedLocation>> reverseAsync(double latitude, double longitude);
+
+    /**
+     * Resolve several free-form queries; gazetteer misses are sent to the provider one at a time
+     * 
+     * @return Future of one result per query, in order. A failed lookup is reported on its result
+     *         rather than failing the batch.
+     */
+    CompletableFuture<BatchGeocodeResponse> geocodeBatchAsync(List<String> queries);
+}
@@ -0,0 +1,78 @@
+package com.company.project.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.http.MediaType;
+
+/**
+ * Service interface for streaming bulk plot exports
+ */
+public interface PlotExportService {
+
+    /**
+     * Supported export formats
+     */
+    enum Format {
+        /** One JSON plot object per line */
+        NDJSON("application/x-ndjson", "ndjson"),
+        /** A single GeoJSON FeatureCollection with one Point feature per plot */
+        GEOJSON("application/geo+json", "geojson");
+
+        private final MediaType mediaType;
+        private final String fileExtension;
+
+        Format(String mediaType, String fileExtension) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+            this.fileExtension = fileExtension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String getFileExtension() {
+            return fileExtension;
+        }
+    }
+
+    /**
+     * Slot reserved for one running export; closing it more than once has no effect
+     */
+    interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Reserve a slot for an export by the current user, without waiting for one to free up
+     * 
+     * @return Permit to close once the export has been written
+     * @throws com.company.project.exception.ExportCapacityException if this instance or the user already runs the maximum number of exports
+     */
+    Permit reserve();
+
+    /**
+     * Resolve the export region from either a bounding box or a WKT polygon
+     * 
+     * @param minLat Minimum latitude (bounding box)
+     * @param maxLat Maximum latitude (bounding box)
+     * @param minLng Minimum longitude (bounding box)
+     * @param maxLng Maximum longitude (bounding box)
+     * @param polygonWkt WKT polygon or multipolygon in WGS84, used instead of the bounding box when present
+     * @return Region geometry in WGS84
+     */
+    Geometry resolveRegion(Double minLat, Double maxLat, Double minLng, Double maxLng, String polygonWkt);
+
+    /**
+     * Stream every plot inside a region to the output
+     * Rows are read through a database cursor, so memory use does not depend on the number of plots
+     * 
+     * @param region Region returned by {@link #resolveRegion}
+     * @param format Output format
+     * @param out Stream to write to; it is flushed but not closed
+     * @return Number of plots written
+     */
+    long exportPlots(Geometry region, Format format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,33 @@
+package com.company.project.service;
+
+import java.util.List;
+
+import com.company.project.entity.PlotImportCheckpoint;
+
+/**
+ * Service interface for importing collected listings from JSONL files into plots
+ */
+public interface PlotImportService {
+
+    /**
+     * Start importing a file from the import directory in the background
+     * An interrupted import of the same file version resumes from its checkpoint
+     * 
+     * @param fileName File name relative to the import directory
+     * @return Checkpoint tracking the import
+     */
+    PlotImportCheckpoint startImport(String fileName);
+
+    /**
+     * Import a file from the import directory and wait for it to finish
+     * 
+     * @param fileName File name relative to the import directory
+     * @return Final checkpoint of the import
+     */
+    PlotImportCheckpoint importFile(String fileName);
+
+    /**
+     * Get all imports, most recent first
+     */
+    List<PlotImportCheckpoint> getImports();
+}
@@ -1,11 +1,20 @@
 package com.company.project.service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import com.company.project.dto.PlotClusterDto;
 import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotGridCellDto;
+import com.company.project.dto.PlotSearchCriteria;
+import com.company.project.dto.PlotWatermark;
+import com.company.project.dto.response.BulkPlotResponse;
+import com.company.project.dto.response.PlotChangesPage;
+import com.company.project.dto.response.PlotSearchPage;
+import com.company.project.util.PlotCursor;
 
 /**
  * Service interface for plot-related operations
@@ -13,31 +22,97 @@ import com.company.project.dto.PlotDto;
 public interface PlotService {
 
     /**
-     * Get all plots with pagination
+     * Get all plots with keyset pagination
+     * 
+     * @param afterId ID of the last plot already returned (0 for the first page)
+     * @param size Maximum number of tombstones and of plots to return
+     * @param state Watermark the response is validated against, from {@link #getWatermark}; the page is
+     *              never older than it
+     * @return Slice of plots ordered by ID
+     */
+    Slice<PlotDto> getAllPlots(long afterId, int size, PlotWatermark state);
+    
+    /**
+     * Get all plots with keyset pagination and filtering
+     * 
+     * @param afterId ID of the last plot already returned (0 for the first page)
+     * @param size Maximum number of tombstones and of plots to return
+     * @param filters Price, price unit, sale status and bounding box filters; unset filters are not applied
+     * @param state Watermark the response is validated against, from {@link #getWatermark}; the page is
+     *              never older than it
+     * @return Slice of plots matching the criteria, ordered by ID
      */
-    Page<PlotDto> getAllPlots(Pageable pageable);
+    Slice<PlotDto> getAllPlotsWithFilters(long afterId, int size, PlotSearchCriteria filters, PlotWatermark state);
     
     /**
-     * Get all plots with pagination and filtering
+     * Get plots ordered by price per square meter, so plots priced in different units sort together
      * 
-     * @param pageable Pagination information
-     * @param minPrice Minimum price filter (optional)
-     * @param maxPrice Maximum price filter (optional)
-     * @param isForSale Sale status filter (optional)
-     * @return Page of plots matching the criteria
+     * @param filters Optional filters, as for the filtered listing
+     * @param after Position of the last plot already returned (null for the first page)
+     * @param descending Whether to start from the highest price
+     * @param size Maximum number of tombstones and of plots to return
+     * @param state Watermark the response is validated against, from {@link #getWatermark}; the page is
+     *              never older than it
+     * @return Slice of plots ordered by price per square meter, then ID
      */
-    Page<PlotDto> getAllPlotsWithFilters(Pageable pageable, BigDecimal minPrice, BigDecimal maxPrice, Boolean isForSale);
+    Slice<PlotDto> getPlotsByPricePerSqm(PlotSearchCriteria filters, PlotCursor.PricedPosition after,
+            boolean descending, int size, PlotWatermark state);
+    
+    /**
+     * Search plots by name and description with keyset pagination
+     * 
+     * @param criteria Query text and optional filters
+     * @param cursor Cursor from a previous page (null for the first page)
+     * @param size Maximum number of tombstones and of plots to return
+     * @return Plots ordered by relevance, with the cursor for the next page
+     */
+    PlotSearchPage searchPlots(PlotSearchCriteria criteria, String cursor, int size);
     
     /**
      * Get a specific plot by ID
      */
     PlotDto getPlotById(Long id);
     
+    /**
+     * Get when a plot was last modified, without mapping it
+     * 
+     * @throws com.company.project.exception.PlotNotFoundException if the plot does not exist
+     */
+    LocalDateTime getPlotUpdatedAt(Long id);
+    
+    /**
+     * Summarize the plots in a bounding box, or all plots if the bounds are null, for change detection
+     * Always read from the database, so it can serve as the validator of a conditional request.
+     */
+    PlotWatermark getWatermark(Double minLat, Double maxLat, Double minLng, Double maxLng);
+    
+    /**
+     * Get the plots created or updated since a watermark, and tombstones of plots deleted or moved since
+     * Tombstones are paged first, oldest first, and plots follow once they run out; a tombstone for
+     * a plot returned on the same page is left out, and later pages win over earlier ones.
+     * 
+     * @param since Watermark returned by the previous sync
+     * @param bounds Optional bounding box; plots match on their current location, tombstones on the one they left
+     * @param cursor Cursor from a previous page of the same sync (null for the first page)
+     * @param size Maximum number of tombstones and of plots to return
+     * @return Changed plots, oldest change first, with the watermark for the next sync
+     */
+    PlotChangesPage getPlotChanges(LocalDateTime since, PlotSearchCriteria bounds, String cursor, int size);
+    
     /**
      * Create a new plot
      */
     PlotDto createPlot(PlotDto plotDto);
     
+    /**
+     * Create many plots in one transaction
+     * Invalid plots and plots too close to an existing or earlier plot are rejected individually
+     * 
+     * @param plotDtos Plots to create
+     * @return Created IDs and per-plot rejections
+     */
+    BulkPlotResponse createPlots(List<PlotDto> plotDtos);
+    
     /**
      * Update an existing plot
      */
@@ -49,12 +124,65 @@ public interface PlotService {
     void deletePlot(Long id);
     
     /**
-     * Find plots within a bounding box
+     * Find plots within a bounding box with keyset pagination
+     * 
+     * @param afterId ID of the last plot already returned (0 for the first page)
+     * @param size Maximum number of tombstones and of plots to return
+     * @param state Watermark the response is validated against, from {@link #getWatermark}; the page is
+     *              never older than it
+     * @return Slice of plots within the bounds, ordered by ID
      */
-    Page<PlotDto> getPlotsInBounds(Double minLat, Double maxLat, Double minLng, Double maxLng, Pageable pageable);
+    Slice<PlotDto> getPlotsInBounds(Double minLat, Double maxLat, Double minLng, Double maxLng, long afterId, int size,
+            PlotWatermark state);
     
     /**
      * Find the nearest plot to a location
      */
     PlotDto getNearestPlot(Double latitude, Double longitude, Double radius);
+    
+    /**
+     * Find the k nearest plots to a location
+     * 
+     * @param latitude Latitude coordinate
+     * @param longitude Longitude coordinate
+     * @param radius Search radius in meters
+     * @param k Maximum number of plots to return
+     * @return Plots within the radius, nearest first
+     */
+    List<PlotDto> getNearestPlots(Double latitude, Double longitude, Double radius, int k);
+    
+    /**
+     * Aggregate the plots within a bounding box into grid clusters sized for the given zoom level
+     * 
+     * @param minLat Minimum latitude
+     * @param maxLat Maximum latitude
+     * @param minLng Minimum longitude
+     * @param maxLng Maximum longitude
+     * @param zoom Map zoom level (web mercator tile zoom)
+     * @return Clusters with centroid, count and per price unit statistics
+     */
+    List<PlotClusterDto> getPlotClusters(Double minLat, Double maxLat, Double minLng, Double maxLng, int zoom);
+    
+    /**
+     * Price statistics per geohash cell within a bounding box, for heatmaps
+     * 
+     * @param minLat Minimum latitude
+     * @param maxLat Maximum latitude
+     * @param minLng Minimum longitude
+     * @param maxLng Maximum longitude
+     * @param cellSizeMeters Requested cell width; the closest geohash precision with cells at least this wide is used,
+     *        coarser if the box would need too many cells
+     * @return Non-empty cells overlapping the box with count, for-sale ratio and price per square meter percentiles
+     */
+    List<PlotGridCellDto> getPriceGrid(Double minLat, Double maxLat, Double minLng, Double maxLng, double cellSizeMeters);
+    
+    /**
+     * Render the plots of a web mercator tile as a Mapbox Vector Tile
+     * 
+     * @param zoom Tile zoom level
+     * @param x Tile column
+     * @param y Tile row
+     * @return Encoded tile, empty if the tile contains no plots
+     */
+    byte[] getPlotTile(int zoom, int x, int y);
 } 
\ No newline at end of file
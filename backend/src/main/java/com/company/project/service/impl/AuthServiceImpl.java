@@ -12,6 +12,7 @@ import com.company.project.exception.TokenRefreshException;
 import com.company.project.repository.PasswordResetTokenRepository;
 import com.company.project.repository.UserRepository;
 import com.company.project.security.JwtService;
+import com.company.project.security.UserAuthStateCache;
 import com.company.project.service.AuthService;
 import com.company.project.service.EmailService;
 import com.company.project.service.RefreshTokenService;
@@ -40,6 +41,7 @@ public class AuthServiceImpl implements AuthService {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final PasswordResetTokenRepository passwordResetTokenRepository;
+    private final UserAuthStateCache userAuthStateCache;
 
     @Value("${app.base-url}")
     private String baseUrl;
@@ -118,6 +120,7 @@ public class AuthServiceImpl implements AuthService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
         refreshTokenService.deleteByUserId(user.getId());
+        revokeAccessTokens(user);
     }
 
     @Override
@@ -142,6 +145,7 @@ public class AuthServiceImpl implements AuthService {
         
         // Logout all devices (optional)
         refreshTokenService.deleteByUserId(user.getId());
+        revokeAccessTokens(user);
     }
 
     @Override
@@ -195,5 +199,15 @@ public class AuthServiceImpl implements AuthService {
         
         // Logout all devices
         refreshTokenService.deleteByUserId(user.getId());
+        revokeAccessTokens(user);
+    }
+
+    /**
+     * Invalidate every access token issued to the user so far
+     */
+    private void revokeAccessTokens(User user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userRepository.save(user);
+        userAuthStateCache.invalidate(user.getId());
     }
 } 
\ No newline at end of file
@@ -0,0 +1,443 @@
+package com.company.project.service.impl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import com.company.project.config.CacheConfig;
+import com.company.project.config.GeocodingProperties;
+import com.company.project.dto.GeocodedLocation;
+import com.company.project.dto.response.BatchGeocodeResponse;
+import com.company.project.entity.GeocodingCacheEntry;
+import com.company.project.exception.GeocodingBusyException;
+import com.company.project.exception.GeocodingException;
+import com.company.project.repository.GeocodingCacheEntryRepository;
+import com.company.project.service.GeocodingService;
+import com.company.project.spatial.LocalityGazetteer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Geocoding service backed by the Nominatim API
+ * Upstream requests are spaced by the configured minimum interval to respect Nominatim's usage policy
+ * 
+ * Search responses are cached by normalized query in memory and, optionally, in the geocoding_cache table.
+ * Concurrent identical searches share a single upstream call.
+ * 
+ * Upstream calls are made with HttpClient.sendAsync, so no request thread waits on Nominatim.
+ * A bulkhead caps the number of calls in flight; async searches beyond it fail immediately, while
+ * blocking searches wait for a permit on their own thread before the request is composed.
+ * 
+ * Geocoding and reverse geocoding consult the local gazetteer first and only call Nominatim on a miss.
+ */
+@Slf4j
+@Service
+public class NominatimGeocodingService implements GeocodingService {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_PERSISTED_KEY_LENGTH = 600;
+    private static final String SOURCE_GAZETTEER = "gazetteer";
+    private static final String SOURCE_NOMINATIM = "nominatim";
+
+    private final GeocodingProperties geocodingProperties;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Cache searchCache;
+    private final GeocodingCacheEntryRepository cacheEntryRepository;
+    private final LocalityGazetteer gazetteer;
+
+    // Runs persistent cache reads and writes off the request and HttpClient threads
+    private final ExecutorService executor;
+
+    // Deletes persisted responses past their TTL; null when the persistent cache is disabled
+    private final ScheduledExecutorService cleanupScheduler;
+
+    // Bulkhead: permits for upstream calls in flight
+    private final Semaphore upstreamPermits;
+
+    // Earliest time the next upstream request may be sent (guarded by this)
+    private long nextRequestAtNanos = 0;
+
+    public NominatimGeocodingService(
+            GeocodingProperties geocodingProperties,
+            ObjectMapper objectMapper,
+            CacheManager cacheManager,
+            GeocodingCacheEntryRepository cacheEntryRepository,
+            LocalityGazetteer gazetteer) {
+        this.geocodingProperties = geocodingProperties;
+        this.objectMapper = objectMapper;
+        this.searchCache = cacheManager.getCache(CacheConfig.GEOCODING_SEARCH);
+        this.cacheEntryRepository = cacheEntryRepository;
+        this.gazetteer = gazetteer;
+        this.upstreamPermits = new Semaphore(geocodingProperties.getMaxConcurrentRequests());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, geocodingProperties.getMaxConcurrentRequests()), r -> {
+            Thread t = new Thread(r, "geocoding-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(geocodingProperties.getTimeoutSeconds()))
+                .build();
+
+        // Expired rows are never read again, so drop them rather than letting the table grow forever
+        if (geocodingProperties.isPersistentCache()) {
+            this.cleanupScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "geocoding-cache-cleanup");
+                t.setDaemon(true);
+                return t;
+            });
+            cleanupScheduler.scheduleAtFixedRate(this::deleteExpiredEntries, 1, 1, TimeUnit.HOURS);
+        } else {
+            this.cleanupScheduler = null;
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> searchAsync(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        return cachedRequest(limit + ":" + normalizedQuery, searchUrl(normalizedQuery, limit), null);
+    }
+
+    /**
+     * Blocking variant for background callers; waits up to the request timeout for a bulkhead permit
+     * The wait happens on the calling thread, so it never occupies one of the geocoding executor threads.
+     */
+    @Override
+    public String search(String query, int limit) {
+        String normalizedQuery = normalize(query);
+        String cacheKey = limit + ":" + normalizedQuery;
+        try {
+            CompletableFuture<?> cached = searchCache.retrieve(cacheKey);
+            if (cached != null) {
+                // Wrapped when the cache allows null values
+                Object value = cached.join();
+                return (String) (value instanceof Cache.ValueWrapper wrapper ? wrapper.get() : value);
+            }
+
+            try {
+                if (!upstreamPermits.tryAcquire(geocodingProperties.getTimeoutSeconds(), TimeUnit.SECONDS)) {
+                    throw new GeocodingBusyException();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new GeocodingException("Geocoding request interrupted", e);
+            }
+            // Handed to the upstream call if one is made; otherwise given back once the search completes
+            AtomicBoolean heldPermit = new AtomicBoolean(true);
+            try {
+                return cachedRequest(cacheKey, searchUrl(normalizedQuery, limit), heldPermit).join();
+            } finally {
+                if (heldPermit.compareAndSet(true, false)) {
+                    upstreamPermits.release();
+                }
+            }
+        } catch (CompletionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private String searchUrl(String normalizedQuery, int limit) {
+        return String.format(
+            "%s/search?format=json&q=%s&limit=%d&addressdetails=1",
+            geocodingProperties.getBaseUrl(),
+            URLEncoder.encode(normalizedQuery, StandardCharsets.UTF_8),
+            limit
+        );
+    }
+
+    @Override
+    public Optional<GeocodedLocation> geocode(String query) {
+        Optional<GeocodedLocation> local = geocodeLocally(query);
+        if (local.isPresent()) {
+            return local;
+        }
+        return firstSearchResult(query, search(query, 1));
+    }
+
+    @Override
+    public CompletableFuture<Optional<GeocodedLocation>> reverseAsync(double latitude, double longitude) {
+        Optional<GeocodedLocation> local = gazetteer
+                .findNearest(latitude, longitude, geocodingProperties.getGazetteer().getReverseMaxDistanceMeters())
+                .map(NominatimGeocodingService::toLocation);
+        if (local.isPresent()) {
+            return CompletableFuture.completedFuture(local);
+        }
+
+        // About 11 m of precision, so nearby points share a cache entry
+        String point = String.format(Locale.ROOT, "%.4f,%.4f", latitude, longitude);
+        String url = String.format(Locale.ROOT,
+            "%s/reverse?format=json&lat=%.4f&lon=%.4f&zoom=14&addressdetails=1",
+            geocodingProperties.getBaseUrl(), latitude, longitude);
+        return cachedRequest("reverse:" + point, url, null)
+                .thenApply(body -> parse(body).filter(result -> !result.has("error")).flatMap(this::toLocation));
+    }
+
+    @Override
+    public CompletableFuture<BatchGeocodeResponse> geocodeBatchAsync(List<String> queries) {
+        List<BatchGeocodeResponse.Result> results = new ArrayList<>(queries.size());
+        // Misses are chained so that one batch never holds more than one upstream permit
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (String query : queries) {
+            BatchGeocodeResponse.Result result = BatchGeocodeResponse.Result.builder().query(query).build();
+            results.add(result);
+            Optional<GeocodedLocation> local = geocodeLocally(query);
+            if (local.isPresent()) {
+                result.setLocation(local.get());
+                continue;
+            }
+            chain = chain.thenCompose(previous -> searchAsync(query, 1)
+                    .handle((body, error) -> {
+                        if (error != null) {
+                            result.setError(rootCause(error).getMessage());
+                        } else {
+                            firstSearchResult(query, body).ifPresent(result::setLocation);
+                        }
+                        return null;
+                    }));
+        }
+        return chain.thenApply(done -> BatchGeocodeResponse.builder().results(results).build());
+    }
+
+    private Optional<GeocodedLocation> geocodeLocally(String query) {
+        return gazetteer.findByName(query).map(NominatimGeocodingService::toLocation);
+    }
+
+    /**
+     * Serve a Nominatim request from the in-memory cache, sharing a pending load between identical requests
+     * Failed loads are not cached
+     *
+     * @param heldPermit Bulkhead permit already acquired by the caller, or null to try for one when needed
+     */
+    private CompletableFuture<String> cachedRequest(String cacheKey, String url, AtomicBoolean heldPermit) {
+        return searchCache.retrieve(cacheKey, () -> load(cacheKey, url, heldPermit));
+    }
+
+    /**
+     * Load a response from the persistent cache, or from Nominatim if absent or stale
+     */
+    private CompletableFuture<String> load(String cacheKey, String url, AtomicBoolean heldPermit) {
+        return CompletableFuture.supplyAsync(() -> findPersisted(cacheKey), executor)
+                .thenCompose(persisted -> persisted
+                        .map(CompletableFuture::completedFuture)
+                        .orElseGet(() -> fetch(url, heldPermit)
+                                .thenApplyAsync(response -> {
+                                    persist(cacheKey, response);
+                                    return response;
+                                }, executor)));
+    }
+
+    private Optional<String> findPersisted(String cacheKey) {
+        if (!isPersistable(cacheKey)) {
+            return Optional.empty();
+        }
+        LocalDateTime freshAfter = LocalDateTime.now().minusDays(geocodingProperties.getPersistentCacheTtlDays());
+        try {
+            return cacheEntryRepository.findById(cacheKey)
+                    .filter(entry -> entry.getFetchedAt().isAfter(freshAfter))
+                    .map(GeocodingCacheEntry::getResponse);
+        } catch (RuntimeException e) {
+            log.warn("Failed to read persisted geocoding response: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void persist(String cacheKey, String response) {
+        if (!isPersistable(cacheKey)) {
+            return;
+        }
+        try {
+            cacheEntryRepository.save(GeocodingCacheEntry.builder()
+                    .cacheKey(cacheKey)
+                    .response(response)
+                    .fetchedAt(LocalDateTime.now())
+                    .build());
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist geocoding response: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Delete persisted responses older than the TTL; runs hourly while the persistent cache is enabled
+     */
+    public void deleteExpiredEntries() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(geocodingProperties.getPersistentCacheTtlDays());
+        try {
+            int removed = cacheEntryRepository.deleteFetchedBefore(cutoff);
+            if (removed > 0) {
+                log.debug("Deleted {} expired geocoding responses", removed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to delete expired geocoding responses: {}", e.getMessage());
+        }
+    }
+
+    private boolean isPersistable(String cacheKey) {
+        return geocodingProperties.isPersistentCache() && cacheKey.length() <= MAX_PERSISTED_KEY_LENGTH;
+    }
+
+    /**
+     * Normalize a query so that equivalent searches share a cache entry
+     * Unicode compatibility forms are folded, whitespace is collapsed and case is ignored
+     */
+    static String normalize(String query) {
+        String normalized = Normalizer.normalize(query, Normalizer.Form.NFKC).trim();
+        return WHITESPACE.matcher(normalized).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Send one request to Nominatim once a bulkhead permit and a rate limit slot are available
+     * Never waits for a permit: it uses the caller's held permit or fails if none is free.
+     */
+    private CompletableFuture<String> fetch(String url, AtomicBoolean heldPermit) {
+        boolean acquired = (heldPermit != null && heldPermit.compareAndSet(true, false)) || upstreamPermits.tryAcquire();
+        if (!acquired) {
+            return CompletableFuture.failedFuture(new GeocodingBusyException());
+        }
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("User-Agent", geocodingProperties.getUserAgent())
+                .header("Accept", "application/json")
+                .timeout(Duration.ofSeconds(geocodingProperties.getTimeoutSeconds()))
+                .GET()
+                .build();
+
+        return nextRequestSlot()
+                .thenCompose(slot -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()))
+                .handle((response, error) -> {
+                    if (error != null) {
+                        throw new GeocodingException("Geocoding service unavailable", rootCause(error));
+                    }
+                    if (response.statusCode() != 200) {
+                        throw new GeocodingException(response.statusCode(), response.body());
+                    }
+                    return response.body();
+                })
+                .whenComplete((body, error) -> upstreamPermits.release());
+    }
+
+    private Optional<GeocodedLocation> firstSearchResult(String query, String body) {
+        Optional<JsonNode> results = parse(body);
+        if (results.isEmpty()) {
+            log.warn("Unreadable geocoding response for query '{}'", query);
+            return Optional.empty();
+        }
+        if (!results.get().isArray() || results.get().isEmpty()) {
+            return Optional.empty();
+        }
+        return toLocation(results.get().get(0));
+    }
+
+    private Optional<JsonNode> parse(String body) {
+        try {
+            return Optional.of(objectMapper.readTree(body));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Convert one Nominatim result; coordinates are returned as strings
+     */
+    private Optional<GeocodedLocation> toLocation(JsonNode result) {
+        JsonNode address = result.path("address");
+        String locality = null;
+        for (String field : new String[] {"suburb", "neighbourhood", "village", "town", "city"}) {
+            if (address.hasNonNull(field)) {
+                locality = address.get(field).asText();
+                break;
+            }
+        }
+        try {
+            return Optional.of(GeocodedLocation.builder()
+                    .latitude(Double.parseDouble(result.path("lat").asText()))
+                    .longitude(Double.parseDouble(result.path("lon").asText()))
+                    .displayName(result.path("display_name").asText(null))
+                    .locality(locality)
+                    .state(address.path("state").asText(null))
+                    .source(SOURCE_NOMINATIM)
+                    .build());
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static GeocodedLocation toLocation(LocalityGazetteer.Locality locality) {
+        return GeocodedLocation.builder()
+                .latitude(locality.latitude())
+                .longitude(locality.longitude())
+                .displayName(locality.name() + ", " + locality.state())
+                .locality(locality.name())
+                .state(locality.state())
+                .source(SOURCE_GAZETTEER)
+                .build();
+    }
+
+    /**
+     * Reserve the next upstream slot and complete once the minimum interval since the previous request has passed
+     */
+    private CompletableFuture<Void> nextRequestSlot() {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(now, nextRequestAtNanos);
+            nextRequestAtNanos = slot + Duration.ofMillis(geocodingProperties.getMinIntervalMillis()).toNanos();
+            waitNanos = slot - now;
+        }
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    private static RuntimeException unwrap(Throwable error) {
+        Throwable cause = rootCause(error);
+        return cause instanceof RuntimeException runtime ? runtime : new GeocodingException("Geocoding request failed", cause);
+    }
+
+    private static Throwable rootCause(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        if (cleanupScheduler != null) {
+            cleanupScheduler.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.company.project.service.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotMapper;
+import com.company.project.entity.Plot;
+import com.company.project.exception.ExportCapacityException;
+import com.company.project.exception.InvalidCoordinateException;
+import com.company.project.repository.PlotRepository;
+import com.company.project.service.PlotExportService;
+import com.company.project.util.GeometryUtil;
+import com.company.project.util.SecurityUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the PlotExportService interface
+ * Exports are bulkheaded: a semaphore caps how many run on this instance and a per-user count caps
+ * how many one user runs, so long exports cannot use up the connection pool.
+ */
+@Slf4j
+@Service
+public class PlotExportServiceImpl implements PlotExportService {
+
+    // Flush to the client every this many plots so output is delivered progressively
+    private static final int FLUSH_INTERVAL = 500;
+
+    private final PlotRepository plotRepository;
+    private final PlotMapper plotMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final PlotProperties plotProperties;
+    private final SecurityUtils securityUtils;
+
+    // Bulkhead: permits for exports running on this instance
+    private final Semaphore exportPermits;
+
+    // Running exports per user ID (guarded by this)
+    private final Map<Long, Integer> exportsByUser = new HashMap<>();
+
+    public PlotExportServiceImpl(PlotRepository plotRepository,
+                                 PlotMapper plotMapper,
+                                 ObjectMapper objectMapper,
+                                 EntityManager entityManager,
+                                 PlotProperties plotProperties,
+                                 SecurityUtils securityUtils) {
+        this.plotRepository = plotRepository;
+        this.plotMapper = plotMapper;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.plotProperties = plotProperties;
+        this.securityUtils = securityUtils;
+        this.exportPermits = new Semaphore(plotProperties.getExport().getMaxConcurrent());
+    }
+
+    @Override
+    public Permit reserve() {
+        if (!exportPermits.tryAcquire()) {
+            throw new ExportCapacityException("Too many exports are running, try again later",
+                    plotProperties.getExport().getRetryAfterSeconds());
+        }
+        Long userId = securityUtils.getCurrentUserId().orElse(null);
+        if (userId != null && !admitUser(userId)) {
+            exportPermits.release();
+            throw new ExportCapacityException("Maximum number of concurrent exports reached for this user",
+                    plotProperties.getExport().getRetryAfterSeconds());
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                if (userId != null) {
+                    releaseUser(userId);
+                }
+                exportPermits.release();
+            }
+        };
+    }
+
+    private synchronized boolean admitUser(Long userId) {
+        int running = exportsByUser.getOrDefault(userId, 0);
+        if (running >= plotProperties.getExport().getMaxConcurrentPerUser()) {
+            return false;
+        }
+        exportsByUser.put(userId, running + 1);
+        return true;
+    }
+
+    private synchronized void releaseUser(Long userId) {
+        exportsByUser.computeIfPresent(userId, (id, running) -> running > 1 ? running - 1 : null);
+    }
+
+    @Override
+    public Geometry resolveRegion(Double minLat, Double maxLat, Double minLng, Double maxLng, String polygonWkt) {
+        if (polygonWkt != null && !polygonWkt.isBlank()) {
+            return parsePolygon(polygonWkt);
+        }
+        if (minLat == null || maxLat == null || minLng == null || maxLng == null) {
+            throw new InvalidCoordinateException("Either a polygon or minLat, maxLat, minLng and maxLng are required");
+        }
+        GeometryUtil.validateCoordinates(minLat, minLng);
+        GeometryUtil.validateCoordinates(maxLat, maxLng);
+        if (minLat > maxLat || minLng > maxLng) {
+            throw new InvalidCoordinateException("Bounding box minimums must not exceed maximums");
+        }
+        return GeometryUtil.getGeometryFactory().toGeometry(new Envelope(minLng, maxLng, minLat, maxLat));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportPlots(Geometry region, Format format, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        long count = 0;
+
+        try (Stream<Plot> plots = plotRepository.streamPlotsIntersecting(region.toText());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            // The servlet container owns the response stream
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // NDJSON separates root values with newlines only, not Jackson's default space
+            generator.setRootValueSeparator(null);
+
+            if (format == Format.GEOJSON) {
+                generator.writeStartObject();
+                generator.writeStringField("type", "FeatureCollection");
+                generator.writeArrayFieldStart("features");
+            }
+
+            Iterator<Plot> iterator = plots.iterator();
+            while (iterator.hasNext()) {
+                Plot plot = iterator.next();
+                PlotDto dto = plotMapper.toDto(plot);
+                // Keep the persistence context from growing with the result set
+                entityManager.detach(plot);
+
+                if (format == Format.GEOJSON) {
+                    writeFeature(generator, dto);
+                } else {
+                    generator.writeObject(dto);
+                    generator.writeRaw('\n');
+                }
+                if (++count % FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+
+            if (format == Format.GEOJSON) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+            generator.flush();
+        }
+
+        log.info("Exported {} plots as {} in {} ms", count, format, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private void writeFeature(JsonGenerator generator, PlotDto dto) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("type", "Feature");
+        generator.writeNumberField("id", dto.getId());
+        generator.writeObjectFieldStart("geometry");
+        generator.writeStringField("type", "Point");
+        generator.writeArrayFieldStart("coordinates");
+        generator.writeNumber(dto.getLongitude());
+        generator.writeNumber(dto.getLatitude());
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeFieldName("properties");
+        generator.writeObject(dto);
+        generator.writeEndObject();
+    }
+
+    private Geometry parsePolygon(String polygonWkt) {
+        Geometry geometry;
+        try {
+            geometry = new WKTReader(GeometryUtil.getGeometryFactory()).read(polygonWkt);
+        } catch (ParseException e) {
+            throw new InvalidCoordinateException("Invalid polygon WKT: " + e.getMessage());
+        }
+        if (!(geometry instanceof Polygon || geometry instanceof MultiPolygon)) {
+            throw new InvalidCoordinateException("Export region must be a POLYGON or MULTIPOLYGON, got "
+                    + geometry.getGeometryType().toUpperCase(Locale.ROOT));
+        }
+        if (!geometry.isValid()) {
+            throw new InvalidCoordinateException("Export polygon is not a valid geometry");
+        }
+        Envelope bounds = geometry.getEnvelopeInternal();
+        GeometryUtil.validateCoordinates(bounds.getMinY(), bounds.getMinX());
+        GeometryUtil.validateCoordinates(bounds.getMaxY(), bounds.getMaxX());
+        return geometry;
+    }
+}
@@ -0,0 +1,442 @@
+package com.company.project.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.GeocodedLocation;
+import com.company.project.dto.PlotImportRecord;
+import com.company.project.entity.PlotImportCheckpoint;
+import com.company.project.event.PlotsReloadedEvent;
+import com.company.project.exception.GeocodingException;
+import com.company.project.exception.InvalidCoordinateException;
+import com.company.project.exception.PlotImportException;
+import com.company.project.repository.PlotImportCheckpointRepository;
+import com.company.project.repository.PlotRepository;
+import com.company.project.service.GeocodingService;
+import com.company.project.service.PlotImportService;
+import com.company.project.spatial.ProximityFilter;
+import com.company.project.util.GeometryUtil;
+import com.company.project.util.PlotImportRecordParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Implementation of the PlotImportService interface
+ *
+ * An import reads the file on one thread, which parses, geocodes and removes in-file duplicates,
+ * and hands fixed-size chunks of lines to a worker pool that upserts each chunk in its own
+ * transaction. The checkpoint only advances over contiguous finished chunks, so a restart
+ * resumes after the last line whose chunk and all earlier chunks are committed. Chunks that
+ * finished beyond that point are re-run on restart, which the upsert makes harmless.
+ */
+@Slf4j
+@Service
+public class PlotImportServiceImpl implements PlotImportService {
+
+    private final PlotRepository plotRepository;
+    private final PlotImportCheckpointRepository checkpointRepository;
+    private final GeocodingService geocodingService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlotProperties plotProperties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter writtenCounter;
+    private final Counter duplicateCounter;
+    private final Counter rejectedCounter;
+    private final Timer chunkTimer;
+
+    // Runs background imports one at a time
+    private final ExecutorService importRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "plot-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Files with an import in progress
+    private final Set<String> runningImports = ConcurrentHashMap.newKeySet();
+
+    public PlotImportServiceImpl(PlotRepository plotRepository,
+                                 PlotImportCheckpointRepository checkpointRepository,
+                                 GeocodingService geocodingService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlotProperties plotProperties,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.plotRepository = plotRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.geocodingService = geocodingService;
+        this.eventPublisher = eventPublisher;
+        this.plotProperties = plotProperties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.writtenCounter = meterRegistry.counter("plots.import.records", "outcome", "written");
+        this.duplicateCounter = meterRegistry.counter("plots.import.records", "outcome", "duplicate");
+        this.rejectedCounter = meterRegistry.counter("plots.import.records", "outcome", "rejected");
+        this.chunkTimer = Timer.builder("plots.import.chunk")
+                .description("Time to upsert one import chunk")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importRunner.shutdownNow();
+    }
+
+    @Override
+    public PlotImportCheckpoint startImport(String fileName) {
+        Path file = resolveFile(fileName);
+        String key = relativeName(file);
+        if (!runningImports.add(key)) {
+            throw new PlotImportException("An import of " + key + " is already running");
+        }
+        try {
+            PlotImportCheckpoint checkpoint = openCheckpoint(key, file);
+            importRunner.submit(() -> {
+                try {
+                    runImport(file, checkpoint.getId());
+                } catch (RuntimeException e) {
+                    log.error("Import of {} failed: {}", key, e.getMessage(), e);
+                } finally {
+                    runningImports.remove(key);
+                }
+            });
+            return checkpoint;
+        } catch (RuntimeException e) {
+            runningImports.remove(key);
+            throw e;
+        }
+    }
+
+    @Override
+    public PlotImportCheckpoint importFile(String fileName) {
+        Path file = resolveFile(fileName);
+        String key = relativeName(file);
+        if (!runningImports.add(key)) {
+            throw new PlotImportException("An import of " + key + " is already running");
+        }
+        try {
+            return runImport(file, openCheckpoint(key, file).getId());
+        } finally {
+            runningImports.remove(key);
+        }
+    }
+
+    @Override
+    public List<PlotImportCheckpoint> getImports() {
+        return checkpointRepository.findAllByOrderByStartedAtDesc();
+    }
+
+    private PlotImportCheckpoint runImport(Path file, Long checkpointId) {
+        PlotImportCheckpoint checkpoint = checkpointRepository.findById(checkpointId)
+                .orElseThrow(() -> new PlotImportException("Import checkpoint not found: " + checkpointId));
+        if (checkpoint.getStatus() == PlotImportCheckpoint.Status.COMPLETED) {
+            log.info("Import of {} already completed", checkpoint.getFileName());
+            return checkpoint;
+        }
+
+        PlotProperties.Imports settings = plotProperties.getImports();
+        double minDistance = plotProperties.getDuplicates().getMinDistanceMeters();
+        long resumeAfter = checkpoint.getCommittedLines();
+        log.info("Importing {} from line {}", checkpoint.getFileName(), resumeAfter + 1);
+
+        CheckpointTracker tracker = new CheckpointTracker(checkpoint);
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(settings.getParallelism(), settings.getParallelism(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(settings.getParallelism() * 2),
+                // Backpressure: when the queue is full the reader upserts the chunk itself
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        List<Future<?>> pending = new ArrayList<>();
+        String failure = null;
+        long lineNumber = 0;
+        long start = System.currentTimeMillis();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            ProximityFilter seen = new ProximityFilter(minDistance);
+            Map<String, Optional<GeocodedLocation>> geocoded = new HashMap<>();
+            Chunk chunk = new Chunk(resumeAfter);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeAfter) {
+                    continue;
+                }
+                prepare(line, chunk, seen, geocoded);
+                chunk.endLine = lineNumber;
+                if (chunk.endLine - chunk.startLine >= settings.getChunkSize()) {
+                    Chunk full = chunk;
+                    pending.add(workers.submit(() -> upsert(full, minDistance, tracker)));
+                    chunk = new Chunk(lineNumber);
+                }
+            }
+            if (chunk.endLine > chunk.startLine) {
+                Chunk last = chunk;
+                pending.add(workers.submit(() -> upsert(last, minDistance, tracker)));
+            }
+
+            for (Future<?> future : pending) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause().getMessage();
+                    log.error("Import chunk of {} failed: {}", checkpoint.getFileName(), failure, e.getCause());
+                }
+            }
+        } catch (IOException e) {
+            failure = "Could not read file: " + e.getMessage();
+            log.error("Import of {} failed: {}", checkpoint.getFileName(), failure, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Import interrupted";
+        } catch (RuntimeException e) {
+            failure = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.error("Import of {} failed: {}", checkpoint.getFileName(), failure, e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        PlotImportCheckpoint result = tracker.finish(failure == null && tracker.committedLines() == lineNumber, failure);
+        log.info("Import of {} {} after {} ms: {} written, {} duplicates, {} rejected, {} lines committed",
+                result.getFileName(), result.getStatus(), System.currentTimeMillis() - start,
+                result.getWrittenCount(), result.getDuplicateCount(), result.getRejectedCount(), result.getCommittedLines());
+
+        // Imported rows bypass the entity change events, so derived state is reloaded wholesale, here and,
+        // through the change relay, on the other instances
+        if (tracker.hasWritten()) {
+            try {
+                eventPublisher.publishEvent(PlotsReloadedEvent.local());
+            } catch (RuntimeException e) {
+                log.error("Failed to reload plots after import: {}", e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Parse, locate and de-duplicate one line on the reader thread, adding it to the chunk if usable
+     */
+    private void prepare(String line, Chunk chunk, ProximityFilter seen, Map<String, Optional<GeocodedLocation>> geocoded) {
+        if (line.isBlank()) {
+            return;
+        }
+        PlotImportRecord record;
+        try {
+            record = PlotImportRecordParser.parse(objectMapper.readTree(line));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.debug("Rejected import line: {}", e.getMessage());
+            chunk.rejected++;
+            return;
+        }
+
+        if (record.getLatitude() == null) {
+            Optional<GeocodedLocation> location = Optional.empty();
+            if (plotProperties.getImports().isGeocodeMissing() && record.getLocationQuery() != null) {
+                // Listings share few distinct localities, so each query is resolved once per import
+                location = geocoded.computeIfAbsent(record.getLocationQuery(), this::geocode);
+            }
+            if (location.isEmpty()) {
+                chunk.rejected++;
+                return;
+            }
+            record.setLatitude(location.get().getLatitude());
+            record.setLongitude(location.get().getLongitude());
+            record.setApproximate(true);
+        }
+
+        try {
+            GeometryUtil.validateCoordinates(record.getLatitude(), record.getLongitude());
+        } catch (InvalidCoordinateException e) {
+            chunk.rejected++;
+            return;
+        }
+        // Every listing geocoded from one locality gets the same point, so only exact coordinates are compared
+        if (!record.isApproximate() && !seen.tryAdd(record.getLatitude(), record.getLongitude())) {
+            chunk.duplicates++;
+            return;
+        }
+        chunk.records.add(record);
+    }
+
+    private Optional<GeocodedLocation> geocode(String query) {
+        try {
+            return geocodingService.geocode(query);
+        } catch (GeocodingException e) {
+            log.warn("Geocoding failed for '{}': {}", query, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Upsert one chunk in its own transaction and report it to the tracker
+     */
+    private void upsert(Chunk chunk, double minDistance, CheckpointTracker tracker) {
+        int[] rows = chunkTimer.record(() -> transactionTemplate.execute(
+                status -> plotRepository.upsertImportedPlots(chunk.records, minDistance)));
+
+        long written = 0;
+        for (int count : rows) {
+            if (count > 0) {
+                written++;
+            }
+        }
+        long duplicates = chunk.duplicates + (chunk.records.size() - written);
+
+        writtenCounter.increment(written);
+        duplicateCounter.increment(duplicates);
+        rejectedCounter.increment(chunk.rejected);
+        tracker.complete(chunk, written, duplicates);
+    }
+
+    private PlotImportCheckpoint openCheckpoint(String fileName, Path file) {
+        String fingerprint;
+        try {
+            fingerprint = Files.size(file) + "-" + Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            throw new PlotImportException("Could not read import file: " + fileName, e);
+        }
+        PlotImportCheckpoint checkpoint = checkpointRepository.findByFileNameAndFingerprint(fileName, fingerprint)
+                .orElseGet(() -> PlotImportCheckpoint.builder()
+                        .fileName(fileName)
+                        .fingerprint(fingerprint)
+                        .build());
+        if (checkpoint.getStatus() != PlotImportCheckpoint.Status.COMPLETED) {
+            checkpoint.setStatus(PlotImportCheckpoint.Status.RUNNING);
+            checkpoint.setErrorMessage(null);
+        }
+        return checkpointRepository.save(checkpoint);
+    }
+
+    private Path importDirectory() {
+        return Paths.get(plotProperties.getImports().getDirectory()).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Resolve a file name inside the import directory, rejecting paths that escape it
+     */
+    private Path resolveFile(String fileName) {
+        if (fileName == null || fileName.isBlank()) {
+            throw new PlotImportException("Import file name is required");
+        }
+        Path directory = importDirectory();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file)) {
+            throw new PlotImportException("Import file not found: " + fileName);
+        }
+        return file;
+    }
+
+    private String relativeName(Path file) {
+        return importDirectory().relativize(file).toString();
+    }
+
+    /**
+     * A contiguous range of lines and the records prepared from them
+     * Lines (startLine, endLine] belong to the chunk; counts cover lines dropped before the upsert
+     */
+    private static final class Chunk {
+        private final long startLine;
+        private long endLine;
+        private final List<PlotImportRecord> records = new ArrayList<>();
+        private long duplicates;
+        private long rejected;
+
+        private Chunk(long startLine) {
+            this.startLine = startLine;
+            this.endLine = startLine;
+        }
+    }
+
+    /**
+     * Advances the checkpoint as chunks finish, in line order regardless of completion order
+     */
+    private final class CheckpointTracker {
+
+        private record Result(long endLine, long written, long duplicates, long rejected) {
+        }
+
+        private PlotImportCheckpoint checkpoint;
+        // Finished chunks that cannot be committed yet, keyed by their start line
+        private final TreeMap<Long, Result> finished = new TreeMap<>();
+        private boolean written;
+
+        private CheckpointTracker(PlotImportCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        synchronized void complete(Chunk chunk, long writtenCount, long duplicateCount) {
+            finished.put(chunk.startLine, new Result(chunk.endLine, writtenCount, duplicateCount, chunk.rejected));
+            written |= writtenCount > 0;
+
+            boolean advanced = false;
+            Result next;
+            while ((next = finished.remove(checkpoint.getCommittedLines())) != null) {
+                checkpoint.setCommittedLines(next.endLine());
+                checkpoint.setWrittenCount(checkpoint.getWrittenCount() + next.written());
+                checkpoint.setDuplicateCount(checkpoint.getDuplicateCount() + next.duplicates());
+                checkpoint.setRejectedCount(checkpoint.getRejectedCount() + next.rejected());
+                advanced = true;
+            }
+            if (advanced) {
+                checkpoint = checkpointRepository.save(checkpoint);
+            }
+        }
+
+        synchronized long committedLines() {
+            return checkpoint.getCommittedLines();
+        }
+
+        synchronized boolean hasWritten() {
+            return written;
+        }
+
+        synchronized PlotImportCheckpoint finish(boolean completed, String failure) {
+            if (completed) {
+                checkpoint.setStatus(PlotImportCheckpoint.Status.COMPLETED);
+                checkpoint.setCompletedAt(LocalDateTime.now());
+            } else {
+                checkpoint.setStatus(PlotImportCheckpoint.Status.FAILED);
+                checkpoint.setErrorMessage(failure != null ? truncate(failure) : "Import stopped before the end of the file");
+            }
+            checkpoint = checkpointRepository.save(checkpoint);
+            return checkpoint;
+        }
+
+        private String truncate(String message) {
+            return message.length() > 1000 ? message.substring(0, 1000) : message;
+        }
+    }
+}
@@ -2,28 +2,80 @@ package com.company.project.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.company.project.cache.PlotCache;
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotClusterDto;
 import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotGridCellDto;
 import com.company.project.dto.PlotMapper;
+import com.company.project.dto.PlotSearchCriteria;
+import com.company.project.dto.PlotWatermark;
+import com.company.project.dto.response.BulkPlotResponse;
+import com.company.project.dto.response.PlotChangesPage;
+import com.company.project.dto.response.PlotSearchPage;
 import com.company.project.entity.Plot;
+import com.company.project.entity.PlotDeletion;
 import com.company.project.entity.User;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.event.PlotsCreatedEvent;
+import com.company.project.repository.PlotDeletionRepository;
 import com.company.project.repository.PlotRepository;
+import com.company.project.repository.PlotRepositoryCustom.SearchHit;
+import com.company.project.repository.PlotSpecifications;
 import com.company.project.repository.UserRepository;
 import com.company.project.service.PlotService;
+import com.company.project.exception.BulkRequestTooLargeException;
 import com.company.project.exception.DuplicateLocationException;
+import com.company.project.exception.InvalidCoordinateException;
 import com.company.project.exception.PlotNotFoundException;
 import com.company.project.exception.PlotOwnershipException;
+import com.company.project.spatial.PlotPriceGrid;
+import com.company.project.spatial.PlotSpatialIndex;
+import com.company.project.spatial.ProximityFilter;
+import com.company.project.util.AppConstants;
+import com.company.project.util.Geohash;
+import com.company.project.util.GeometryUtil;
+import com.company.project.util.PlotCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Database-backed implementation of the PlotService
  * Uses PlotRepository for persistence and PlotMapper for DTO conversion
+ * 
+ * Single plots and listing pages are read through PlotCache. Cached reads run without a surrounding
+ * transaction so that hits do not take a connection; the cache is invalidated by the PlotChangedEvents
+ * published from the write paths.
  */
 @Service
 @Primary
@@ -36,35 +88,206 @@ public class PlotServiceImpl implements PlotService {
     private final PlotMapper plotMapper;
     private final UserRepository userRepository;
     private final com.company.project.util.SecurityUtils securityUtils;
+    private final PlotProperties plotProperties;
+    private final PlotSpatialIndex plotSpatialIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final PlotCache plotCache;
+    private final PlotDeletionRepository plotDeletionRepository;
+    private final PlotPriceGrid plotPriceGrid;
 
     @Override
-    @Transactional(readOnly = true)
-    public Page<PlotDto> getAllPlots(Pageable pageable) {
-        log.debug("Fetching all plots with pagination: page={}, size={}", pageable.getPageNumber(), pageable.getPageSize());
-        Page<Plot> plotPage = plotRepository.findAll(pageable);
-        log.debug("Found {} plots", plotPage.getTotalElements());
-        return plotPage.map(plotMapper::toDto);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Slice<PlotDto> getAllPlots(long afterId, int size, PlotWatermark state) {
+        log.debug("Fetching all plots with pagination: afterId={}, size={}", afterId, size);
+        return plotCache.getPage(new PlotCache.QueryKey("all", null, afterId, size, state), () -> {
+            Slice<Plot> plotSlice = plotRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size));
+            log.debug("Found {} plots", plotSlice.getNumberOfElements());
+            return plotSlice.map(plotMapper::toDto);
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Slice<PlotDto> getAllPlotsWithFilters(long afterId, int size, PlotSearchCriteria filters, PlotWatermark state) {
+        log.debug("Fetching plots with filters: afterId={}, size={}, filters={}", afterId, size, filters);
+        return plotCache.getPage(new PlotCache.QueryKey("filtered", filters, afterId, size, state), () -> {
+            Slice<PlotDto> plotSlice = findSlice(
+                    PlotSpecifications.matching(filters).and(PlotSpecifications.idAfter(afterId)), Sort.by("id"), size);
+            log.debug("Found {} plots with filters", plotSlice.getNumberOfElements());
+            return plotSlice;
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Slice<PlotDto> getPlotsByPricePerSqm(PlotSearchCriteria filters, PlotCursor.PricedPosition after,
+            boolean descending, int size, PlotWatermark state) {
+        log.debug("Fetching plots by price per sqm: after={}, descending={}, size={}, filters={}",
+                after, descending, size, filters);
+        String operation = descending ? "pricePerSqmDesc" : "pricePerSqmAsc";
+        return plotCache.getPage(new PlotCache.QueryKey(operation, filters, after, size, state), () -> {
+            Specification<Plot> keyset = after != null
+                    ? PlotSpecifications.pricePerSqmAfter(after.pricePerSqm(), after.id(), descending)
+                    : PlotSpecifications.pricePerSqmAfter(null, 0, descending);
+            Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+            Slice<PlotDto> plotSlice = findSlice(PlotSpecifications.matching(filters).and(keyset),
+                    Sort.by(direction, "pricePerSqm", "id"), size);
+            log.debug("Found {} plots by price per sqm", plotSlice.getNumberOfElements());
+            return plotSlice;
+        });
+    }
+
+    /**
+     * Read one keyset page; one extra row tells whether another page exists, without a count query
+     */
+    private Slice<PlotDto> findSlice(Specification<Plot> specification, Sort sort, int size) {
+        List<Plot> plots = plotRepository.findBy(specification, query -> query.sortBy(sort).limit(size + 1).all());
+        boolean hasNext = plots.size() > size;
+        List<PlotDto> content = plotMapper.toDtoList(hasNext ? plots.subList(0, size) : plots);
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PlotDto> getAllPlotsWithFilters(Pageable pageable, BigDecimal minPrice, BigDecimal maxPrice, Boolean isForSale) {
-        log.debug("Fetching plots with filters: page={}, size={}, minPrice={}, maxPrice={}, isForSale={}", 
-                pageable.getPageNumber(), pageable.getPageSize(), minPrice, maxPrice, isForSale);
+    public PlotSearchPage searchPlots(PlotSearchCriteria criteria, String cursor, int size) {
+        log.debug("Searching plots: criteria={}, cursor={}, size={}", criteria, cursor, size);
+        PlotCursor.RankedPosition position = PlotCursor.decodeRanked(cursor);
+        SearchHit after = position != null ? new SearchHit(position.id(), position.rank()) : null;
         
-        Page<Plot> plotPage = plotRepository.findPlotsWithFilters(pageable, minPrice, maxPrice, isForSale);
-        log.debug("Found {} plots with filters", plotPage.getTotalElements());
+        // One extra hit tells whether another page exists
+        List<SearchHit> hits = plotRepository.searchPlots(criteria, after, size + 1);
+        boolean hasNext = hits.size() > size;
+        if (hasNext) {
+            hits = hits.subList(0, size);
+        }
         
-        return plotPage.map(plotMapper::toDto);
+        Map<Long, Plot> plotsById = plotRepository.findAllById(hits.stream().map(SearchHit::id).toList()).stream()
+                .collect(Collectors.toMap(Plot::getId, Function.identity()));
+        List<PlotDto> plots = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            Plot plot = plotsById.get(hit.id());
+            // A plot deleted between the two queries is left out
+            if (plot != null) {
+                plots.add(plotMapper.toDto(plot));
+            }
+        }
+        log.debug("Found {} plots for search", plots.size());
+        
+        SearchHit last = hits.isEmpty() ? null : hits.get(hits.size() - 1);
+        return PlotSearchPage.builder()
+                .plots(plots)
+                .nextCursor(hasNext ? PlotCursor.encodeRanked(last.rank(), last.id()) : null)
+                .build();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public PlotDto getPlotById(Long id) {
         log.debug("Fetching plot with ID: {}", id);
-        Plot plot = plotRepository.findById(id)
+        return plotCache.getPlot(id, () -> {
+            Plot plot = plotRepository.findById(id)
+                    .orElseThrow(() -> new PlotNotFoundException(id));
+            return plotMapper.toDto(plot);
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public LocalDateTime getPlotUpdatedAt(Long id) {
+        // Read from the database rather than the plot cache, which can hold a stale load until its TTL
+        return plotRepository.findUpdatedAtById(id)
                 .orElseThrow(() -> new PlotNotFoundException(id));
-        return plotMapper.toDto(plot);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public PlotWatermark getWatermark(Double minLat, Double maxLat, Double minLng, Double maxLng) {
+        boolean global = minLat == null || maxLat == null || minLng == null || maxLng == null;
+        return global ? plotRepository.findWatermark()
+                : plotRepository.findWatermarkWithinBoundingBox(minLat, minLng, maxLat, maxLng);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PlotChangesPage getPlotChanges(LocalDateTime since, PlotSearchCriteria bounds, String cursor, int size) {
+        log.debug("Fetching plot changes: since={}, bounds={}, cursor={}, size={}", since, bounds, cursor, size);
+        // Tombstones are paged before plots, so a client that applies pages in order deletes before it upserts
+        boolean inTombstones = cursor == null || cursor.isBlank() || PlotCursor.isDeleted(cursor);
+        
+        // Taken before reading, so changes committed during this sync are picked up by the next one.
+        // A transaction still writing, such as a long import chunk, holds it back to when that transaction
+        // started, since its rows carry earlier times than its commit. The horizon is an absolute time from
+        // the database clock; updated_at holds local times of the JVM zone (Hibernate stamps them, and the
+        // driver sets each session's TimeZone to it), so the watermark is expressed in that zone.
+        // Truncated to the serialized precision; re-reading the truncated part only repeats plots.
+        long horizonMicros = Math.round(plotRepository.findChangeHorizonEpochSeconds() * 1_000_000);
+        Instant horizon = Instant.EPOCH.plus(horizonMicros, ChronoUnit.MICROS);
+        LocalDateTime watermark = LocalDateTime.ofInstant(
+                        horizon.minusMillis(plotProperties.getChanges().getCommitLagMillis()), ZoneId.systemDefault())
+                .truncatedTo(ChronoUnit.SECONDS);
+        if (watermark.isBefore(since)) {
+            watermark = since;
+        }
+        
+        List<PlotDeletion> deletions = List.of();
+        if (inTombstones) {
+            PlotCursor.ChangedPosition deletedAfter = PlotCursor.decodeDeleted(cursor);
+            deletions = findDeletions(since, bounds, deletedAfter, size + 1);
+            if (deletions.size() > size) {
+                deletions = deletions.subList(0, size);
+                PlotDeletion last = deletions.get(size - 1);
+                log.debug("Found {} deleted plots, more to follow", deletions.size());
+                return PlotChangesPage.builder()
+                        .plots(List.of())
+                        .deleted(toTombstones(deletions, Set.of()))
+                        .watermark(watermark)
+                        .nextCursor(PlotCursor.encodeDeleted(last.getDeletedAt(), last.getId()))
+                        .build();
+            }
+        }
+        
+        PlotCursor.ChangedPosition after = inTombstones ? null : PlotCursor.decodeChanged(cursor);
+        Specification<Plot> changed = after != null
+                ? PlotSpecifications.changedAfter(since, after.updatedAt(), after.id())
+                : PlotSpecifications.changedAfter(since, null, 0);
+        Slice<PlotDto> plots = findSlice(PlotSpecifications.matching(bounds).and(changed), Sort.by("updatedAt", "id"), size);
+        
+        String nextCursor = null;
+        List<PlotDto> content = plots.getContent();
+        if (plots.hasNext() && !content.isEmpty()) {
+            PlotDto last = content.get(content.size() - 1);
+            nextCursor = PlotCursor.encodeChanged(last.getUpdatedAt(), last.getId());
+        }
+        // A plot that moved within the area has a tombstone and a current state; the plot wins
+        Set<Long> current = content.stream().map(PlotDto::getId).collect(Collectors.toSet());
+        List<PlotChangesPage.Tombstone> deleted = toTombstones(deletions, current);
+        log.debug("Found {} changed and {} deleted plots", content.size(), deleted.size());
+        return PlotChangesPage.builder()
+                .plots(content)
+                .deleted(deleted)
+                .watermark(watermark)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private List<PlotDeletion> findDeletions(LocalDateTime since, PlotSearchCriteria bounds,
+                                             PlotCursor.ChangedPosition after, int limit) {
+        LocalDateTime afterDeletedAt = after != null ? after.updatedAt() : since;
+        long afterId = after != null ? after.id() : 0;
+        Pageable pageable = PageRequest.of(0, limit);
+        return bounds.hasBounds()
+                ? plotDeletionRepository.findPageWithinBoundingBoxAfter(since, afterDeletedAt, afterId,
+                        bounds.getMinLat(), bounds.getMinLng(), bounds.getMaxLat(), bounds.getMaxLng(), pageable)
+                : plotDeletionRepository.findPageAfter(since, afterDeletedAt, afterId, pageable);
+    }
+
+    private static List<PlotChangesPage.Tombstone> toTombstones(List<PlotDeletion> deletions, Set<Long> superseded) {
+        return deletions.stream()
+                .filter(d -> !superseded.contains(d.getPlotId()))
+                .map(d -> new PlotChangesPage.Tombstone(d.getPlotId(), d.getLatitude(), d.getLongitude(), d.getDeletedAt()))
+                .toList();
     }
 
     @Override
@@ -77,8 +300,8 @@ public class PlotServiceImpl implements PlotService {
                 .orElseThrow(() -> new org.springframework.security.authentication.AuthenticationCredentialsNotFoundException(
                         "Authentication required to create plots"));
         
-        // Check for duplicate locations within 10 meters
-        double minDistance = 10.0; // meters
+        // Check for duplicate locations within the configured minimum distance
+        double minDistance = plotProperties.getDuplicates().getMinDistanceMeters();
         if (plotRepository.existsPlotsWithinDistance(plotDto.getLatitude(), plotDto.getLongitude(), minDistance)) {
             log.warn("Attempted to create plot at duplicate location: lat={}, lng={}", 
                     plotDto.getLatitude(), plotDto.getLongitude());
@@ -92,7 +315,93 @@ public class PlotServiceImpl implements PlotService {
         Plot savedPlot = plotRepository.save(plot);
         
         log.info("Successfully created plot with ID: {} by user: {}", savedPlot.getId(), currentUser.getId());
-        return plotMapper.toDto(savedPlot);
+        PlotDto createdPlot = plotMapper.toDto(savedPlot);
+        eventPublisher.publishEvent(PlotChangedEvent.created(createdPlot));
+        return createdPlot;
+    }
+
+    /**
+     * Bulk insert that avoids the per-plot round trips of createPlot:
+     * - Duplicates against existing rows are found with one spatial join for the whole batch
+     * - Duplicates within the batch are found with an in-memory proximity filter (earlier plots win)
+     * - Inserts use sequence IDs, so Hibernate sends them as JDBC batches
+     * - One PlotsCreatedEvent is published for the created plots, not one event per plot
+     */
+    @Override
+    public BulkPlotResponse createPlots(List<PlotDto> plotDtos) {
+        int maxPlots = plotProperties.getBulk().getMaxPlots();
+        if (plotDtos.size() > maxPlots) {
+            throw new BulkRequestTooLargeException(plotDtos.size(), maxPlots);
+        }
+        
+        User currentUser = securityUtils.getCurrentUser()
+                .orElseThrow(() -> new org.springframework.security.authentication.AuthenticationCredentialsNotFoundException(
+                        "Authentication required to create plots"));
+        log.debug("Bulk creating {} plots for user: {}", plotDtos.size(), currentUser.getId());
+        
+        List<BulkPlotResponse.Rejection> rejected = new ArrayList<>();
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < plotDtos.size(); i++) {
+            String reason = validateForBulk(plotDtos.get(i));
+            if (reason != null) {
+                rejected.add(rejection(i, reason));
+            } else {
+                valid.add(i);
+            }
+        }
+        
+        double minDistance = plotProperties.getDuplicates().getMinDistanceMeters();
+        double[] latitudes = new double[valid.size()];
+        double[] longitudes = new double[valid.size()];
+        for (int i = 0; i < valid.size(); i++) {
+            latitudes[i] = plotDtos.get(valid.get(i)).getLatitude();
+            longitudes[i] = plotDtos.get(valid.get(i)).getLongitude();
+        }
+        Set<Integer> nearExisting = plotRepository.findPositionsNearExistingPlots(latitudes, longitudes, minDistance);
+        
+        ProximityFilter accepted = new ProximityFilter(minDistance);
+        List<Plot> toInsert = new ArrayList<>();
+        for (int i = 0; i < valid.size(); i++) {
+            int index = valid.get(i);
+            if (nearExisting.contains(i)) {
+                rejected.add(rejection(index, "An existing plot is within " + minDistance + " meters"));
+            } else if (!accepted.tryAdd(latitudes[i], longitudes[i])) {
+                rejected.add(rejection(index, "Another plot in this request is within " + minDistance + " meters"));
+            } else {
+                Plot plot = plotMapper.toEntity(plotDtos.get(index));
+                plot.setId(null);
+                plot.setUser(currentUser);
+                toInsert.add(plot);
+            }
+        }
+        
+        List<Long> createdIds = new ArrayList<>(toInsert.size());
+        List<PlotDto> created = new ArrayList<>(toInsert.size());
+        int flushSize = plotProperties.getBulk().getFlushSize();
+        for (int from = 0; from < toInsert.size(); from += flushSize) {
+            List<Plot> chunk = plotRepository.saveAll(toInsert.subList(from, Math.min(from + flushSize, toInsert.size())));
+            plotRepository.flush();
+            for (Plot saved : chunk) {
+                createdIds.add(saved.getId());
+                created.add(plotMapper.toDto(saved));
+            }
+            // Keep the persistence context from growing with the batch
+            entityManager.clear();
+        }
+        
+        if (!created.isEmpty()) {
+            // One event for the batch, so listeners update their state once rather than per plot
+            eventPublisher.publishEvent(PlotsCreatedEvent.local(created));
+        }
+        
+        rejected.sort(Comparator.comparingInt(BulkPlotResponse.Rejection::getIndex));
+        log.info("Bulk created {} of {} plots by user: {}", createdIds.size(), plotDtos.size(), currentUser.getId());
+        return BulkPlotResponse.builder()
+                .received(plotDtos.size())
+                .created(createdIds.size())
+                .createdIds(createdIds)
+                .rejected(rejected)
+                .build();
     }
 
     @Override
@@ -114,9 +423,9 @@ public class PlotServiceImpl implements PlotService {
             throw new PlotOwnershipException(id, currentUser.getId());
         }
         
-        // Check for duplicate locations within 10 meters (excluding current plot)
+        // Check for duplicate locations within the configured minimum distance (excluding current plot)
         if (plotDto.getLatitude() != null && plotDto.getLongitude() != null) {
-            double minDistance = 10.0; // meters
+            double minDistance = plotProperties.getDuplicates().getMinDistanceMeters();
             if (plotRepository.existsPlotsWithinDistanceExcluding(plotDto.getLatitude(), plotDto.getLongitude(), minDistance, id)) {
                 log.warn("Attempted to update plot {} to duplicate location: lat={}, lng={}", 
                         id, plotDto.getLatitude(), plotDto.getLongitude());
@@ -124,11 +433,23 @@ public class PlotServiceImpl implements PlotService {
             }
         }
         
+        // The mapper updates the entity in place, so keep the location the plot may be leaving
+        Double previousLatitude = existingPlot.getLatitude();
+        Double previousLongitude = existingPlot.getLongitude();
         Plot updatedPlot = plotMapper.updateEntityFromDto(existingPlot, plotDto);
-        Plot savedPlot = plotRepository.save(updatedPlot);
+        // Flush so @UpdateTimestamp sets updatedAt before the plot is mapped; the event and ETags depend on it
+        Plot savedPlot = plotRepository.saveAndFlush(updatedPlot);
+        boolean moved = !savedPlot.getLatitude().equals(previousLatitude) || !savedPlot.getLongitude().equals(previousLongitude);
+        if (moved) {
+            recordDeletion(id, previousLatitude, previousLongitude);
+        }
         
         log.info("Successfully updated plot with ID: {} by user: {}", savedPlot.getId(), currentUser.getId());
-        return plotMapper.toDto(savedPlot);
+        PlotDto updatedPlotDto = plotMapper.toDto(savedPlot);
+        eventPublisher.publishEvent(moved
+                ? PlotChangedEvent.moved(updatedPlotDto, previousLatitude, previousLongitude)
+                : PlotChangedEvent.updated(updatedPlotDto));
+        return updatedPlotDto;
     }
 
     @Override
@@ -150,30 +471,260 @@ public class PlotServiceImpl implements PlotService {
             throw new PlotOwnershipException(id, currentUser.getId());
         }
         
+        PlotDto deletedPlot = plotMapper.toDto(existingPlot);
         plotRepository.deleteById(id);
+        recordDeletion(id, existingPlot.getLatitude(), existingPlot.getLongitude());
         log.info("Successfully deleted plot with ID: {} by user: {}", id, currentUser.getId());
+        eventPublisher.publishEvent(PlotChangedEvent.deleted(deletedPlot));
+    }
+
+    /**
+     * Leave a tombstone for delta sync clients, in the same transaction as the delete or move
+     */
+    private void recordDeletion(Long plotId, Double latitude, Double longitude) {
+        plotDeletionRepository.save(PlotDeletion.builder()
+                .plotId(plotId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .build());
+    }
+
+    /**
+     * Served from the in-memory spatial index when it is loaded.
+     * Propagation SUPPORTS avoids acquiring a connection for the index path; the
+     * database fallback runs in the repository's own read-only transaction.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Slice<PlotDto> getPlotsInBounds(Double minLat, Double maxLat, Double minLng, Double maxLng, long afterId, int size,
+            PlotWatermark state) {
+        log.debug("Fetching plots within bounds: minLat={}, maxLat={}, minLng={}, maxLng={}, afterId={}", 
+                minLat, maxLat, minLng, maxLng, afterId);
+        PlotSearchCriteria bounds = PlotSearchCriteria.builder()
+                .minLat(minLat).maxLat(maxLat).minLng(minLng).maxLng(maxLng)
+                .build();
+        return plotCache.getPage(new PlotCache.QueryKey("bounds", bounds, afterId, size, state),
+                () -> findPlotsInBounds(minLat, maxLat, minLng, maxLng, afterId, size, state));
+    }
+
+    private Slice<PlotDto> findPlotsInBounds(Double minLat, Double maxLat, Double minLng, Double maxLng, long afterId, int size,
+                                             PlotWatermark state) {
+        Pageable pageable = PageRequest.of(0, size);
+        
+        // The index applies changes after they commit, and remote ones only once relayed, so it is used
+        // only when it has caught up with the state the response is validated against
+        if (plotSpatialIndex.isReady()
+                && isCaughtUp(plotSpatialIndex.watermarkInBounds(minLat, maxLat, minLng, maxLng), state)) {
+            List<PlotDto> plots = plotSpatialIndex.findInBounds(minLat, maxLat, minLng, maxLng);
+            // Results are ordered by ID, so the keyset position is the first ID after the cursor
+            int from = 0;
+            while (from < plots.size() && plots.get(from).getId() <= afterId) {
+                from++;
+            }
+            int to = Math.min(from + size, plots.size());
+            log.debug("Found {} plots within bounds in spatial index", plots.size());
+            // Copied so the cached page does not hold on to the whole result
+            return new SliceImpl<>(new ArrayList<>(plots.subList(from, to)), pageable, to < plots.size());
+        }
+        
+        Slice<Plot> plotSlice = plotRepository.findPlotsWithinBoundingBox(minLat, minLng, maxLat, maxLng, afterId, pageable);
+        log.debug("Found {} plots within bounds", plotSlice.getNumberOfElements());
+        
+        return plotSlice.map(plotMapper::toDto);
+    }
+
+    /**
+     * Whether the index holds the same plots in a region as the database did for a watermark
+     * The database keeps times to the microsecond, while plots applied from change events can carry
+     * the JVM's nanoseconds, so times are compared at microsecond precision.
+     */
+    private static boolean isCaughtUp(PlotWatermark index, PlotWatermark database) {
+        return database != null && index.count() == database.count()
+                && Objects.equals(toMicros(index.lastModified()), toMicros(database.lastModified()));
+    }
+
+    private static LocalDateTime toMicros(LocalDateTime time) {
+        return time == null ? null : time.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public PlotDto getNearestPlot(Double latitude, Double longitude, Double radius) {
+        List<PlotDto> nearest = getNearestPlots(latitude, longitude, radius, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<PlotDto> getNearestPlots(Double latitude, Double longitude, Double radius, int k) {
+        log.debug("Finding {} nearest plots to lat={}, lng={} within radius={} meters", 
+                k, latitude, longitude, radius);
+        
+        if (plotSpatialIndex.isReady()) {
+            return plotSpatialIndex.findNearest(latitude, longitude, radius, k);
+        }
+        
+        return plotMapper.toDtoList(plotRepository.findNearestPlots(latitude, longitude, radius, k));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PlotDto> getPlotsInBounds(Double minLat, Double maxLat, Double minLng, Double maxLng, Pageable pageable) {
-        log.debug("Fetching plots within bounds: minLat={}, maxLat={}, minLng={}, maxLng={}", 
-                minLat, maxLat, minLng, maxLng);
+    public List<PlotClusterDto> getPlotClusters(Double minLat, Double maxLat, Double minLng, Double maxLng, int zoom) {
+        PlotProperties.Clustering clustering = plotProperties.getClustering();
+        int effectiveZoom = Math.max(0, Math.min(zoom, clustering.getMaxZoom()));
+        
+        // A web mercator map is 256 * 2^zoom pixels wide for 360 degrees of longitude
+        double cellSize = 360.0 * clustering.getCellSizePixels() / (256.0 * Math.pow(2, effectiveZoom));
+        log.debug("Clustering plots within bounds: minLat={}, maxLat={}, minLng={}, maxLng={}, zoom={}, cellSize={}", 
+                minLat, maxLat, minLng, maxLng, effectiveZoom, cellSize);
+        
+        List<PlotRepository.ClusterBucket> buckets = plotRepository.findClusterBuckets(minLat, minLng, maxLat, maxLng, cellSize);
         
-        Page<Plot> plotPage = plotRepository.findPlotsWithinBoundingBox(minLat, minLng, maxLat, maxLng, pageable);
-        log.debug("Found {} plots within bounds", plotPage.getTotalElements());
+        // Buckets are per cell and price unit; merge the units of each cell into one cluster
+        Map<String, List<PlotRepository.ClusterBucket>> bucketsByCell = new LinkedHashMap<>();
+        for (PlotRepository.ClusterBucket bucket : buckets) {
+            bucketsByCell.computeIfAbsent(bucket.getCellX() + ":" + bucket.getCellY(), k -> new ArrayList<>()).add(bucket);
+        }
+        
+        List<PlotClusterDto> clusters = new ArrayList<>(bucketsByCell.size());
+        for (List<PlotRepository.ClusterBucket> cellBuckets : bucketsByCell.values()) {
+            clusters.add(toClusterDto(cellBuckets));
+        }
         
-        return plotPage.map(plotMapper::toDto);
+        log.debug("Built {} clusters from {} buckets", clusters.size(), buckets.size());
+        return clusters;
+    }
+
+    /**
+     * Served from the in-memory price grid when it is loaded, otherwise aggregated by the database
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<PlotGridCellDto> getPriceGrid(Double minLat, Double maxLat, Double minLng, Double maxLng, double cellSizeMeters) {
+        PlotProperties.Stats settings = plotProperties.getStats();
+        int precision = Geohash.precisionFor(cellSizeMeters, Math.max(1, Math.min(settings.getMaxPrecision(), Geohash.MAX_PRECISION)));
+        Geohash.Cell low = Geohash.cellOf(minLat, minLng, precision);
+        Geohash.Cell high = Geohash.cellOf(maxLat, maxLng, precision);
+        // Coarsen until the box is covered by at most maxCells cells
+        while (precision > 1 && (high.column() - low.column() + 1) * (high.row() - low.row() + 1) > settings.getMaxCells()) {
+            precision--;
+            low = low.parent(precision);
+            high = high.parent(precision);
+        }
+        log.debug("Building price grid within bounds: minLat={}, maxLat={}, minLng={}, maxLng={}, precision={}",
+                minLat, maxLat, minLng, maxLng, precision);
+        
+        if (plotPriceGrid.isReady()) {
+            return plotPriceGrid.query(minLat, maxLat, minLng, maxLng, precision);
+        }
+        
+        // Widen the box to whole cells, as the grid returns them; the far edges belong to the next cells
+        double width = Geohash.cellWidth(precision);
+        double height = Geohash.cellHeight(precision);
+        List<PlotRepository.GridCellBucket> buckets = plotRepository.findGridCells(
+                -90.0 + low.row() * height, -180.0 + low.column() * width,
+                -90.0 + (high.row() + 1) * height - 1e-9, -180.0 + (high.column() + 1) * width - 1e-9, precision);
+        
+        List<PlotGridCellDto> cells = new ArrayList<>(buckets.size());
+        for (PlotRepository.GridCellBucket bucket : buckets) {
+            Geohash.Cell cell = Geohash.decode(bucket.getGeohash());
+            cells.add(PlotGridCellDto.builder()
+                    .geohash(bucket.getGeohash())
+                    .latitude(cell.centerLatitude())
+                    .longitude(cell.centerLongitude())
+                    .count(bucket.getPlotCount())
+                    .forSaleRatio((double) bucket.getForSaleCount() / bucket.getPlotCount())
+                    .p10PricePerSqm(toPrice(bucket.getP10()))
+                    .p25PricePerSqm(toPrice(bucket.getP25()))
+                    .medianPricePerSqm(toPrice(bucket.getP50()))
+                    .p75PricePerSqm(toPrice(bucket.getP75()))
+                    .p90PricePerSqm(toPrice(bucket.getP90()))
+                    .build());
+        }
+        cells.sort(Comparator.comparing(PlotGridCellDto::getGeohash));
+        return cells;
+    }
+
+    private static BigDecimal toPrice(Double value) {
+        return value != null ? BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP) : null;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PlotDto getNearestPlot(Double latitude, Double longitude, Double radius) {
-        log.debug("Finding nearest plot to lat={}, lng={} within radius={} meters", 
-                latitude, longitude, radius);
+    public byte[] getPlotTile(int zoom, int x, int y) {
+        long tilesPerAxis = 1L << Math.min(zoom, 62);
+        if (zoom < 0 || zoom > plotProperties.getTiles().getMaxZoom()
+                || x < 0 || x >= tilesPerAxis || y < 0 || y >= tilesPerAxis) {
+            throw new InvalidCoordinateException(String.format("Invalid tile coordinates: z=%d, x=%d, y=%d", zoom, x, y));
+        }
+        
+        log.debug("Rendering plot tile z={}, x={}, y={}", zoom, x, y);
+        return plotRepository.findTileAsMvt(zoom, x, y);
+    }
+
+    /**
+     * Merge the per price unit buckets of one grid cell into a single cluster
+     * The centroid is the count-weighted average of the bucket centroids
+     */
+    private PlotClusterDto toClusterDto(List<PlotRepository.ClusterBucket> cellBuckets) {
+        long total = 0;
+        double latSum = 0;
+        double lngSum = 0;
+        List<PlotClusterDto.PriceStats> prices = new ArrayList<>(cellBuckets.size());
         
-        return plotRepository.findNearestPlot(latitude, longitude, radius)
-                .map(plotMapper::toDto)
-                .orElse(null);
+        for (PlotRepository.ClusterBucket bucket : cellBuckets) {
+            long count = bucket.getPlotCount();
+            total += count;
+            latSum += bucket.getCentroidLat() * count;
+            lngSum += bucket.getCentroidLng() * count;
+            prices.add(PlotClusterDto.PriceStats.builder()
+                    .priceUnit(bucket.getPriceUnit())
+                    .count(count)
+                    .minPrice(bucket.getMinPrice())
+                    .medianPrice(bucket.getMedianPrice() != null ? BigDecimal.valueOf(bucket.getMedianPrice()) : null)
+                    .maxPrice(bucket.getMaxPrice())
+                    .build());
+        }
+        
+        return PlotClusterDto.builder()
+                .latitude(latSum / total)
+                .longitude(lngSum / total)
+                .count(total)
+                .prices(prices)
+                .build();
+    }
+
+    /**
+     * Check a bulk plot against the same rules as a single create
+     *
+     * @return Rejection reason, or null if the plot is valid
+     */
+    private String validateForBulk(PlotDto plotDto) {
+        if (plotDto == null) {
+            return "Plot is empty";
+        }
+        Set<ConstraintViolation<PlotDto>> violations = validator.validate(plotDto);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!AppConstants.PRICE_UNITS.contains(plotDto.getPriceUnit())) {
+            return "Price unit must be one of " + AppConstants.PRICE_UNITS;
+        }
+        try {
+            GeometryUtil.validateCoordinates(plotDto.getLatitude(), plotDto.getLongitude());
+        } catch (InvalidCoordinateException e) {
+            return e.getMessage();
+        }
+        return null;
+    }
+
+    private static BulkPlotResponse.Rejection rejection(int index, String reason) {
+        return BulkPlotResponse.Rejection.builder()
+                .index(index)
+                .reason(reason)
+                .build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,236 @@
+package com.company.project.spatial;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import com.company.project.config.GeocodingProperties;
+import com.company.project.util.GeometryUtil;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory gazetteer of Indian localities, used to geocode without calling Nominatim
+ *
+ * Loaded once from a CSV file of name, state, latitude, longitude and optional aliases:
+ * - Names and aliases are indexed by their normalized form; a query matches the locality named by
+ *   its longest leading run of words, provided the remaining words only name other localities, states
+ *   or the country, and any state named in them breaks ties
+ * - Coordinates are bucketed into a fixed grid; reverse lookups scan only the cells around the point
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocalityGazetteer {
+
+    private static final double CELL_SIZE_DEGREES = 0.1;
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_320.0;
+    private static final int MAX_NAME_WORDS = 4;
+    private static final String COUNTRY = "india";
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final GeocodingProperties geocodingProperties;
+
+    private volatile Index index = new Index(Map.of(), Set.of(), Map.of(), 0);
+
+    /**
+     * A named place with its center coordinates
+     */
+    public record Locality(String name, String state, double latitude, double longitude) {
+    }
+
+    /**
+     * Immutable lookup structures, replaced as a whole on load
+     */
+    private record Index(Map<String, List<Locality>> names, Set<String> states, Map<Long, List<Locality>> grid, int size) {
+    }
+
+    @PostConstruct
+    void init() {
+        String location = geocodingProperties.getGazetteer().getLocation();
+        if (location == null || location.isBlank()) {
+            log.info("Locality gazetteer is disabled");
+            return;
+        }
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        try {
+            load(resource);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load locality gazetteer from {}, geocoding will use Nominatim only: {}",
+                    location, e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the gazetteer contents with the localities in a CSV resource
+     * Blank lines and lines starting with # are ignored
+     */
+    public void load(Resource resource) throws IOException {
+        Map<String, List<Locality>> names = new HashMap<>();
+        Set<String> states = new HashSet<>();
+        Map<Long, List<Locality>> grid = new HashMap<>();
+        int size = 0;
+        int skipped = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                Locality locality;
+                try {
+                    locality = new Locality(fields[0].trim(), fields[1].trim(),
+                            Double.parseDouble(fields[2].trim()), Double.parseDouble(fields[3].trim()));
+                } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+                    skipped++;
+                    continue;
+                }
+                names.computeIfAbsent(key(locality.name()), k -> new ArrayList<>(1)).add(locality);
+                states.add(key(locality.state()));
+                if (fields.length > 4 && !fields[4].isBlank()) {
+                    for (String alias : fields[4].split("\\|")) {
+                        names.computeIfAbsent(key(alias), k -> new ArrayList<>(1)).add(locality);
+                    }
+                }
+                grid.computeIfAbsent(cell(row(locality.latitude()), column(locality.longitude())), k -> new ArrayList<>())
+                        .add(locality);
+                size++;
+            }
+        }
+
+        index = new Index(Map.copyOf(names), Set.copyOf(states), Map.copyOf(grid), size);
+        log.info("Loaded {} localities into gazetteer ({} lines skipped)", size, skipped);
+    }
+
+    /**
+     * Number of localities loaded
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Find the locality a free-form query refers to, e.g. "Whitefield, Bangalore" or "Kakkanad Kochi Kerala"
+     * Queries naming something within a locality, such as "Kochi Airport" or "Whitefield Main Road",
+     * are not answered, since the locality center would be too coarse for them.
+     *
+     * @return The locality named by the longest leading words of the query, or empty if none matches
+     *         or the remaining words are not all place names
+     */
+    public Optional<Locality> findByName(String query) {
+        Index current = index;
+        String normalized = key(query);
+        if (normalized.isEmpty()) {
+            return Optional.empty();
+        }
+        String[] words = normalized.split(" ");
+        for (int n = Math.min(words.length, MAX_NAME_WORDS); n > 0; n--) {
+            List<Locality> candidates = current.names().get(String.join(" ", Arrays.copyOfRange(words, 0, n)));
+            if (candidates != null) {
+                if (!namesPlaces(current, words, n)) {
+                    return Optional.empty();
+                }
+                String rest = " " + String.join(" ", Arrays.copyOfRange(words, n, words.length)) + " ";
+                return candidates.stream()
+                        .filter(locality -> rest.contains(" " + key(locality.state()) + " "))
+                        .findFirst()
+                        .or(() -> Optional.of(candidates.get(0)));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Find the locality nearest to a point
+     *
+     * @param maxDistance Maximum distance in meters
+     * @return The nearest locality within maxDistance, or empty if none
+     */
+    public Optional<Locality> findNearest(double latitude, double longitude, double maxDistance) {
+        Index current = index;
+        int latCells = (int) Math.ceil(maxDistance / METERS_PER_DEGREE_LATITUDE / CELL_SIZE_DEGREES);
+        double cosLat = Math.max(Math.cos(Math.toRadians(latitude)), 1e-6);
+        int lngCells = (int) Math.min(Math.ceil(latCells / cosLat), 360 / CELL_SIZE_DEGREES);
+        int row = row(latitude);
+        int column = column(longitude);
+
+        Locality nearest = null;
+        double nearestDistance = maxDistance;
+        for (int r = row - latCells; r <= row + latCells; r++) {
+            for (int c = column - lngCells; c <= column + lngCells; c++) {
+                List<Locality> localities = current.grid().get(cell(r, c));
+                if (localities == null) {
+                    continue;
+                }
+                for (Locality locality : localities) {
+                    double distance = GeometryUtil.calculateDistance(
+                            latitude, longitude, locality.latitude(), locality.longitude());
+                    if (distance <= nearestDistance) {
+                        nearest = locality;
+                        nearestDistance = distance;
+                    }
+                }
+            }
+        }
+        return Optional.ofNullable(nearest);
+    }
+
+    /**
+     * Whether the words from a position on consist only of locality, state and country names
+     */
+    private static boolean namesPlaces(Index current, String[] words, int from) {
+        int start = from;
+        while (start < words.length) {
+            int end = Math.min(words.length, start + MAX_NAME_WORDS);
+            while (end > start) {
+                String name = String.join(" ", Arrays.copyOfRange(words, start, end));
+                if (name.equals(COUNTRY) || current.states().contains(name) || current.names().containsKey(name)) {
+                    break;
+                }
+                end--;
+            }
+            if (end == start) {
+                return false;
+            }
+            start = end;
+        }
+        return true;
+    }
+
+    private static String key(String name) {
+        String normalized = Normalizer.normalize(name, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return NON_ALPHANUMERIC.matcher(normalized).replaceAll(" ").trim();
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor(latitude / CELL_SIZE_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor(longitude / CELL_SIZE_DEGREES);
+    }
+
+    private static long cell(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
@@ -0,0 +1,333 @@
+package com.company.project.spatial;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotGridCellDto;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.event.PlotsCreatedEvent;
+import com.company.project.event.PlotsReloadedEvent;
+import com.company.project.repository.PlotRepository;
+import com.company.project.util.Geohash;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory price statistics per geohash cell, kept current by plot change events
+ *
+ * Every plot is counted in its cell at each precision up to the configured maximum, so a request
+ * only reads the cells it returns. Prices per square meter are counted in logarithmic buckets whose
+ * width gives the configured relative accuracy; unlike a sorted sample, bucket counts can be
+ * decremented, so updates and deletes are applied in place. Percentiles are read from the buckets.
+ *
+ * The grid remembers each plot's contribution, so a change removes exactly what the plot added.
+ * It is loaded at startup; until then callers compute the statistics in the database.
+ *
+ * Changes and reloads are serialized on the grid's monitor. A change is applied in place under the
+ * write lock, which queries only share as readers; a reload builds a new grid without either lock
+ * and swaps it in, so queries keep reading the previous grid while the database is read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlotPriceGrid {
+
+    private static final double[] PERCENTILES = {0.10, 0.25, 0.50, 0.75, 0.90};
+
+    // Bucket of zero prices, which have no logarithm; sorts before every other bucket
+    private static final int ZERO_BUCKET = Integer.MIN_VALUE;
+
+    private final PlotRepository plotRepository;
+    private final PlotProperties plotProperties;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile Grid grid = new Grid(1, 0.01);
+    private volatile boolean ready = false;
+
+    /**
+     * What one plot added to the grid
+     *
+     * @param cell Cell of the plot at the maximum precision
+     * @param bucket Price bucket, or null if the plot has no normalized price
+     */
+    private record Contribution(Geohash.Cell cell, boolean forSale, Integer bucket) {
+    }
+
+    /**
+     * Contributions and cell counts at one precision and accuracy
+     * Mutated only under the write lock once published
+     */
+    private static final class Grid {
+        private final Map<Long, Contribution> contributions = new HashMap<>();
+        private final Map<Geohash.Cell, CellStats> cells = new HashMap<>();
+        private final int maxPrecision;
+        private final double logGamma;
+
+        private Grid(int maxPrecision, double relativeAccuracy) {
+            this.maxPrecision = maxPrecision;
+            this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+        }
+
+        private void add(Long id, Double latitude, Double longitude, BigDecimal pricePerSqm, boolean forSale) {
+            if (latitude == null || longitude == null) {
+                return;
+            }
+            Contribution contribution = new Contribution(Geohash.cellOf(latitude, longitude, maxPrecision),
+                    forSale, bucketOf(pricePerSqm));
+            contributions.put(id, contribution);
+            apply(contribution, 1);
+        }
+
+        private void remove(Long id) {
+            Contribution contribution = contributions.remove(id);
+            if (contribution != null) {
+                apply(contribution, -1);
+            }
+        }
+
+        private void apply(Contribution contribution, int delta) {
+            for (int precision = 1; precision <= maxPrecision; precision++) {
+                Geohash.Cell cell = contribution.cell().parent(precision);
+                CellStats stats = delta > 0 ? cells.computeIfAbsent(cell, key -> new CellStats()) : cells.get(cell);
+                if (stats == null) {
+                    continue;
+                }
+                stats.count += delta;
+                if (contribution.forSale()) {
+                    stats.forSale += delta;
+                }
+                if (contribution.bucket() != null) {
+                    stats.priced += delta;
+                    stats.buckets.merge(contribution.bucket(), (long) delta, (a, b) -> a + b == 0 ? null : a + b);
+                }
+                if (stats.count == 0) {
+                    cells.remove(cell);
+                }
+            }
+        }
+
+        private Integer bucketOf(BigDecimal pricePerSqm) {
+            if (pricePerSqm == null) {
+                return null;
+            }
+            if (pricePerSqm.signum() <= 0) {
+                return ZERO_BUCKET;
+            }
+            return (int) Math.ceil(Math.log(pricePerSqm.doubleValue()) / logGamma);
+        }
+
+        /**
+         * Representative price of a bucket, within the relative accuracy of every price in it
+         */
+        private double valueOf(int bucket) {
+            if (bucket == ZERO_BUCKET) {
+                return 0;
+            }
+            double gamma = Math.exp(logGamma);
+            return 2 * Math.exp(bucket * logGamma) / (gamma + 1);
+        }
+    }
+
+    /**
+     * Counts of the plots in one cell
+     */
+    private static final class CellStats {
+        private long count;
+        private long forSale;
+        private long priced;
+        private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+    }
+
+    /**
+     * Load the grid once the application has started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!plotProperties.getStats().isEnabled()) {
+            log.info("Plot price grid is disabled");
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Failed to load plot price grid, statistics will use the database: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuild the grid from the database
+     */
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        PlotProperties.Stats settings = plotProperties.getStats();
+        Grid loaded = new Grid(Math.max(1, Math.min(settings.getMaxPrecision(), Geohash.MAX_PRECISION)),
+                settings.getRelativeAccuracy());
+
+        for (PlotRepository.PriceGridEntry entry : plotRepository.findPriceGridEntries()) {
+            loaded.add(entry.getId(), entry.getLatitude(), entry.getLongitude(), entry.getPricePerSqm(),
+                    Boolean.TRUE.equals(entry.getIsForSale()));
+        }
+        // The previous grid is no longer changed, so queries still reading it need not be waited for
+        grid = loaded;
+        ready = true;
+        log.info("Loaded {} plots into price grid ({} cells) in {} ms",
+                loaded.contributions.size(), loaded.cells.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Apply a committed plot change to the grid
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPlotChanged(PlotChangedEvent event) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            grid.remove(event.getPlotId());
+            if (event.getType() != PlotChangedEvent.ChangeType.DELETED) {
+                PlotDto plot = event.getPlot();
+                grid.add(plot.getId(), plot.getLatitude(), plot.getLongitude(), plot.getPricePerSqm(),
+                        Boolean.TRUE.equals(plot.getIsForSale()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add plots created together to the grid
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPlotsCreated(PlotsCreatedEvent event) {
+        if (!ready) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (PlotDto plot : event.getPlots()) {
+                grid.remove(plot.getId());
+                grid.add(plot.getId(), plot.getLatitude(), plot.getLongitude(), plot.getPricePerSqm(),
+                        Boolean.TRUE.equals(plot.getIsForSale()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the grid after plots were written without change events, here or on another instance
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlotsReloaded(PlotsReloadedEvent event) {
+        if (!ready) {
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Failed to reload plot price grid: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether the grid has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Finest precision the grid maintains
+     */
+    public int getMaxPrecision() {
+        return grid.maxPrecision;
+    }
+
+    /**
+     * Statistics of the non-empty cells overlapping a bounding box
+     * Cells are returned whole, including plots outside the box, so they do not change while panning.
+     *
+     * @param precision Geohash precision, at most {@link #getMaxPrecision()}
+     * @return Cells ordered by geohash
+     */
+    public List<PlotGridCellDto> query(double minLat, double maxLat, double minLng, double maxLng, int precision) {
+        Geohash.Cell low = Geohash.cellOf(minLat, minLng, precision);
+        Geohash.Cell high = Geohash.cellOf(maxLat, maxLng, precision);
+        long cellCount = (high.column() - low.column() + 1) * (high.row() - low.row() + 1);
+
+        List<PlotGridCellDto> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Grid current = grid;
+            if (cellCount <= current.cells.size()) {
+                for (long row = low.row(); row <= high.row(); row++) {
+                    for (long column = low.column(); column <= high.column(); column++) {
+                        Geohash.Cell cell = new Geohash.Cell(column, row, precision);
+                        CellStats stats = current.cells.get(cell);
+                        if (stats != null) {
+                            result.add(toDto(current, cell, stats));
+                        }
+                    }
+                }
+            } else {
+                // Fewer occupied cells than cells in the box: walk the occupied ones instead
+                current.cells.forEach((cell, stats) -> {
+                    if (cell.precision() == precision
+                            && cell.column() >= low.column() && cell.column() <= high.column()
+                            && cell.row() >= low.row() && cell.row() <= high.row()) {
+                        result.add(toDto(current, cell, stats));
+                    }
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparing(PlotGridCellDto::getGeohash));
+        return result;
+    }
+
+    private static PlotGridCellDto toDto(Grid grid, Geohash.Cell cell, CellStats stats) {
+        BigDecimal[] percentiles = new BigDecimal[PERCENTILES.length];
+        if (stats.priced > 0) {
+            int next = 0;
+            long seen = 0;
+            for (Map.Entry<Integer, Long> bucket : stats.buckets.entrySet()) {
+                seen += bucket.getValue();
+                // Nearest-rank percentiles over the bucket counts, lowest first
+                while (next < PERCENTILES.length && seen > (long) Math.floor(PERCENTILES[next] * (stats.priced - 1))) {
+                    percentiles[next++] = BigDecimal.valueOf(grid.valueOf(bucket.getKey())).setScale(2, RoundingMode.HALF_UP);
+                }
+            }
+        }
+        return PlotGridCellDto.builder()
+                .geohash(cell.hash())
+                .latitude(cell.centerLatitude())
+                .longitude(cell.centerLongitude())
+                .count(stats.count)
+                .forSaleRatio((double) stats.forSale / stats.count)
+                .p10PricePerSqm(percentiles[0])
+                .p25PricePerSqm(percentiles[1])
+                .medianPricePerSqm(percentiles[2])
+                .p75PricePerSqm(percentiles[3])
+                .p90PricePerSqm(percentiles[4])
+                .build();
+    }
+}
@@ -0,0 +1,380 @@
+package com.company.project.spatial;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotMapper;
+import com.company.project.dto.PlotWatermark;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.event.PlotsCreatedEvent;
+import com.company.project.event.PlotsReloadedEvent;
+import com.company.project.repository.PlotRepository;
+import com.company.project.util.GeometryUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory spatial replica of all plots, used to answer read queries without a database round trip.
+ *
+ * The JTS STRtree is immutable once built, so changes are applied copy-on-write:
+ * - New and updated plots go into a small pending map that is scanned linearly
+ * - Tree entries that were updated or deleted are skipped by checking them against the live map
+ * - Once pending and stale entries reach the rebuild threshold, the tree is rebuilt from the live map
+ *
+ * A reload builds a new live map and tree off to the side and swaps them in together, so reads
+ * during a reload see the previous contents in full. Reads are lock-free; writes and rebuilds are serialized.
+ * A reload only takes the index's monitor to swap, so writes are not held up by the load; changes that
+ * arrive while it loads are recorded and replayed onto the new contents before they are swapped in.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlotSpatialIndex {
+
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_320.0;
+
+    private final PlotRepository plotRepository;
+    private final PlotMapper plotMapper;
+    private final PlotProperties plotProperties;
+    private final PlatformTransactionManager transactionManager;
+
+    private volatile Snapshot snapshot = new Snapshot(buildTree(List.of()), Map.of(), new ConcurrentHashMap<>());
+    private volatile boolean ready = false;
+
+    // Tree entries superseded by an update or delete since the last rebuild (guarded by this)
+    private int staleEntries = 0;
+
+    // Changes applied while a reload is loading, to replay onto its result (guarded by this);
+    // null when no reload is running
+    private List<PlotChangedEvent> changesDuringReload;
+
+    // Serializes reloads with each other, but not with writes
+    private final Object reloadLock = new Object();
+
+    /**
+     * View of the index: the packed tree plus plots changed since it was built
+     * Tree and pending are immutable; plots is the live map of every plot, keyed by ID, which
+     * changes are applied to in place until a reload replaces it
+     */
+    private record Snapshot(STRtree tree, Map<Long, PlotDto> pending, Map<Long, PlotDto> plots) {
+    }
+
+    /**
+     * Load all plots once the application has started
+     * If loading fails the index stays unready and callers fall back to the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!plotProperties.getIndex().isEnabled()) {
+            log.info("Plot spatial index is disabled");
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Failed to load plot spatial index, reads will use the database: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Replace the index contents with the current database state
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            long start = System.currentTimeMillis();
+            synchronized (this) {
+                changesDuringReload = new ArrayList<>();
+            }
+            try {
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                transactionTemplate.setReadOnly(true);
+                List<PlotDto> loaded = transactionTemplate.execute(status -> plotMapper.toDtoList(plotRepository.findAll()));
+
+                Map<Long, PlotDto> plots = new ConcurrentHashMap<>();
+                if (loaded != null) {
+                    loaded.forEach(plot -> plots.put(plot.getId(), plot));
+                }
+                STRtree tree = buildTree(plots.values());
+                synchronized (this) {
+                    install(tree, plots, changesDuringReload);
+                }
+                log.info("Loaded {} plots into spatial index in {} ms", plots.size(), System.currentTimeMillis() - start);
+            } finally {
+                synchronized (this) {
+                    changesDuringReload = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Swap in reloaded contents, with the changes that arrived while they were loading applied on top
+     * A change may already be part of the loaded contents, so updates older than the loaded plot are
+     * skipped, and plots deleted during the reload are not brought back by a late update.
+     */
+    private void install(STRtree tree, Map<Long, PlotDto> plots, List<PlotChangedEvent> changes) {
+        Map<Long, PlotDto> pending = new HashMap<>();
+        Set<Long> deleted = new HashSet<>();
+        int stale = 0;
+        for (PlotChangedEvent change : changes) {
+            Long id = change.getPlotId();
+            boolean wasInTree = plots.containsKey(id) && !pending.containsKey(id);
+            if (change.getType() == PlotChangedEvent.ChangeType.DELETED) {
+                deleted.add(id);
+                pending.remove(id);
+                plots.remove(id);
+            } else {
+                PlotDto plot = change.getPlot();
+                PlotDto current = plots.get(id);
+                if (deleted.contains(id) || (current != null && current.getUpdatedAt() != null
+                        && plot.getUpdatedAt() != null && plot.getUpdatedAt().isBefore(current.getUpdatedAt()))) {
+                    continue;
+                }
+                pending.put(id, plot);
+                plots.put(id, plot);
+            }
+            if (wasInTree) {
+                stale++;
+            }
+        }
+        snapshot = new Snapshot(tree, Map.copyOf(pending), plots);
+        staleEntries = stale;
+        ready = true;
+        rebuildIfNeeded();
+    }
+
+    /**
+     * Apply a committed plot change to the index
+     * Ordered first so that caches filled from the index are invalidated after it has the change
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPlotChanged(PlotChangedEvent event) {
+        if (changesDuringReload != null) {
+            changesDuringReload.add(event);
+        }
+        if (!ready) {
+            return;
+        }
+        Long id = event.getPlotId();
+        Map<Long, PlotDto> plots = snapshot.plots();
+        Map<Long, PlotDto> pending = new HashMap<>(snapshot.pending());
+        boolean wasInTree = plots.containsKey(id) && !pending.containsKey(id);
+
+        if (event.getType() == PlotChangedEvent.ChangeType.DELETED) {
+            pending.remove(id);
+            snapshot = new Snapshot(snapshot.tree(), Map.copyOf(pending), plots);
+            plots.remove(id);
+        } else {
+            pending.put(id, event.getPlot());
+            snapshot = new Snapshot(snapshot.tree(), Map.copyOf(pending), plots);
+            plots.put(id, event.getPlot());
+        }
+        if (wasInTree) {
+            staleEntries++;
+        }
+        rebuildIfNeeded();
+    }
+
+    /**
+     * Apply plots created together in one step, so the tree is rebuilt at most once for the batch
+     * Ordered first for the same reason as {@link #onPlotChanged}
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPlotsCreated(PlotsCreatedEvent event) {
+        if (changesDuringReload != null) {
+            event.getPlots().forEach(plot -> changesDuringReload.add(PlotChangedEvent.created(plot)));
+        }
+        if (!ready) {
+            return;
+        }
+        Map<Long, PlotDto> plots = snapshot.plots();
+        Map<Long, PlotDto> pending = new HashMap<>(snapshot.pending());
+        for (PlotDto plot : event.getPlots()) {
+            if (plots.containsKey(plot.getId()) && !pending.containsKey(plot.getId())) {
+                staleEntries++;
+            }
+            pending.put(plot.getId(), plot);
+        }
+        snapshot = new Snapshot(snapshot.tree(), Map.copyOf(pending), plots);
+        for (PlotDto plot : event.getPlots()) {
+            plots.put(plot.getId(), plot);
+        }
+        rebuildIfNeeded();
+    }
+
+    /**
+     * Reload the index after plots were written without change events, here or on another instance
+     * Ordered first for the same reason as {@link #onPlotChanged}
+     */
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlotsReloaded(PlotsReloadedEvent event) {
+        if (!ready) {
+            return;
+        }
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.error("Failed to reload plot spatial index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Whether the index has been loaded and can answer queries
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of plots currently held by the index
+     */
+    public int size() {
+        return snapshot.plots().size();
+    }
+
+    /**
+     * Find all plots within a bounding box
+     *
+     * @return Plots ordered by ID
+     */
+    public List<PlotDto> findInBounds(double minLat, double maxLat, double minLng, double maxLng) {
+        Envelope envelope = new Envelope(minLng, maxLng, minLat, maxLat);
+        List<PlotDto> result = query(envelope);
+        result.sort(Comparator.comparing(PlotDto::getId));
+        return result;
+    }
+
+    /**
+     * Find all plots within a radius of a point
+     *
+     * @param radius Radius in meters
+     * @return Plots ordered by distance, nearest first
+     */
+    public List<PlotDto> findWithinRadius(double latitude, double longitude, double radius) {
+        double latDelta = radius / METERS_PER_DEGREE_LATITUDE;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double lngDelta = cosLat > 1e-6 ? Math.min(180.0, latDelta / cosLat) : 180.0;
+        Envelope envelope = new Envelope(longitude - lngDelta, longitude + lngDelta, latitude - latDelta, latitude + latDelta);
+
+        List<PlotDto> result = new ArrayList<>();
+        for (PlotDto plot : query(envelope)) {
+            if (distance(latitude, longitude, plot) <= radius) {
+                result.add(plot);
+            }
+        }
+        result.sort(Comparator.comparingDouble(plot -> distance(latitude, longitude, plot)));
+        return result;
+    }
+
+    /**
+     * Find the nearest plots to a point within a radius
+     * Plots with approximate locations are left out, as in the database lookup
+     *
+     * @param radius Radius in meters
+     * @param limit Maximum number of plots to return
+     * @return Up to limit plots ordered by distance, nearest first
+     */
+    public List<PlotDto> findNearest(double latitude, double longitude, double radius, int limit) {
+        List<PlotDto> nearest = new ArrayList<>(limit);
+        for (PlotDto plot : findWithinRadius(latitude, longitude, radius)) {
+            if (nearest.size() == limit) {
+                break;
+            }
+            if (!Boolean.TRUE.equals(plot.getLocationApproximate())) {
+                nearest.add(plot);
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Summarize the plots within a bounding box, to check whether the index has caught up with the
+     * database state a response is validated against
+     * The index keeps no tombstones, so the last deletion ID is always null.
+     */
+    public PlotWatermark watermarkInBounds(double minLat, double maxLat, double minLng, double maxLng) {
+        return summarize(query(new Envelope(minLng, maxLng, minLat, maxLat)));
+    }
+
+    private static PlotWatermark summarize(Collection<PlotDto> items) {
+        long count = 0;
+        LocalDateTime lastModified = null;
+        for (PlotDto plot : items) {
+            count++;
+            if (plot.getUpdatedAt() != null && (lastModified == null || plot.getUpdatedAt().isAfter(lastModified))) {
+                lastModified = plot.getUpdatedAt();
+            }
+        }
+        return new PlotWatermark(count, lastModified, null);
+    }
+
+    private List<PlotDto> query(Envelope envelope) {
+        Snapshot current = snapshot;
+        List<PlotDto> result = new ArrayList<>();
+
+        for (Object item : current.tree().query(envelope)) {
+            PlotDto plot = (PlotDto) item;
+            // Skip entries superseded by a pending change or removed since the last rebuild
+            if (!current.pending().containsKey(plot.getId()) && current.plots().get(plot.getId()) == plot) {
+                result.add(plot);
+            }
+        }
+        for (PlotDto plot : current.pending().values()) {
+            if (envelope.contains(plot.getLongitude(), plot.getLatitude())) {
+                result.add(plot);
+            }
+        }
+        return result;
+    }
+
+    private void rebuildIfNeeded() {
+        if (snapshot.pending().size() + staleEntries >= plotProperties.getIndex().getRebuildThreshold()) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        Map<Long, PlotDto> plots = snapshot.plots();
+        snapshot = new Snapshot(buildTree(plots.values()), Map.of(), plots);
+        staleEntries = 0;
+    }
+
+    private static STRtree buildTree(Collection<PlotDto> items) {
+        STRtree tree = new STRtree();
+        for (PlotDto plot : items) {
+            tree.insert(new Envelope(new Coordinate(plot.getLongitude(), plot.getLatitude())), plot);
+        }
+        // Building eagerly keeps the first query off the lazy build path
+        tree.build();
+        return tree;
+    }
+
+    private static double distance(double latitude, double longitude, PlotDto plot) {
+        return GeometryUtil.calculateDistance(latitude, longitude, plot.getLatitude(), plot.getLongitude());
+    }
+}
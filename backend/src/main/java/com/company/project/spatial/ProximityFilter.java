@@ -0,0 +1,47 @@
+package com.company.project.spatial;
+
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.quadtree.Quadtree;
+
+import com.company.project.util.GeometryUtil;
+
+/**
+ * Incremental set of points that only accepts a point if no accepted point lies within a minimum distance.
+ * Used to find duplicate locations inside a batch before it reaches the database.
+ *
+ * Not thread-safe.
+ */
+public class ProximityFilter {
+
+    private static final double METERS_PER_DEGREE_LATITUDE = 111_320.0;
+
+    private final double distanceInMeters;
+    private final Quadtree accepted = new Quadtree();
+
+    public ProximityFilter(double distanceInMeters) {
+        this.distanceInMeters = distanceInMeters;
+    }
+
+    /**
+     * Accept a point unless an accepted point lies within the minimum distance
+     *
+     * @return True if the point was accepted
+     */
+    public boolean tryAdd(double latitude, double longitude) {
+        double latDelta = distanceInMeters / METERS_PER_DEGREE_LATITUDE;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double lngDelta = cosLat > 1e-6 ? Math.min(180.0, latDelta / cosLat) : 180.0;
+        Envelope search = new Envelope(longitude - lngDelta, longitude + lngDelta, latitude - latDelta, latitude + latDelta);
+
+        for (Object item : accepted.query(search)) {
+            Coordinate other = (Coordinate) item;
+            // Quadtree queries may return items outside the envelope, so the distance check is authoritative
+            if (GeometryUtil.calculateDistance(latitude, longitude, other.y, other.x) <= distanceInMeters) {
+                return false;
+            }
+        }
+        accepted.insert(new Envelope(longitude, longitude, latitude, latitude), new Coordinate(longitude, latitude));
+        return true;
+    }
+}
@@ -0,0 +1,376 @@
+package com.company.project.stream;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotMapper;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.event.PlotsCreatedEvent;
+import com.company.project.event.PlotsReloadedEvent;
+import com.company.project.repository.PlotRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Relays plot changes between instances through PostgreSQL LISTEN/NOTIFY
+ *
+ * Each change is announced with pg_notify inside the writing transaction, so PostgreSQL delivers it
+ * only if the transaction commits. The changes of one transaction are collected and sent in a single
+ * statement just before commit, so a bulk write costs one round trip rather than one per plot.
+ * Every instance listens on the channel and republishes the changes of the others as remote
+ * PlotChangedEvents, or one PlotsCreatedEvent for plots created together, which keeps their spatial
+ * index, price grid, plot cache and stream subscribers current. Notifications carry IDs and
+ * locations only; the plot itself is re-read.
+ * Writes that bypass the change events, such as imports, announce a reload instead, which the other
+ * instances republish as a remote PlotsReloadedEvent.
+ *
+ * The listener holds one pooled connection for as long as the application runs. Notifications sent
+ * while it is reconnecting are lost, so after a reconnect a reload is published locally as well.
+ */
+@Slf4j
+@Component
+public class PlotChangeRelay {
+
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final int POLL_MILLIS = 5000;
+    private static final long RETRY_MILLIS = 5000;
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, payload) FROM unnest(CAST(? AS text[])) AS payload";
+
+    private final PlotProperties plotProperties;
+    private final ObjectProvider<DataSource> dataSourceProvider;
+    private final PlotRepository plotRepository;
+    private final PlotMapper plotMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Identifies this instance's own notifications, which it has already applied
+    private final String origin = UUID.randomUUID().toString();
+
+    // Key of the current transaction's pending notifications
+    private final Object batchKey = new Object();
+
+    private volatile boolean running;
+    private Thread listener;
+
+    /**
+     * Notification payload; kept small, PostgreSQL limits payloads to 8000 bytes
+     *
+     * @param reload Whether all plots must be reloaded; a reload carries no change
+     */
+    record Notification(String origin, boolean reload, PlotChangedEvent.ChangeType type, Long id,
+            Double latitude, Double longitude, Double previousLatitude, Double previousLongitude) {
+    }
+
+    public PlotChangeRelay(PlotProperties plotProperties,
+                           ObjectProvider<DataSource> dataSourceProvider,
+                           PlotRepository plotRepository,
+                           PlotMapper plotMapper,
+                           ApplicationEventPublisher eventPublisher,
+                           ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager) {
+        this.plotProperties = plotProperties;
+        this.dataSourceProvider = dataSourceProvider;
+        this.plotRepository = plotRepository;
+        this.plotMapper = plotMapper;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Start listening once the application is ready, if changes are relayed through PostgreSQL
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        String channel = channel();
+        running = true;
+        listener = new Thread(() -> listen(channel), "plot-change-relay");
+        listener.setDaemon(true);
+        listener.start();
+        log.info("Plot changes are relayed through PostgreSQL channel {}", channel);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * Announce a local change to the other instances, as part of the writing transaction
+     * Inside a transaction the notification is queued and sent with the others just before commit.
+     */
+    @EventListener
+    public void onPlotChanged(PlotChangedEvent event) {
+        if (!isEnabled() || event.isRemote()) {
+            return;
+        }
+        PlotDto plot = event.getPlot();
+        announce(encode(new Notification(origin, false, event.getType(), plot.getId(),
+                plot.getLatitude(), plot.getLongitude(), event.getPreviousLatitude(), event.getPreviousLongitude())));
+    }
+
+    /**
+     * Announce plots created together, one notification each, sent in the same statement
+     */
+    @EventListener
+    public void onPlotsCreated(PlotsCreatedEvent event) {
+        if (!isEnabled() || event.isRemote()) {
+            return;
+        }
+        for (PlotDto plot : event.getPlots()) {
+            announce(encode(new Notification(origin, false, PlotChangedEvent.ChangeType.CREATED, plot.getId(),
+                    plot.getLatitude(), plot.getLongitude(), null, null)));
+        }
+    }
+
+    /**
+     * Ask the other instances to reload their plots, e.g. after an import committed
+     */
+    @EventListener
+    public void onPlotsReloaded(PlotsReloadedEvent event) {
+        if (!isEnabled() || event.isRemote()) {
+            return;
+        }
+        announce(encode(new Notification(origin, true, null, null, null, null, null, null)));
+    }
+
+    /**
+     * Send a notification, queued with the others of the current transaction if there is one
+     */
+    private void announce(String payload) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(payload));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<String> batch = (List<String>) TransactionSynchronizationManager.getResource(batchKey);
+        if (batch == null) {
+            List<String> payloads = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(batchKey, payloads);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    send(payloads);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(batchKey);
+                }
+            });
+            batch = payloads;
+        }
+        batch.add(payload);
+    }
+
+    private String encode(Notification notification) {
+        try {
+            return objectMapper.writeValueAsString(notification);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode plot change notification", e);
+        }
+    }
+
+    /**
+     * Send notifications in one statement, each with its own payload
+     * Runs on the transaction's connection, so they are delivered on commit
+     */
+    private void send(List<String> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        String channel = channel();
+        new JdbcTemplate(dataSourceProvider.getObject()).query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(NOTIFY_SQL);
+            statement.setString(1, channel);
+            statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+        });
+    }
+
+    private void listen(String channel) {
+        boolean connectedBefore = false;
+        while (running) {
+            try (Connection connection = dataSourceProvider.getObject().getConnection()) {
+                // LISTEN only takes effect once committed
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection postgres = connection.unwrap(PGConnection.class);
+                if (connectedBefore) {
+                    resynchronize();
+                }
+                connectedBefore = true;
+
+                while (running) {
+                    PGNotification[] notifications = postgres.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        List<String> payloads = new ArrayList<>(notifications.length);
+                        for (PGNotification notification : notifications) {
+                            payloads.add(notification.getParameter());
+                        }
+                        receive(payloads);
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Plot change relay lost its connection, retrying in {} ms: {}", RETRY_MILLIS, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Republish a change made by another instance as a local event
+     */
+    void receive(String payload) {
+        receive(List.of(payload));
+    }
+
+    /**
+     * Republish the changes made by other instances as local events, in the order they were sent
+     * Consecutive created plots are read in one query and republished as one PlotsCreatedEvent.
+     */
+    void receive(List<String> payloads) {
+        List<Long> created = new ArrayList<>();
+        for (String payload : payloads) {
+            Notification notification = decode(payload);
+            if (notification == null || origin.equals(notification.origin())) {
+                continue;
+            }
+            if (!notification.reload() && notification.type() == PlotChangedEvent.ChangeType.CREATED) {
+                created.add(notification.id());
+                continue;
+            }
+            publishCreated(created);
+            if (notification.reload()) {
+                resynchronize();
+            } else {
+                apply(notification);
+            }
+        }
+        publishCreated(created);
+    }
+
+    private Notification decode(String payload) {
+        try {
+            return objectMapper.readValue(payload, Notification.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed plot change notification {}: {}", payload, e.getMessage());
+            return null;
+        }
+    }
+
+    private void publishCreated(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            // Plots deleted since are not found; the deletion has its own notification
+            List<PlotDto> plots = readOnlyTransaction.execute(status ->
+                    plotMapper.toDtoList(plotRepository.findAllById(ids)));
+            if (plots != null && !plots.isEmpty()) {
+                eventPublisher.publishEvent(PlotsCreatedEvent.remote(plots));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply notifications for created plots {}: {}", ids, e.getMessage());
+        } finally {
+            ids.clear();
+        }
+    }
+
+    private void apply(Notification notification) {
+        try {
+            PlotDto plot;
+            if (notification.type() == PlotChangedEvent.ChangeType.DELETED) {
+                plot = PlotDto.builder()
+                        .id(notification.id())
+                        .latitude(notification.latitude())
+                        .longitude(notification.longitude())
+                        .build();
+            } else {
+                // Read from the database, the local cache may still hold the previous state
+                plot = readOnlyTransaction.execute(status -> plotRepository.findById(notification.id())
+                        .map(plotMapper::toDto)
+                        .orElse(null));
+                if (plot == null) {
+                    // Deleted since; the deletion has its own notification
+                    return;
+                }
+            }
+            eventPublisher.publishEvent(PlotChangedEvent.remote(notification.type(), plot,
+                    notification.previousLatitude(), notification.previousLongitude()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply plot change notification {}: {}", notification, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop state that may have missed changes, after a reconnect or a reload announced by another instance
+     * Listeners reload on this thread, so notifications received meanwhile are applied afterwards.
+     */
+    private void resynchronize() {
+        log.info("Reloading plot cache, spatial index and price grid for changes not relayed individually");
+        try {
+            eventPublisher.publishEvent(PlotsReloadedEvent.remote());
+        } catch (RuntimeException e) {
+            log.error("Failed to reload plots: {}", e.getMessage(), e);
+        }
+    }
+
+    private boolean isEnabled() {
+        return plotProperties.getStream().getRelay() == PlotProperties.Stream.Relay.POSTGRES;
+    }
+
+    private String channel() {
+        String channel = plotProperties.getStream().getChannel();
+        if (channel == null || !CHANNEL_NAME.matcher(channel).matches()) {
+            throw new IllegalStateException("Invalid plot change channel name: " + channel);
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,370 @@
+package com.company.project.stream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotDto;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.event.PlotsCreatedEvent;
+import com.company.project.event.PlotsReloadedEvent;
+import com.company.project.exception.StreamCapacityException;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registry of map clients following plot changes over Server-Sent Events
+ *
+ * Subscribers are sharded by a fixed grid: each is registered in every cell its viewport overlaps,
+ * and a change is only matched against the cells holding the plot's new and previous location.
+ * Viewports spanning too many cells are kept in one shared shard checked for every change.
+ * Changes are matched after commit on a single thread, which queues them per subscriber in commit order.
+ * A shared pool of writers drains the queues, at most one writer per subscriber at a time, so a slow
+ * client only delays its own events. A subscriber whose queue fills up has its backlog replaced by
+ * a reload event, telling it to refetch its viewport.
+ *
+ * Every stream holds a connection until it times out, so the number of streams is capped per
+ * instance and per client IP address.
+ */
+@Slf4j
+@Component
+public class PlotSubscriberRegistry {
+
+    private final PlotProperties plotProperties;
+
+    private final Map<Long, Set<Subscriber>> cells = new ConcurrentHashMap<>();
+    private final Set<Subscriber> wide = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Open streams per client IP address (guarded by this, together with admission)
+    private final Map<String, Integer> clients = new HashMap<>();
+
+    // Matches changes and queues them with keep-alives; one thread keeps the order of changes per client
+    private final ScheduledExecutorService sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "plot-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Writes queued events to the clients
+    private final ExecutorService writers;
+
+    /**
+     * A connected client and the viewport it follows
+     *
+     * @param client IP address the stream was opened from
+     * @param cells Grid cells the subscriber is registered in, or null when it is in the shared shard
+     * @param outbox Events waiting to be written, filled only by the sender thread
+     * @param draining Whether a writer is draining the outbox
+     */
+    record Subscriber(SseEmitter emitter, String client, Envelope viewport, List<Long> cells,
+            BlockingQueue<SseEmitter.SseEventBuilder> outbox, AtomicBoolean draining) {
+        boolean covers(Double latitude, Double longitude) {
+            return latitude != null && longitude != null && viewport.covers(longitude, latitude);
+        }
+    }
+
+    public PlotSubscriberRegistry(PlotProperties plotProperties, MeterRegistry meterRegistry) {
+        this.plotProperties = plotProperties;
+        this.writers = Executors.newFixedThreadPool(plotProperties.getStream().getWriterThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "plot-stream-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("plots.stream.subscribers", subscribers, Set::size)
+                .description("Clients connected to the plot change stream")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void startHeartbeat() {
+        long interval = plotProperties.getStream().getHeartbeatSeconds();
+        sender.scheduleWithFixedDelay(this::heartbeat, interval, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        writers.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+    }
+
+    /**
+     * Open a stream of the changes to plots within a viewport
+     * Bounds must already be validated; the stream ends when the client disconnects or it times out
+     *
+     * @param client IP address of the client, counted against the per-client limit
+     * @throws StreamCapacityException if this instance or the client already has the maximum number of streams
+     */
+    public SseEmitter subscribe(String client, double minLat, double maxLat, double minLng, double maxLng) {
+        SseEmitter emitter = createEmitter(TimeUnit.MINUTES.toMillis(plotProperties.getStream().getTimeoutMinutes()));
+        Envelope viewport = new Envelope(minLng, maxLng, minLat, maxLat);
+        Subscriber subscriber = new Subscriber(emitter, client, viewport, cellsOf(viewport),
+                new ArrayBlockingQueue<>(plotProperties.getStream().getMaxQueuedEvents()), new AtomicBoolean());
+        admit(subscriber);
+
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+
+        if (subscriber.cells() == null) {
+            wide.add(subscriber);
+        } else {
+            for (Long cell : subscriber.cells()) {
+                cells.computeIfAbsent(cell, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+            }
+        }
+        log.debug("Stream subscriber added for {}, {} connected", viewport, subscribers.size());
+        return emitter;
+    }
+
+    SseEmitter createEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Number of connected subscribers
+     */
+    public int size() {
+        return subscribers.size();
+    }
+
+    /**
+     * Forward a committed change, local or relayed from another instance, to the matching subscribers
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlotChanged(PlotChangedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> {
+            String name = event.getType().name().toLowerCase(Locale.ROOT);
+            for (Subscriber subscriber : subscribersFor(event)) {
+                enqueue(subscriber, SseEmitter.event().name(name).data(event.getPlot(), MediaType.APPLICATION_JSON));
+            }
+        });
+    }
+
+    /**
+     * Forward plots created together to the matching subscribers, as one created event per plot
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlotsCreated(PlotsCreatedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> {
+            for (PlotDto plot : event.getPlots()) {
+                for (Subscriber subscriber : subscribersFor(PlotChangedEvent.created(plot))) {
+                    enqueue(subscriber, SseEmitter.event().name("created").data(plot, MediaType.APPLICATION_JSON));
+                }
+            }
+        });
+    }
+
+    /**
+     * Tell every subscriber to refetch its viewport after plots were written without change events
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlotsReloaded(PlotsReloadedEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> {
+            for (Subscriber subscriber : subscribers) {
+                enqueue(subscriber, reload());
+            }
+        });
+    }
+
+    /**
+     * Subscribers whose viewport contains the plot, or contained it before it moved
+     */
+    List<Subscriber> subscribersFor(PlotChangedEvent event) {
+        PlotDto plot = event.getPlot();
+        Set<Subscriber> candidates = new LinkedHashSet<>(wide);
+        addCandidates(candidates, plot.getLatitude(), plot.getLongitude());
+        if (event.isMoved()) {
+            addCandidates(candidates, event.getPreviousLatitude(), event.getPreviousLongitude());
+        }
+
+        List<Subscriber> matches = new ArrayList<>();
+        for (Subscriber subscriber : candidates) {
+            if (subscriber.covers(plot.getLatitude(), plot.getLongitude())
+                    || subscriber.covers(event.getPreviousLatitude(), event.getPreviousLongitude())) {
+                matches.add(subscriber);
+            }
+        }
+        return matches;
+    }
+
+    private void addCandidates(Set<Subscriber> candidates, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        Set<Subscriber> cell = cells.get(cellKey(row(latitude), column(longitude)));
+        if (cell != null) {
+            candidates.addAll(cell);
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            // A full queue means events are waiting anyway
+            if (subscriber.outbox().offer(SseEmitter.event().comment("keep-alive"))) {
+                scheduleDrain(subscriber);
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder reload() {
+        return SseEmitter.event().name("reload").data(Map.of(), MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * Queue an event for a subscriber; runs on the sender thread only
+     */
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder message) {
+        if (!subscriber.outbox().offer(message)) {
+            // Too far behind to catch up change by change; a reload makes up for the dropped changes
+            log.debug("Stream subscriber for {} fell behind, sending a reload", subscriber.viewport());
+            subscriber.outbox().clear();
+            subscriber.outbox().offer(reload());
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining().compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                subscriber.draining().set(false);
+            }
+        }
+    }
+
+    /**
+     * Write a subscriber's queued events until its queue is empty
+     */
+    private void drain(Subscriber subscriber) {
+        do {
+            SseEmitter.SseEventBuilder message;
+            while ((message = subscriber.outbox().poll()) != null) {
+                if (!send(subscriber, message)) {
+                    // Left marked as draining, so nothing is scheduled for the dropped subscriber again
+                    subscriber.outbox().clear();
+                    return;
+                }
+            }
+            subscriber.draining().set(false);
+            // Recheck, an event may have been queued after the last poll but before the flag was cleared
+        } while (!subscriber.outbox().isEmpty() && subscriber.draining().compareAndSet(false, true));
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder message) {
+        try {
+            subscriber.emitter().send(message);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the container completes the emitter
+            log.debug("Dropping stream subscriber: {}", e.getMessage());
+            unregister(subscriber);
+            return false;
+        }
+    }
+
+    /**
+     * Reserve a place for a new subscriber, or refuse it when either limit is reached
+     */
+    private synchronized void admit(Subscriber subscriber) {
+        PlotProperties.Stream settings = plotProperties.getStream();
+        if (subscribers.size() >= settings.getMaxSubscribers()) {
+            throw new StreamCapacityException("Too many plot change streams are open, try again later");
+        }
+        int open = clients.getOrDefault(subscriber.client(), 0);
+        if (open >= settings.getMaxSubscribersPerClient()) {
+            throw new StreamCapacityException("Too many plot change streams are open from this address");
+        }
+        clients.put(subscriber.client(), open + 1);
+        subscribers.add(subscriber);
+    }
+
+    void unregister(Subscriber subscriber) {
+        synchronized (this) {
+            if (!subscribers.remove(subscriber)) {
+                return;
+            }
+            clients.computeIfPresent(subscriber.client(), (client, open) -> open > 1 ? open - 1 : null);
+        }
+        if (subscriber.cells() == null) {
+            wide.remove(subscriber);
+            return;
+        }
+        for (Long key : subscriber.cells()) {
+            cells.computeIfPresent(key, (k, members) -> {
+                members.remove(subscriber);
+                return members.isEmpty() ? null : members;
+            });
+        }
+    }
+
+    /**
+     * Grid cells overlapped by a viewport, or null if there are more than the configured maximum
+     */
+    private List<Long> cellsOf(Envelope viewport) {
+        int minRow = row(viewport.getMinY());
+        int maxRow = row(viewport.getMaxY());
+        int minColumn = column(viewport.getMinX());
+        int maxColumn = column(viewport.getMaxX());
+        long count = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+        if (count > plotProperties.getStream().getMaxCellsPerSubscriber()) {
+            return null;
+        }
+        List<Long> keys = new ArrayList<>((int) count);
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int column = minColumn; column <= maxColumn; column++) {
+                keys.add(cellKey(row, column));
+            }
+        }
+        return keys;
+    }
+
+    private int row(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / plotProperties.getStream().getCellSizeDegrees());
+    }
+
+    private int column(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / plotProperties.getStream().getCellSizeDegrees());
+    }
+
+    private static long cellKey(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+}
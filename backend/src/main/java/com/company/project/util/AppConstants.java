@@ -1,5 +1,7 @@
 package com.company.project.util;
 
+import java.util.List;
+
 /**
  * Application Constants
  * 
@@ -15,6 +17,13 @@ public final class AppConstants {
     public static final int MAX_PAGE_SIZE = 50;
     public static final String DEFAULT_PAGE_SIZE = "10";
     public static final String DEFAULT_PAGE_NUMBER = "0";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor"; // Continuation token for keyset pagination
+
+    // Maximum number of queries in one /geocoding/batch request
+    public static final int MAX_GEOCODE_BATCH_SIZE = 100;
+
+    // Plot price units accepted by the plots_price_unit_check constraint
+    public static final List<String> PRICE_UNITS = List.of("per_sqft", "per_sqm", "per_cent", "per_acre", "per_hectare");
 
     // Locale settings
     public static final String DEFAULT_CURRENCY = "INR";
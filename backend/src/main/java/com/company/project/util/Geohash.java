@@ -0,0 +1,178 @@
+package com.company.project.util;
+
+/**
+ * Geohash cells over WGS84 coordinates
+ *
+ * A geohash of precision p splits longitude into 2^ceil(5p/2) columns and latitude into 2^floor(5p/2)
+ * rows and interleaves the bits of the column and row, longitude first, in base 32. Cells are
+ * addressed here by their column and row, so neighbouring cells can be enumerated without decoding.
+ */
+public final class Geohash {
+
+    /**
+     * Longest supported geohash; 60 bits still fit the column and row indexes
+     */
+    public static final int MAX_PRECISION = 12;
+
+    private static final String BASE32_ALPHABET = "0123456789bcdefghjkmnpqrstuvwxyz";
+    private static final char[] BASE32 = BASE32_ALPHABET.toCharArray();
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    /**
+     * A cell addressed by its column and row at a precision
+     */
+    public record Cell(long column, long row, int precision) {
+
+        /**
+         * Geohash of the cell
+         */
+        public String hash() {
+            return encode(column, row, precision);
+        }
+
+        /**
+         * The coarser cell containing this one
+         */
+        public Cell parent(int parentPrecision) {
+            return new Cell(column >>> (longitudeBits(precision) - longitudeBits(parentPrecision)),
+                    row >>> (latitudeBits(precision) - latitudeBits(parentPrecision)), parentPrecision);
+        }
+
+        public double centerLatitude() {
+            return -90.0 + (row + 0.5) * cellHeight(precision);
+        }
+
+        public double centerLongitude() {
+            return -180.0 + (column + 0.5) * cellWidth(precision);
+        }
+    }
+
+    private Geohash() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * The cell containing a location
+     */
+    public static Cell cellOf(double latitude, double longitude, int precision) {
+        return new Cell(column(longitude, precision), row(latitude, precision), precision);
+    }
+
+    /**
+     * Decode a geohash into its cell
+     *
+     * @throws IllegalArgumentException if the hash is empty, too long or not base 32
+     */
+    public static Cell decode(String hash) {
+        int precision = hash.length();
+        if (precision == 0 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Invalid geohash: " + hash);
+        }
+        long column = 0;
+        long row = 0;
+        boolean longitudeNext = true;
+        for (int i = 0; i < precision; i++) {
+            int value = BASE32_ALPHABET.indexOf(hash.charAt(i));
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid geohash: " + hash);
+            }
+            for (int b = 4; b >= 0; b--) {
+                long bit = (value >>> b) & 1;
+                if (longitudeNext) {
+                    column = (column << 1) | bit;
+                } else {
+                    row = (row << 1) | bit;
+                }
+                longitudeNext = !longitudeNext;
+            }
+        }
+        return new Cell(column, row, precision);
+    }
+
+    /**
+     * Encode the cell containing a location
+     */
+    public static String encode(double latitude, double longitude, int precision) {
+        return cellOf(latitude, longitude, precision).hash();
+    }
+
+    /**
+     * Encode a cell from its column and row at the given precision
+     */
+    public static String encode(long column, long row, int precision) {
+        int lngBits = longitudeBits(precision);
+        int latBits = latitudeBits(precision);
+        char[] hash = new char[precision];
+        int lngBit = lngBits - 1;
+        int latBit = latBits - 1;
+        boolean longitudeNext = true;
+        for (int i = 0; i < precision; i++) {
+            int value = 0;
+            for (int b = 0; b < 5; b++) {
+                long bit = longitudeNext ? (column >>> lngBit--) & 1 : (row >>> latBit--) & 1;
+                value = (value << 1) | (int) bit;
+                longitudeNext = !longitudeNext;
+            }
+            hash[i] = BASE32[value];
+        }
+        return new String(hash);
+    }
+
+    /**
+     * Column of the cell containing a longitude
+     */
+    public static long column(double longitude, int precision) {
+        long columns = 1L << longitudeBits(precision);
+        return Math.min(columns - 1, (long) Math.floor((longitude + 180.0) / cellWidth(precision)));
+    }
+
+    /**
+     * Row of the cell containing a latitude
+     */
+    public static long row(double latitude, int precision) {
+        long rows = 1L << latitudeBits(precision);
+        return Math.min(rows - 1, (long) Math.floor((latitude + 90.0) / cellHeight(precision)));
+    }
+
+    /**
+     * Number of bits of the column index at a precision
+     */
+    public static int longitudeBits(int precision) {
+        return (5 * precision + 1) / 2;
+    }
+
+    /**
+     * Number of bits of the row index at a precision
+     */
+    public static int latitudeBits(int precision) {
+        return 5 * precision / 2;
+    }
+
+    /**
+     * Width of a cell in degrees of longitude
+     */
+    public static double cellWidth(int precision) {
+        return 360.0 / (1L << longitudeBits(precision));
+    }
+
+    /**
+     * Height of a cell in degrees of latitude
+     */
+    public static double cellHeight(int precision) {
+        return 180.0 / (1L << latitudeBits(precision));
+    }
+
+    /**
+     * Highest precision whose cells are at least the given width at the equator
+     *
+     * @param cellSizeMeters Requested cell width in meters
+     * @param maxPrecision Highest precision to return
+     */
+    public static int precisionFor(double cellSizeMeters, int maxPrecision) {
+        int precision = 1;
+        while (precision < maxPrecision && cellWidth(precision + 1) * METERS_PER_DEGREE >= cellSizeMeters) {
+            precision++;
+        }
+        return precision;
+    }
+}
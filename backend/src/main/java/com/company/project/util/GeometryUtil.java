@@ -18,6 +18,14 @@ public class GeometryUtil {
     private static final GeometryFactory geometryFactory = new GeometryFactory(
             new PrecisionModel(), SRID);
     
+    /**
+     * Returns the shared WGS84 geometry factory
+     * Geometries it creates carry SRID 4326
+     */
+    public static GeometryFactory getGeometryFactory() {
+        return geometryFactory;
+    }
+    
     /**
      * Creates a Point geometry from latitude and longitude
      * 
@@ -0,0 +1,220 @@
+package com.company.project.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.company.project.exception.InvalidCursorException;
+
+/**
+ * Opaque continuation token for keyset pagination over plots
+ *
+ * A cursor encodes the ID of the last plot returned, so the next page is read with
+ * "WHERE id > :afterId ORDER BY id" straight from the primary key index. Unlike OFFSET,
+ * deep pages cost the same as the first one and no count query is needed.
+ *
+ * Search results are ordered by rank, so their cursors carry the rank of the last plot as well.
+ * Likewise, listings ordered by normalized price carry the last plot's price per square meter,
+ * and change feeds carry the last plot's modification time. Change feeds page through tombstones
+ * before plots; their tombstone cursors carry the deletion time and ID of the last tombstone.
+ */
+public final class PlotCursor {
+
+    private static final String PREFIX = "v1:";
+    private static final String RANKED_PREFIX = "v1r:";
+    private static final String PRICED_PREFIX = "v1p:";
+    private static final String CHANGED_PREFIX = "v1c:";
+    private static final String DELETED_PREFIX = "v1d:";
+
+    /**
+     * Position of the last plot on a ranked page
+     */
+    public record RankedPosition(float rank, long id) {
+    }
+
+    /**
+     * Position of the last plot on a page ordered by price per square meter
+     */
+    public record PricedPosition(BigDecimal pricePerSqm, long id) {
+    }
+
+    /**
+     * Position of the last plot on a change feed page ordered by modification time
+     */
+    public record ChangedPosition(LocalDateTime updatedAt, long id) {
+    }
+
+    private PlotCursor() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Encode the ID of the last plot on a page as a cursor
+     */
+    public static String encode(long lastId) {
+        byte[] raw = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Decode a cursor into the ID after which the next page starts
+     *
+     * @param cursor Cursor from a previous response, or null for the first page
+     * @return The last ID already seen, or 0 for the first page
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encode(long)}
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            // Covers both malformed Base64 and NumberFormatException
+            throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Encode the rank and ID of the last plot on a ranked page as a cursor
+     */
+    public static String encodeRanked(float rank, long lastId) {
+        byte[] raw = (RANKED_PREFIX + rank + ":" + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Decode a ranked cursor into the position after which the next page starts
+     *
+     * @param cursor Cursor from a previous response, or null for the first page
+     * @return The last position already seen, or null for the first page
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encodeRanked(float, long)}
+     */
+    public static RankedPosition decodeRanked(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            if (!raw.startsWith(RANKED_PREFIX) || separator < RANKED_PREFIX.length()) {
+                throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+            }
+            return new RankedPosition(Float.parseFloat(raw.substring(RANKED_PREFIX.length(), separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Encode the normalized price and ID of the last plot on a price-ordered page as a cursor
+     */
+    public static String encodePriced(BigDecimal pricePerSqm, long lastId) {
+        byte[] raw = (PRICED_PREFIX + pricePerSqm.toPlainString() + ":" + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    /**
+     * Decode a price-ordered cursor into the position after which the next page starts
+     *
+     * @param cursor Cursor from a previous response, or null for the first page
+     * @return The last position already seen, or null for the first page
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encodePriced(BigDecimal, long)}
+     */
+    public static PricedPosition decodePriced(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(':');
+            if (!raw.startsWith(PRICED_PREFIX) || separator < PRICED_PREFIX.length()) {
+                throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+            }
+            return new PricedPosition(new BigDecimal(raw.substring(PRICED_PREFIX.length(), separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Encode the modification time and ID of the last plot on a change feed page as a cursor
+     */
+    public static String encodeChanged(LocalDateTime updatedAt, long lastId) {
+        return encodeTimed(CHANGED_PREFIX, updatedAt, lastId);
+    }
+
+    /**
+     * Decode a change feed cursor into the position after which the next page starts
+     *
+     * @param cursor Cursor from a previous response, or null for the first page
+     * @return The last position already seen, or null for the first page
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encodeChanged(LocalDateTime, long)}
+     */
+    public static ChangedPosition decodeChanged(String cursor) {
+        return decodeTimed(CHANGED_PREFIX, cursor);
+    }
+
+    /**
+     * Encode the deletion time and ID of the last tombstone on a change feed page as a cursor
+     */
+    public static String encodeDeleted(LocalDateTime deletedAt, long lastId) {
+        return encodeTimed(DELETED_PREFIX, deletedAt, lastId);
+    }
+
+    /**
+     * Decode a tombstone cursor into the position after which the next page of tombstones starts
+     *
+     * @param cursor Cursor from a previous response, or null for the first page
+     * @return The last tombstone already seen, or null for the first page
+     * @throws InvalidCursorException if the cursor was not produced by {@link #encodeDeleted(LocalDateTime, long)}
+     */
+    public static ChangedPosition decodeDeleted(String cursor) {
+        return decodeTimed(DELETED_PREFIX, cursor);
+    }
+
+    /**
+     * Whether a change feed cursor points into the tombstones rather than the plots
+     */
+    public static boolean isDeleted(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return false;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).startsWith(DELETED_PREFIX);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+        }
+    }
+
+    private static String encodeTimed(String prefix, LocalDateTime time, long lastId) {
+        byte[] raw = (prefix + time + ":" + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+    }
+
+    private static ChangedPosition decodeTimed(String prefix, String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // The timestamp contains colons itself, so the ID follows the last one
+            int separator = raw.lastIndexOf(':');
+            if (!raw.startsWith(prefix) || separator < prefix.length()) {
+                throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+            }
+            return new ChangedPosition(LocalDateTime.parse(raw.substring(prefix.length(), separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Invalid pagination cursor: " + cursor);
+        }
+    }
+}
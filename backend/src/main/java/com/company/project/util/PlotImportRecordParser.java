@@ -0,0 +1,228 @@
+package com.company.project.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.StringJoiner;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.company.project.dto.PlotImportRecord;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Converts records written by the data_collection scrapers into plot import records
+ *
+ * Two layouts are understood:
+ * - Listing records with top-level title, price.amount, coordinates and metadata.api_listing_id
+ * - Staging records with the listing under raw_data (price, area_sqft, area_sqm, area_sqyd)
+ *
+ * Plots are priced per unit area, so a record is only usable when its area is known,
+ * either from explicit fields or from the size embedded in the title or listing URL.
+ */
+public final class PlotImportRecordParser {
+
+    private static final int MAX_SOURCE_LENGTH = 50;
+    private static final int MAX_EXTERNAL_ID_LENGTH = 255;
+    private static final int MAX_NAME_LENGTH = 150;
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    // Sizes like "1300-Sqft", "60 Sqyrd" or "2.5 Acres" in listing titles and URLs
+    private static final Pattern AREA_PATTERN = Pattern.compile(
+            "(\\d+(?:\\.\\d+)?)[- ]?(sq[- .]?ft|sq[- .]?yrd|sq[- .]?yd|sq[- .]?m|acres?|cents?|hectares?)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private PlotImportRecordParser() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Parse one JSONL record
+     *
+     * @param node Parsed JSON line
+     * @return Normalized record; coordinates may be null when locationQuery is set
+     * @throws IllegalArgumentException with the rejection reason if the record cannot be imported
+     */
+    public static PlotImportRecord parse(JsonNode node) {
+        JsonNode raw = node.path("raw_data");
+        boolean staging = raw.isObject();
+        JsonNode listing = staging ? raw : node;
+
+        String source = firstText(listing.path("source"), node.path("source"));
+        if (source == null) {
+            throw new IllegalArgumentException("Record has no source");
+        }
+
+        String externalId = firstText(node.path("metadata").path("api_listing_id"),
+                listing.path("listing_url"), node.path("metadata").path("source_url"));
+        if (externalId == null) {
+            throw new IllegalArgumentException("Record has no listing ID or URL");
+        }
+
+        String title = firstText(listing.path("title"));
+        BigDecimal totalPrice = decimal(staging ? listing.path("price") : listing.path("price").path("amount"));
+        if (totalPrice == null || totalPrice.signum() <= 0) {
+            throw new IllegalArgumentException("Record has no price");
+        }
+        Area area = findArea(listing, title);
+        if (area == null) {
+            throw new IllegalArgumentException("Record has no area to derive a unit price from");
+        }
+
+        Double latitude = number(firstNonMissing(listing.path("coordinates").path("latitude"), listing.path("latitude")));
+        Double longitude = number(firstNonMissing(listing.path("coordinates").path("longitude"), listing.path("longitude")));
+        if (latitude == null || longitude == null) {
+            latitude = null;
+            longitude = null;
+        }
+
+        return PlotImportRecord.builder()
+                .source(truncate(source, MAX_SOURCE_LENGTH))
+                .externalId(externalId.length() > MAX_EXTERNAL_ID_LENGTH ? sha256(externalId) : externalId)
+                .name(title != null ? truncate(title, MAX_NAME_LENGTH) : "Plot")
+                .price(totalPrice.divide(area.size(), 2, RoundingMode.HALF_UP))
+                .priceUnit(area.priceUnit())
+                .description(truncate(firstText(listing.path("address")), MAX_DESCRIPTION_LENGTH))
+                .latitude(latitude)
+                .longitude(longitude)
+                .locationQuery(locationQuery(node, listing))
+                .build();
+    }
+
+    /**
+     * Area of a listing in the unit its price is expressed in
+     */
+    private record Area(BigDecimal size, String priceUnit) {
+    }
+
+    private static Area findArea(JsonNode listing, String title) {
+        BigDecimal sqft = decimal(listing.path("area_sqft"));
+        if (sqft == null && listing.path("area").isNumber()) {
+            sqft = decimal(listing.path("area"));
+        }
+        if (positive(sqft)) {
+            return new Area(sqft, "per_sqft");
+        }
+        BigDecimal sqm = decimal(listing.path("area_sqm"));
+        if (positive(sqm)) {
+            return new Area(sqm, "per_sqm");
+        }
+        BigDecimal sqyd = decimal(listing.path("area_sqyd"));
+        if (positive(sqyd)) {
+            return new Area(sqyd.multiply(BigDecimal.valueOf(9)), "per_sqft");
+        }
+
+        for (String text : new String[] { title, firstText(listing.path("listing_url")) }) {
+            if (text == null) {
+                continue;
+            }
+            Matcher matcher = AREA_PATTERN.matcher(text);
+            if (matcher.find()) {
+                BigDecimal size = new BigDecimal(matcher.group(1));
+                if (size.signum() > 0) {
+                    return areaFromUnit(size, matcher.group(2).toLowerCase(Locale.ROOT).replaceAll("[- .]", ""));
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Area areaFromUnit(BigDecimal size, String unit) {
+        if (unit.startsWith("sqy")) {
+            return new Area(size.multiply(BigDecimal.valueOf(9)), "per_sqft");
+        }
+        if (unit.equals("sqm")) {
+            return new Area(size, "per_sqm");
+        }
+        if (unit.startsWith("acre")) {
+            return new Area(size, "per_acre");
+        }
+        if (unit.startsWith("cent")) {
+            return new Area(size, "per_cent");
+        }
+        if (unit.startsWith("hectare")) {
+            return new Area(size, "per_hectare");
+        }
+        return new Area(size, "per_sqft");
+    }
+
+    private static String locationQuery(JsonNode node, JsonNode listing) {
+        StringJoiner query = new StringJoiner(", ");
+        for (JsonNode part : new JsonNode[] { listing.path("locality"), node.path("city"), node.path("state") }) {
+            String text = firstText(part);
+            if (text != null) {
+                query.add(text);
+            }
+        }
+        if (query.length() == 0) {
+            return null;
+        }
+        String country = firstText(node.path("country"));
+        query.add(country != null ? country : "India");
+        return query.toString();
+    }
+
+    private static String firstText(JsonNode... nodes) {
+        for (JsonNode node : nodes) {
+            if (node.isValueNode() && !node.isNull()) {
+                String text = node.asText().trim();
+                if (!text.isEmpty()) {
+                    return text;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static JsonNode firstNonMissing(JsonNode... nodes) {
+        for (JsonNode node : nodes) {
+            if (!node.isMissingNode() && !node.isNull()) {
+                return node;
+            }
+        }
+        return nodes[nodes.length - 1];
+    }
+
+    private static BigDecimal decimal(JsonNode node) {
+        if (node.isNumber()) {
+            return node.decimalValue();
+        }
+        if (node.isTextual()) {
+            try {
+                return new BigDecimal(node.asText().replace(",", "").trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static Double number(JsonNode node) {
+        BigDecimal value = decimal(node);
+        return value != null ? value.doubleValue() : null;
+    }
+
+    private static boolean positive(BigDecimal value) {
+        return value != null && value.signum() > 0;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null || value.length() <= maxLength) {
+            return value;
+        }
+        return value.substring(0, maxLength);
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
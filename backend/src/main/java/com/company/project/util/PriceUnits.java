@@ -0,0 +1,87 @@
+package com.company.project.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.company.project.exception.InvalidPriceUnitException;
+
+/**
+ * Parsing of the price unit names clients send
+ *
+ * Stored units are the canonical values in {@link AppConstants#PRICE_UNITS}. Filters also accept the bare
+ * area unit and common spellings, e.g. "sqft", "Per Sq Ft" or "acre".
+ *
+ * Prices in different units are compared by converting them to a price per square meter.
+ */
+public final class PriceUnits {
+
+    // Scale of normalized prices, matching plots.price_per_sqm
+    public static final int PRICE_PER_SQM_SCALE = 4;
+
+    // Area of one unit in square meters, exact by definition
+    private static final Map<String, BigDecimal> SQUARE_METERS_PER_UNIT = Map.of(
+            "per_sqft", new BigDecimal("0.09290304"),
+            "per_sqm", BigDecimal.ONE,
+            "per_cent", new BigDecimal("40.468564224"),
+            "per_acre", new BigDecimal("4046.8564224"),
+            "per_hectare", new BigDecimal("10000"));
+
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s_.-]+");
+
+    private static final Map<String, String> ALIASES = Map.ofEntries(
+            Map.entry("sqft", "per_sqft"),
+            Map.entry("sft", "per_sqft"),
+            Map.entry("squarefeet", "per_sqft"),
+            Map.entry("squarefoot", "per_sqft"),
+            Map.entry("sqm", "per_sqm"),
+            Map.entry("squaremeter", "per_sqm"),
+            Map.entry("squaremetre", "per_sqm"),
+            Map.entry("cent", "per_cent"),
+            Map.entry("acre", "per_acre"),
+            Map.entry("hectare", "per_hectare"),
+            Map.entry("ha", "per_hectare"));
+
+    private PriceUnits() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Map a client-supplied price unit to its canonical value
+     *
+     * @param priceUnit Unit name, or null
+     * @return The canonical unit, or null if priceUnit is null or blank
+     * @throws InvalidPriceUnitException if the name matches no unit
+     */
+    public static String normalize(String priceUnit) {
+        if (priceUnit == null || priceUnit.isBlank()) {
+            return null;
+        }
+        String compact = SEPARATORS.matcher(priceUnit.trim().toLowerCase(Locale.ROOT)).replaceAll("");
+        if (compact.startsWith("per")) {
+            compact = compact.substring(3);
+        }
+        String canonical = ALIASES.get(compact);
+        if (canonical == null) {
+            throw new InvalidPriceUnitException(priceUnit);
+        }
+        return canonical;
+    }
+
+    /**
+     * Convert a price per unit area to a price per square meter
+     *
+     * @param price Price per unit
+     * @param priceUnit Canonical price unit
+     * @return The price per square meter, or null if either argument is null or the unit is unknown
+     */
+    public static BigDecimal toPricePerSqm(BigDecimal price, String priceUnit) {
+        BigDecimal squareMeters = priceUnit != null ? SQUARE_METERS_PER_UNIT.get(priceUnit) : null;
+        if (price == null || squareMeters == null) {
+            return null;
+        }
+        return price.divide(squareMeters, PRICE_PER_SQM_SCALE, RoundingMode.HALF_UP);
+    }
+}
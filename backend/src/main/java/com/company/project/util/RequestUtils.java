@@ -0,0 +1,24 @@
+package com.company.project.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Helpers for reading client details from HTTP requests
+ */
+public final class RequestUtils {
+
+    private RequestUtils() {
+        // Private constructor to prevent instantiation
+    }
+
+    /**
+     * Extract client IP address from request
+     * Forwarding headers are only honoured through server.forward-headers-strategy, which applies
+     * them for trusted proxies before the request gets here; reading them directly would let any
+     * client pick its own address and so dodge per-client limits.
+     */
+    public static String getClientIpAddress(HttpServletRequest request) {
+        String ip = request.getRemoteAddr();
+        return ip != null ? ip : "unknown";
+    }
+}
@@ -1,5 +1,6 @@
 package com.company.project.util;
 
+import com.company.project.dto.UserAccount;
 import com.company.project.entity.User;
 import com.company.project.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +21,9 @@ public class SecurityUtils {
 
     /**
      * Gets the current authenticated user from the security context
-     * Loads the User entity from the database if needed
+     * With stateless JWT authentication the principal is a detached User built from
+     * token claims (ID, username, name, email, role), so no query is made.
+     * Other principals are looked up by username in the cached account read model.
      * 
      * @return Optional containing the User if authenticated, empty otherwise
      */
@@ -38,10 +41,10 @@ public class SecurityUtils {
             return Optional.of((User) principal);
         }
         
-        // If principal is UserDetails (from JWT), load User from database by username
+        // Other principals are resolved through the cached account, as a detached User
         String username = authentication.getName();
         if (username != null) {
-            return userRepository.findByUsername(username);
+            return userRepository.findAccountByUsername(username).map(UserAccount::toUser);
         }
         
         return Optional.empty();
@@ -0,0 +1,5 @@
+-- Migration V10: Let Hibernate allocate plot IDs in blocks of 50
+-- Plot IDs come from plots_id_seq via a pooled sequence generator instead of IDENTITY,
+-- which allows batched inserts. INCREMENT BY must match the entity's allocationSize.
+
+ALTER SEQUENCE plots_id_seq INCREMENT BY 50;
@@ -0,0 +1,26 @@
+-- Migration V11: Support for importing collected listings into plots
+-- source/external_id identify a plot in the dataset it was imported from, so re-imports update
+-- existing rows instead of inserting duplicates. Plots created through the API leave both null.
+
+ALTER TABLE plots ADD COLUMN IF NOT EXISTS source VARCHAR(50);
+ALTER TABLE plots ADD COLUMN IF NOT EXISTS external_id VARCHAR(255);
+ALTER TABLE plots ADD CONSTRAINT uk_plots_source_external_id UNIQUE (source, external_id);
+
+-- One row per imported file; committed_lines is the restart point for an interrupted import
+CREATE TABLE IF NOT EXISTS plot_import_checkpoints (
+    id BIGSERIAL PRIMARY KEY,
+    file_name VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(100) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    committed_lines BIGINT NOT NULL DEFAULT 0,
+    written_count BIGINT NOT NULL DEFAULT 0,
+    duplicate_count BIGINT NOT NULL DEFAULT 0,
+    rejected_count BIGINT NOT NULL DEFAULT 0,
+    error_message VARCHAR(1000),
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP,
+    CONSTRAINT uk_plot_import_checkpoints_file UNIQUE (file_name, fingerprint)
+);
+
+COMMENT ON TABLE plot_import_checkpoints IS 'Progress of JSONL plot imports, used to resume interrupted imports';
@@ -0,0 +1,2 @@
+-- Incremented on logout and password changes to revoke access tokens issued before it
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
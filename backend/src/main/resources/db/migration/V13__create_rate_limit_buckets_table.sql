@@ -0,0 +1,21 @@
+-- Shared Bucket4j state for rate limiting across instances (rate-limit.store: postgres)
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    id VARCHAR(255) PRIMARY KEY,
+    state BYTEA,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Bucket4j only writes id and state, so the last write time is maintained here for cleanup
+CREATE OR REPLACE FUNCTION touch_rate_limit_bucket() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.updated_at = CURRENT_TIMESTAMP;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_rate_limit_buckets_touch ON rate_limit_buckets;
+CREATE TRIGGER trg_rate_limit_buckets_touch
+    BEFORE UPDATE ON rate_limit_buckets
+    FOR EACH ROW EXECUTE FUNCTION touch_rate_limit_bucket();
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_buckets_updated_at ON rate_limit_buckets(updated_at);
@@ -0,0 +1,8 @@
+-- Persisted Nominatim search responses, so the geocoding cache survives restarts
+CREATE TABLE IF NOT EXISTS geocoding_cache (
+    cache_key VARCHAR(600) PRIMARY KEY,
+    response TEXT NOT NULL,
+    fetched_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_geocoding_cache_fetched_at ON geocoding_cache(fetched_at);
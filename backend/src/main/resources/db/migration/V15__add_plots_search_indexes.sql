@@ -0,0 +1,15 @@
+-- Migration V15: Text search over plot names and descriptions
+-- search_vector is generated by Postgres, so every write path (JPA, bulk insert, import upsert) keeps it current.
+-- The 'simple' configuration skips stemming and stop words, which suit locality names better than English rules.
+-- The trigram index serves fuzzy and partial matches on name that the word-based vector misses.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE plots ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_plots_search_vector ON plots USING GIN (search_vector);
+CREATE INDEX IF NOT EXISTS idx_plots_name_trgm ON plots USING GIN (name gin_trgm_ops);
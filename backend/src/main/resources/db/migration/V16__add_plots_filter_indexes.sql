@@ -0,0 +1,12 @@
+-- Migration V16: Indexes for filtered plot listings
+-- Listings emit only the filters a request sets and page in id order, so:
+-- - price ranges within a unit use the (price_unit, price) composite
+-- - for-sale listings, the common case, walk a partial index in id order and stop after one page
+-- - for-sale price ranges use a partial price index
+-- The partial indexes replace idx_plots_is_for_sale, which matched most rows and was rarely chosen.
+
+CREATE INDEX IF NOT EXISTS idx_plots_price_unit_price ON plots(price_unit, price);
+CREATE INDEX IF NOT EXISTS idx_plots_for_sale_id ON plots(id) WHERE is_for_sale;
+CREATE INDEX IF NOT EXISTS idx_plots_for_sale_price ON plots(price) WHERE is_for_sale;
+
+DROP INDEX IF EXISTS idx_plots_is_for_sale;
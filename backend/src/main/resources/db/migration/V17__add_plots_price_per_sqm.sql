@@ -0,0 +1,19 @@
+-- Migration V17: Price normalized to a price per square meter
+-- Prices are stored per price_unit, so raw price ranges compare values in different units.
+-- price_per_sqm is maintained by the application on every write; this backfills existing rows.
+-- The (price_per_sqm, id) index serves normalized price ranges and price-ordered keyset pages.
+
+ALTER TABLE plots ADD COLUMN IF NOT EXISTS price_per_sqm NUMERIC(19, 4);
+
+UPDATE plots SET price_per_sqm = ROUND(price / CASE price_unit
+        WHEN 'per_sqft' THEN 0.09290304
+        WHEN 'per_sqm' THEN 1
+        WHEN 'per_cent' THEN 40.468564224
+        WHEN 'per_acre' THEN 4046.8564224
+        WHEN 'per_hectare' THEN 10000
+    END, 4)
+WHERE price_per_sqm IS NULL;
+
+ALTER TABLE plots ALTER COLUMN price_per_sqm SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_plots_price_per_sqm ON plots(price_per_sqm, id);
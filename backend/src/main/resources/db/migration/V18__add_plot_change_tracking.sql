@@ -0,0 +1,19 @@
+-- Migration V18: Change tracking for delta sync
+-- Clients that keep plots locally ask for the plots changed since their last sync.
+-- (updated_at, id) serves "updated_at > :since ORDER BY updated_at, id" keyset pages.
+-- plot_deletions keeps a tombstone with the last location of every deleted plot, and of every
+-- plot moved by an update, so clients syncing a bounding box learn that it is gone from there.
+
+CREATE INDEX IF NOT EXISTS idx_plots_updated_at ON plots(updated_at, id);
+
+CREATE TABLE IF NOT EXISTS plot_deletions (
+    id BIGSERIAL PRIMARY KEY,
+    plot_id BIGINT NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_plot_deletions_deleted_at ON plot_deletions(deleted_at);
+
+COMMENT ON TABLE plot_deletions IS 'Tombstones of deleted or moved plots for delta sync';
@@ -0,0 +1,22 @@
+-- Migration V19: Mark plots whose location names an area rather than the plot
+-- Imported listings without coordinates are geocoded to their locality's centroid, so many share one point.
+-- They are excluded from duplicate-location checks and nearest-plot lookups, which compare precise points.
+-- Every geography query now filters on NOT location_approximate, so the V9 index is replaced by a partial
+-- one that leaves the stacked centroids out.
+
+ALTER TABLE plots ADD COLUMN IF NOT EXISTS location_approximate BOOLEAN NOT NULL DEFAULT false;
+
+-- Imports keep exact coordinates at least the duplicate distance apart, so imported plots sharing
+-- a point were geocoded before this column existed
+UPDATE plots SET location_approximate = true
+WHERE source IS NOT NULL
+  AND (latitude, longitude) IN (
+    SELECT latitude, longitude FROM plots
+    WHERE source IS NOT NULL
+    GROUP BY latitude, longitude
+    HAVING COUNT(*) > 1);
+
+CREATE INDEX IF NOT EXISTS idx_plots_location_geography_precise ON plots USING GIST ((CAST(location AS geography)))
+    WHERE NOT location_approximate;
+
+DROP INDEX IF EXISTS idx_plots_location_geography;
@@ -0,0 +1,5 @@
+-- Migration V9: Functional geography index on plots.location
+-- Lets ST_DWithin(CAST(location AS geography), ..., meters) probe the index instead of
+-- transforming every row, for duplicate-location checks and nearest-plot radius filters
+
+CREATE INDEX IF NOT EXISTS idx_plots_location_geography ON plots USING GIST ((CAST(location AS geography)));
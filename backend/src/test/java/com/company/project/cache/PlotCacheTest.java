@@ -0,0 +1,86 @@
+package com.company.project.cache;
+
+import com.company.project.config.CacheConfig;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotSearchCriteria;
+import com.company.project.event.PlotChangedEvent;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PlotCacheTest {
+
+    private PlotCache plotCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.PLOTS_BY_ID, Caffeine.newBuilder().build());
+        cacheManager.registerCustomCache(CacheConfig.PLOT_QUERIES, Caffeine.newBuilder().build());
+        plotCache = new PlotCache(cacheManager);
+    }
+
+    @Test
+    void shouldLoadPlotOnceUntilItChanges() {
+        plotCache.getPlot(1L, () -> load(plot(1L, 9.93, 76.27)));
+        plotCache.getPlot(1L, () -> load(plot(1L, 9.93, 76.27)));
+        assertThat(loads).hasValue(1);
+
+        plotCache.onPlotChanged(PlotChangedEvent.updated(plot(1L, 9.94, 76.27)));
+        plotCache.getPlot(1L, () -> load(plot(1L, 9.94, 76.27)));
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldDropOnlyPagesAffectedByChange() {
+        // Kochi and Thrissur viewports, and an unfiltered listing
+        PlotCache.QueryKey kochi = new PlotCache.QueryKey("bounds", bounds(9.9, 10.0, 76.2, 76.4), 0L, 10, null);
+        PlotCache.QueryKey thrissur = new PlotCache.QueryKey("bounds", bounds(10.5, 10.6, 76.1, 76.3), 0L, 10, null);
+        PlotCache.QueryKey all = new PlotCache.QueryKey("all", null, 0L, 10, null);
+        plotCache.getPage(kochi, () -> page(plot(1L, 9.93, 76.27)));
+        plotCache.getPage(thrissur, () -> page(plot(3L, 10.52, 76.21)));
+        plotCache.getPage(all, () -> page(plot(1L, 9.93, 76.27), plot(3L, 10.52, 76.21)));
+        assertThat(loads).hasValue(3);
+
+        // A new plot in Kochi leaves the Thrissur page cached
+        plotCache.onPlotChanged(PlotChangedEvent.created(plot(4L, 9.95, 76.28)));
+        plotCache.getPage(thrissur, () -> page());
+        plotCache.getPage(kochi, () -> page());
+        plotCache.getPage(all, () -> page());
+        assertThat(loads).hasValue(5);
+
+        // Moving plot 3 out of Thrissur drops the page that listed it
+        plotCache.onPlotChanged(PlotChangedEvent.updated(plot(3L, 12.97, 77.59)));
+        plotCache.getPage(thrissur, () -> page());
+        assertThat(loads).hasValue(6);
+    }
+
+    private PlotDto load(PlotDto plot) {
+        loads.incrementAndGet();
+        return plot;
+    }
+
+    private Slice<PlotDto> page(PlotDto... plots) {
+        loads.incrementAndGet();
+        return new SliceImpl<>(List.of(plots), PageRequest.of(0, 10), false);
+    }
+
+    private static PlotSearchCriteria bounds(double minLat, double maxLat, double minLng, double maxLng) {
+        return PlotSearchCriteria.builder().minLat(minLat).maxLat(maxLat).minLng(minLng).maxLng(maxLng).build();
+    }
+
+    private static PlotDto plot(Long id, double latitude, double longitude) {
+        return PlotDto.builder().id(id).latitude(latitude).longitude(longitude).build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.company.project.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Records the SQL Hibernate sends, so tests can check the plan of the statements the application really runs
+ * Hibernate creates the inspector itself, hence the shared list.
+ */
+public class CapturingStatementInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    /**
+     * Last statement sent, or null if there was none since the last clear
+     */
+    public static String last() {
+        return STATEMENTS.isEmpty() ? null : STATEMENTS.get(STATEMENTS.size() - 1);
+    }
+}
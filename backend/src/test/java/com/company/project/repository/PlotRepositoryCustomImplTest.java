@@ -0,0 +1,97 @@
+package com.company.project.repository;
+
+import com.company.project.dto.PlotImportRecord;
+import com.company.project.dto.PlotSearchCriteria;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class PlotRepositoryCustomImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PlotRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        repository = new PlotRepositoryCustomImpl(jdbcTemplate);
+    }
+
+    @Test
+    void shouldBuildPrefixTsQueryFromWords() {
+        assertThat(PlotRepositoryCustomImpl.toPrefixTsQuery("  Kakkanad, near Info-park ")).isEqualTo("kakkanad & near & info & park:*");
+        assertThat(PlotRepositoryCustomImpl.toPrefixTsQuery("'&|!:*")).isEmpty();
+    }
+
+    @Test
+    void shouldEmitOnlyPresentFilters() {
+        PlotSearchCriteria criteria = PlotSearchCriteria.builder()
+                .query("kochi")
+                .minPrice(new BigDecimal("1000"))
+                .build();
+
+        repository.searchPlots(criteria, new PlotRepositoryCustom.SearchHit(42L, 0.5f), 11);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), params.capture());
+        assertThat(sql.getValue())
+                .contains("p.price >= ?")
+                .contains("rank < ? OR (rank = ? AND id > ?)")
+                .doesNotContain("p.price <= ?")
+                .doesNotContain("is_for_sale")
+                .doesNotContain("ST_MakeEnvelope");
+        assertThat(params.getValue()).containsExactly("kochi", "kochi:*", "kochi", new BigDecimal("1000"), 0.5f, 0.5f, 42L, 11);
+    }
+
+    @Test
+    void shouldSkipQueryWithoutWords() {
+        assertThat(repository.searchPlots(PlotSearchCriteria.builder().query(" -- ").build(), null, 10)).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void shouldStoreGeocodedImportsAsApproximate() throws Exception {
+        PlotImportRecord record = PlotImportRecord.builder()
+                .source("magicbricks")
+                .externalId("1")
+                .name("Plot in Kakkanad")
+                .price(new BigDecimal("1800000"))
+                .priceUnit("per_sqft")
+                .latitude(10.0159)
+                .longitude(76.3419)
+                .approximate(true)
+                .build();
+
+        repository.upsertImportedPlots(List.of(record), 10.0);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<BatchPreparedStatementSetter> setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), setter.capture());
+        assertThat(sql.getValue())
+                .contains("NOT p.location_approximate")
+                .contains("INSERT INTO plot_deletions")
+                .doesNotContain("now()");
+
+        PreparedStatement statement = mock(PreparedStatement.class);
+        setter.getValue().setValues(statement, 0);
+        // Stored as approximate, and exempt from the distance check
+        verify(statement).setBoolean(10, true);
+        verify(statement).setBoolean(11, true);
+    }
+}
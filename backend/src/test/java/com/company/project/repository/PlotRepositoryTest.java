@@ -1,5 +1,7 @@
 package com.company.project.repository;
 
+import com.company.project.dto.PlotSearchCriteria;
+import com.company.project.dto.PlotWatermark;
 import com.company.project.entity.Plot;
 import com.company.project.util.GeometryUtil;
 import org.junit.jupiter.api.Test;
@@ -7,12 +9,16 @@ import org.locationtech.jts.geom.Point;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import org.springframework.test.context.TestPropertySource;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.StringJoiner;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -25,13 +31,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @TestPropertySource(properties = {
     "spring.datasource.url=jdbc:postgresql://localhost:5432/plotpulse",
-    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect"
+    "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.company.project.repository.CapturingStatementInspector"
 })
 public class PlotRepositoryTest {
 
     @Autowired
     private PlotRepository plotRepository;
     
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
     @Test
     public void shouldSavePlotWithLocation() {
         // Given
@@ -113,6 +123,153 @@ public class PlotRepositoryTest {
         }
     }
     
+    @Test
+    public void shouldRankNearestPlotsByDistanceOnTheGround() {
+        // Given
+        plotRepository.deleteAll();
+        
+        // At 60 degrees north a degree of longitude is half a degree of latitude on the ground:
+        // the eastern plot is fewer degrees away from the center but further in meters
+        Plot north = createTestPlot(60.0090, 10.0, new BigDecimal("500000.00"), "1000 m north");
+        Plot east = createTestPlot(60.0, 10.0160, new BigDecimal("500000.00"), "890 m east");
+        createTestPlot(60.0, 10.2, new BigDecimal("500000.00"), "11 km east");
+        Plot geocoded = createTestPlot(60.0001, 10.0, new BigDecimal("500000.00"), "Geocoded to the center");
+        geocoded.setLocationApproximate(true);
+        plotRepository.save(geocoded);
+        
+        // When
+        List<Plot> nearest = plotRepository.findNearestPlots(60.0, 10.0, 5000, 5);
+        
+        // Then
+        assertThat(nearest).extracting(Plot::getId).containsExactly(east.getId(), north.getId());
+    }
+    
+    @Test
+    public void shouldAdvanceWatermarkWithTombstonesInTheBox() {
+        setupTestPlots();
+        PlotWatermark manhattan = plotRepository.findWatermarkWithinBoundingBox(40.70, -74.02, 40.80, -73.93);
+        
+        // A tombstone elsewhere leaves the box's watermark alone; one inside advances it at the same count
+        jdbcTemplate.update("INSERT INTO plot_deletions (plot_id, latitude, longitude) VALUES (-1, 9.93, 76.26)");
+        assertThat(plotRepository.findWatermarkWithinBoundingBox(40.70, -74.02, 40.80, -73.93)).isEqualTo(manhattan);
+        jdbcTemplate.update("INSERT INTO plot_deletions (plot_id, latitude, longitude) VALUES (-2, 40.75, -73.98)");
+        PlotWatermark afterDelete = plotRepository.findWatermarkWithinBoundingBox(40.70, -74.02, 40.80, -73.93);
+        
+        assertThat(afterDelete.count()).isEqualTo(manhattan.count());
+        assertThat(afterDelete.lastDeletionId()).isNotNull().isNotEqualTo(manhattan.lastDeletionId());
+        assertThat(plotRepository.findWatermark().lastDeletionId()).isEqualTo(afterDelete.lastDeletionId());
+    }
+    
+    @Test
+    public void shouldHoldChangeHorizonAtOpenWriteTransactionInAnySessionTimeZone() {
+        // Writing gives this test's transaction an xid, so the horizon stops at its start
+        setupTestPlots();
+        plotRepository.flush();
+        jdbcTemplate.execute("SET LOCAL TimeZone = 'Pacific/Kiritimati'");
+        Double transactionStart = jdbcTemplate.queryForObject(
+                "SELECT CAST(EXTRACT(EPOCH FROM now()) AS double precision)", Double.class);
+        
+        double horizon = plotRepository.findChangeHorizonEpochSeconds();
+        
+        assertThat(horizon).isLessThanOrEqualTo(transactionStart);
+        assertThat(horizon).isGreaterThan(transactionStart - 3600);
+    }
+    
+    @Test
+    public void shouldPlanPriceRangeWithinUnitOnCompositeIndex() {
+        PlotSearchCriteria criteria = PlotSearchCriteria.builder()
+                .priceUnit("per_sqft")
+                .minPrice(new BigDecimal("1000"))
+                .maxPrice(new BigDecimal("5000"))
+                .build();
+        
+        String plan = explainListing(PlotSpecifications.matching(criteria).and(PlotSpecifications.idAfter(0)), Sort.by("id"));
+        
+        assertThat(plan).contains("idx_plots_price_unit_price");
+    }
+    
+    @Test
+    public void shouldPlanForSaleListingOnPartialIndex() {
+        PlotSearchCriteria criteria = PlotSearchCriteria.builder().isForSale(true).build();
+        
+        String plan = explainListing(PlotSpecifications.matching(criteria).and(PlotSpecifications.idAfter(100)), Sort.by("id"));
+        
+        assertThat(plan).contains("idx_plots_for_sale_id");
+    }
+    
+    @Test
+    public void shouldPlanForSalePriceRangeOnPartialIndex() {
+        PlotSearchCriteria criteria = PlotSearchCriteria.builder()
+                .isForSale(true)
+                .minPrice(new BigDecimal("1000"))
+                .maxPrice(new BigDecimal("5000"))
+                .build();
+        
+        String plan = explainListing(PlotSpecifications.matching(criteria).and(PlotSpecifications.idAfter(0)), Sort.by("id"));
+        
+        assertThat(plan).contains("idx_plots_for_sale_price");
+    }
+    
+    @Test
+    public void shouldPlanNormalizedPriceOrderOnPricePerSqmIndex() {
+        PlotSearchCriteria criteria = PlotSearchCriteria.builder()
+                .minPricePerSqm(new BigDecimal("1000"))
+                .maxPricePerSqm(new BigDecimal("5000"))
+                .build();
+        
+        String plan = explainListing(
+                PlotSpecifications.matching(criteria).and(PlotSpecifications.pricePerSqmAfter(null, 0, false)),
+                Sort.by(Sort.Direction.ASC, "pricePerSqm", "id"));
+        
+        assertThat(plan).contains("idx_plots_price_per_sqm");
+    }
+    
+    /**
+     * Run a listing page as the service does and explain the SQL Hibernate generated for it
+     * The table is filled with enough rows for the planner to choose by cost, and the statement is
+     * explained as a generic prepared plan, which does not depend on the bound values.
+     */
+    private String explainListing(Specification<Plot> specification, Sort sort) {
+        setupListingPlots();
+        CapturingStatementInspector.clear();
+        plotRepository.findBy(specification, query -> query.sortBy(sort).limit(11).all());
+        String sql = CapturingStatementInspector.last();
+        assertThat(sql).isNotNull();
+        
+        // PREPARE takes numbered parameters; any values do for a generic plan
+        StringBuilder numbered = new StringBuilder();
+        StringJoiner arguments = new StringJoiner(", ");
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameters);
+                arguments.add("NULL");
+            } else {
+                numbered.append(c);
+            }
+        }
+        jdbcTemplate.execute("PREPARE listing AS " + numbered);
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN EXECUTE listing(" + arguments + ")", String.class));
+        jdbcTemplate.execute("DEALLOCATE listing");
+        return plan;
+    }
+    
+    /**
+     * Fill the table with plots spread over units, prices and sale status, then refresh its statistics
+     */
+    private void setupListingPlots() {
+        plotRepository.deleteAll();
+        jdbcTemplate.update("INSERT INTO plots (name, price, price_unit, is_for_sale, location, latitude, longitude, " +
+                "price_per_sqm, created_at, updated_at) " +
+                "SELECT 'Plot ' || g, (g * 7919) % 1000000, " +
+                "(ARRAY['per_sqft', 'per_sqm', 'per_cent', 'per_acre', 'per_hectare'])[g % 5 + 1], g % 7 = 0, " +
+                "ST_SetSRID(ST_MakePoint(76 + (g % 100) / 100.0, 9 + (g / 100) / 100.0), 4326), " +
+                "9 + (g / 100) / 100.0, 76 + (g % 100) / 100.0, (g * 104729) % 1000000, now(), now() " +
+                "FROM generate_series(1, 20000) AS g");
+        jdbcTemplate.execute("ANALYZE plots");
+    }
+    
     /**
      * Helper method to set up test plots with various locations
      */
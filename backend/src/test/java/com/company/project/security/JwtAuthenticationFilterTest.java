@@ -5,12 +5,17 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import com.company.project.dto.UserAccount;
+import com.company.project.entity.User;
+import com.company.project.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
+import java.util.Optional;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class JwtAuthenticationFilterTest {
@@ -18,22 +23,20 @@ class JwtAuthenticationFilterTest {
     @Mock
     private JwtService jwtService;
     @Mock
-    private UserDetailsService userDetailsService;
+    private UserRepository userRepository;
     @Mock
     private HttpServletRequest request;
     @Mock
     private HttpServletResponse response;
     @Mock
     private FilterChain filterChain;
-    @Mock
-    private UserDetails userDetails;
 
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtService, userDetailsService);
+        jwtAuthenticationFilter = new JwtAuthenticationFilter(jwtService, userRepository);
     }
 
     @Test
@@ -53,8 +56,9 @@ class JwtAuthenticationFilterTest {
         
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
         when(jwtService.extractUsername(token)).thenReturn(username);
-        when(userDetailsService.loadUserByUsername(username)).thenReturn(userDetails);
-        when(jwtService.isTokenValid(token, userDetails)).thenReturn(true);
+        when(userRepository.findAccountByUsername(username)).thenReturn(Optional.of(
+                new UserAccount(1L, username, "User", username, User.Role.USER, User.Status.ACTIVE)));
+        when(jwtService.isTokenValid(eq(token), any(UserDetails.class))).thenReturn(true);
         
         // Ensure SecurityContext is empty (no existing authentication)
         org.springframework.security.core.context.SecurityContextHolder.clearContext();
@@ -63,7 +67,7 @@ class JwtAuthenticationFilterTest {
         
         verify(filterChain).doFilter(request, response);
         verify(jwtService).extractUsername(token);
-        verify(userDetailsService).loadUserByUsername(username);
-        verify(jwtService).isTokenValid(token, userDetails);
+        verify(userRepository).findAccountByUsername(username);
+        verify(jwtService).isTokenValid(eq(token), any(UserDetails.class));
     }
 } 
\ No newline at end of file
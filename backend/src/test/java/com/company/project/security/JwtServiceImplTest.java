@@ -0,0 +1,87 @@
+package com.company.project.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.company.project.entity.User.Role;
+
+import io.jsonwebtoken.security.SignatureException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+class JwtServiceImplTest {
+
+    private static final String SECRET = "V1R5cUI0TUE3RDdTbkhGcXFkSktHV3d0WWVKY3ZXM2U1UEQyNGxLRjN3cQ==";
+
+    @Mock
+    private UserAuthStateCache userAuthStateCache;
+
+    private JwtServiceImpl jwtService;
+    private UserDetails userDetails;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        jwtService = new JwtServiceImpl(userAuthStateCache);
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "claimsCacheMaxSize", 100L);
+        jwtService.init();
+        userDetails = User.withUsername("user@example.com").password("password").roles("USER").build();
+    }
+
+    @Test
+    void shouldValidateGeneratedToken() {
+        String token = jwtService.generateToken(userDetails);
+
+        assertThat(jwtService.extractUsername(token)).isEqualTo("user@example.com");
+        assertThat(jwtService.isTokenValid(token, userDetails)).isTrue();
+        assertThat(jwtService.isTokenValid(token,
+                User.withUsername("other@example.com").password("password").roles("USER").build())).isFalse();
+    }
+
+    @Test
+    void shouldResolvePrincipalFromClaimsUnlessRevoked() {
+        com.company.project.entity.User user = new com.company.project.entity.User();
+        user.setId(7L);
+        user.setUsername("owner");
+        user.setName("Plot Owner");
+        user.setEmail("owner@example.com");
+        user.setRole(Role.USER);
+        user.setTokenVersion(3);
+        String token = jwtService.generateToken(user);
+
+        when(userAuthStateCache.isCurrent(7L, 3, "USER")).thenReturn(true);
+        assertThat(jwtService.resolvePrincipal(token)).get()
+                .isInstanceOfSatisfying(com.company.project.entity.User.class, principal -> {
+                    assertThat(principal.getId()).isEqualTo(7L);
+                    assertThat(principal.getUsername()).isEqualTo("owner");
+                    assertThat(principal.getEmail()).isEqualTo("owner@example.com");
+                    assertThat(principal.getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+                });
+
+        when(userAuthStateCache.isCurrent(anyLong(), anyInt(), anyString())).thenReturn(false);
+        assertThat(jwtService.resolvePrincipal(token)).isEmpty();
+    }
+
+    @Test
+    void shouldRejectTamperedTokenEvenAfterOriginalWasCached() {
+        String token = jwtService.generateToken(userDetails);
+        jwtService.extractUsername(token);
+
+        String[] parts = token.split("\\.");
+        String tampered = parts[0] + "." + parts[1] + "." + new StringBuilder(parts[2]).reverse();
+
+        assertThatThrownBy(() -> jwtService.extractUsername(tampered)).isInstanceOf(SignatureException.class);
+    }
+}
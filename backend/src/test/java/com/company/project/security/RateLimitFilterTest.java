@@ -0,0 +1,49 @@
+package com.company.project.security;
+
+import com.company.project.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setAuth(new RateLimitProperties.EndpointLimit(2, 60));
+        RateLimitBucketStore bucketStore = new RateLimitBucketStore(properties, null);
+        bucketStore.init();
+        rateLimitFilter = new RateLimitFilter(properties, bucketStore);
+        rateLimitFilter.init();
+    }
+
+    @Test
+    void shouldRejectRequestsOverTheLimitPerClientAndEndpoint() throws Exception {
+        assertThat(send("/api/v1/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        MockHttpServletResponse second = send("/api/v1/auth/login", "10.0.0.1");
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(second.getHeader("X-RateLimit-Remaining")).isEqualTo("0");
+
+        MockHttpServletResponse rejected = send("/api/v1/auth/login", "10.0.0.1");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isNotNull();
+
+        // Other clients and other endpoints have their own buckets
+        assertThat(send("/api/v1/auth/login", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(send("/api/v1/plots", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+
+    private MockHttpServletResponse send(String path, String clientIp) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(clientIp);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
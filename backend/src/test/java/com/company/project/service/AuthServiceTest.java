@@ -7,6 +7,7 @@ import com.company.project.entity.User;
 import com.company.project.repository.PasswordResetTokenRepository;
 import com.company.project.repository.UserRepository;
 import com.company.project.security.JwtService;
+import com.company.project.security.UserAuthStateCache;
 import com.company.project.service.impl.AuthServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,6 +47,9 @@ class AuthServiceTest {
     @Mock
     private PasswordResetTokenRepository passwordResetTokenRepository;
     
+    @Mock
+    private UserAuthStateCache userAuthStateCache;
+    
     @Mock
     private Authentication authentication;
     
@@ -62,7 +66,8 @@ class AuthServiceTest {
             userRepository,
             passwordEncoder,
             emailService,
-            passwordResetTokenRepository
+            passwordResetTokenRepository,
+            userAuthStateCache
         );
     }
     
@@ -0,0 +1,145 @@
+package com.company.project.service;
+
+import com.company.project.config.CacheConfig;
+import com.company.project.config.GeocodingProperties;
+import com.company.project.entity.GeocodingCacheEntry;
+import com.company.project.repository.GeocodingCacheEntryRepository;
+import com.company.project.service.impl.NominatimGeocodingService;
+import com.company.project.spatial.LocalityGazetteer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import com.company.project.exception.GeocodingBusyException;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class NominatimGeocodingServiceTest {
+
+    @Mock
+    private GeocodingCacheEntryRepository cacheEntryRepository;
+
+    private GeocodingProperties properties;
+
+    private LocalityGazetteer gazetteer;
+
+    private NominatimGeocodingService geocodingService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new GeocodingProperties();
+        // Unroutable, so any upstream call would fail the test
+        properties.setBaseUrl("http://127.0.0.1:9");
+        gazetteer = new LocalityGazetteer(properties);
+        geocodingService = createService();
+    }
+
+    private NominatimGeocodingService createService() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(CacheConfig.GEOCODING_SEARCH, Caffeine.newBuilder().buildAsync());
+        return new NominatimGeocodingService(properties, new ObjectMapper(), cacheManager, cacheEntryRepository, gazetteer);
+    }
+
+    @Test
+    void shouldServeEquivalentQueriesFromOneCacheEntry() {
+        String response = "[{\"lat\":\"9.9312\",\"lon\":\"76.2673\",\"display_name\":\"Kochi, Kerala, India\"}]";
+        when(cacheEntryRepository.findById("1:kochi kerala")).thenReturn(Optional.of(GeocodingCacheEntry.builder()
+                .cacheKey("1:kochi kerala")
+                .response(response)
+                .fetchedAt(LocalDateTime.now().minusDays(1))
+                .build()));
+
+        assertThat(geocodingService.search("  Kochi   Kerala ", 1)).isEqualTo(response);
+        assertThat(geocodingService.search("kochi kerala", 1)).isEqualTo(response);
+        assertThat(geocodingService.geocode("KOCHI KERALA")).get()
+                .satisfies(location -> assertThat(location.getLatitude()).isEqualTo(9.9312));
+
+        verify(cacheEntryRepository, times(1)).findById("1:kochi kerala");
+    }
+
+    @Test
+    void shouldAnswerFromGazetteerWithoutCallingUpstream() throws Exception {
+        gazetteer.load(new ByteArrayResource(
+                "Kakkanad,Kerala,10.0159,76.3419\nKochi,Kerala,9.9312,76.2673\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(geocodingService.geocode("Kakkanad, Kochi")).get()
+                .satisfies(location -> assertThat(location.getSource()).isEqualTo("gazetteer"));
+        assertThat(geocodingService.reverseAsync(10.02, 76.34).join()).get()
+                .satisfies(location -> assertThat(location.getLocality()).isEqualTo("Kakkanad"));
+
+        verifyNoInteractions(cacheEntryRepository);
+    }
+
+    @Test
+    void shouldReportBatchMissesPerQuery() throws Exception {
+        properties.setMaxConcurrentRequests(0);
+        when(cacheEntryRepository.findById(anyString())).thenReturn(Optional.empty());
+        geocodingService = createService();
+        gazetteer.load(new ByteArrayResource(
+                "Kakkanad,Kerala,10.0159,76.3419\n".getBytes(StandardCharsets.UTF_8)));
+
+        var results = geocodingService.geocodeBatchAsync(List.of("Kakkanad", "Nowhere Town")).join().getResults();
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).getLocation().getLocality()).isEqualTo("Kakkanad");
+        assertThat(results.get(1).getLocation()).isNull();
+        assertThat(results.get(1).getError()).isNotBlank();
+    }
+
+    @Test
+    void shouldFailFastWhenNoUpstreamPermitIsFree() {
+        properties.setMaxConcurrentRequests(0);
+        when(cacheEntryRepository.findById("5:whitefield bangalore")).thenReturn(Optional.empty());
+        geocodingService = createService();
+
+        assertThatThrownBy(() -> geocodingService.searchAsync("Whitefield Bangalore", 5).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(GeocodingBusyException.class);
+    }
+
+    @Test
+    void shouldWaitForPermitBeforeTouchingTheExecutorWhenBlocking() {
+        properties.setMaxConcurrentRequests(0);
+        properties.setTimeoutSeconds(1);
+        geocodingService = createService();
+
+        assertThatThrownBy(() -> geocodingService.search("Whitefield Main Road", 5))
+                .isInstanceOf(GeocodingBusyException.class);
+        verifyNoInteractions(cacheEntryRepository);
+    }
+
+    @Test
+    void shouldDeleteResponsesOlderThanTheTtl() {
+        properties.setPersistentCacheTtlDays(30);
+        when(cacheEntryRepository.deleteFetchedBefore(any())).thenReturn(3);
+
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+        geocodingService.deleteExpiredEntries();
+        LocalDateTime after = LocalDateTime.now().minusDays(30);
+
+        verify(cacheEntryRepository).deleteFetchedBefore(argThat(cutoff ->
+                !cutoff.isBefore(before) && !cutoff.isAfter(after)));
+    }
+
+    @Test
+    void shouldKeepRunningWhenCleanupFails() {
+        when(cacheEntryRepository.deleteFetchedBefore(any())).thenThrow(new RuntimeException("connection refused"));
+
+        geocodingService.deleteExpiredEntries();
+
+        verify(cacheEntryRepository).deleteFetchedBefore(any());
+    }
+}
@@ -0,0 +1,142 @@
+package com.company.project.service;
+
+import com.company.project.config.JacksonConfig;
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotMapper;
+import com.company.project.entity.Plot;
+import com.company.project.exception.ExportCapacityException;
+import com.company.project.exception.InvalidCoordinateException;
+import com.company.project.repository.PlotRepository;
+import com.company.project.service.impl.PlotExportServiceImpl;
+import com.company.project.util.GeometryUtil;
+import com.company.project.util.SecurityUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PlotExportServiceTest {
+
+    @Mock
+    private PlotRepository plotRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    private final PlotProperties plotProperties = new PlotProperties();
+
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+
+    private PlotExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new PlotExportServiceImpl(plotRepository, new PlotMapper(), objectMapper, entityManager,
+                plotProperties, securityUtils);
+        when(plotRepository.streamPlotsIntersecting(anyString())).thenAnswer(i -> Stream.of(
+                createPlot(1L, 9.9312, 76.2673),
+                createPlot(2L, 9.9816, 76.2999)));
+    }
+
+    @Test
+    void shouldWriteOnePlotPerLineAsNdjson() throws Exception {
+        Geometry region = exportService.resolveRegion(9.9, 10.0, 76.2, 76.4, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportPlots(region, PlotExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(count).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readTree(lines[1]).get("id").asLong()).isEqualTo(2L);
+        verify(entityManager, times(2)).detach(any(Plot.class));
+    }
+
+    @Test
+    void shouldWriteFeatureCollectionAsGeoJson() throws Exception {
+        Geometry region = exportService.resolveRegion(null, null, null, null,
+                "POLYGON((76.2 9.9, 76.4 9.9, 76.4 10.0, 76.2 10.0, 76.2 9.9))");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportPlots(region, PlotExportService.Format.GEOJSON, out);
+
+        JsonNode collection = objectMapper.readTree(out.toByteArray());
+        assertThat(collection.get("type").asText()).isEqualTo("FeatureCollection");
+        assertThat(collection.get("features")).hasSize(2);
+        JsonNode coordinates = collection.get("features").get(0).get("geometry").get("coordinates");
+        assertThat(coordinates.get(0).asDouble()).isEqualTo(76.2673);
+        assertThat(coordinates.get(1).asDouble()).isEqualTo(9.9312);
+    }
+
+    @Test
+    void shouldRejectInvalidRegions() {
+        assertThatThrownBy(() -> exportService.resolveRegion(null, null, null, null, "POINT(76.2 9.9)"))
+                .isInstanceOf(InvalidCoordinateException.class);
+        assertThatThrownBy(() -> exportService.resolveRegion(10.0, 9.9, 76.2, 76.4, null))
+                .isInstanceOf(InvalidCoordinateException.class);
+        assertThatThrownBy(() -> exportService.resolveRegion(9.9, 10.0, null, 76.4, null))
+                .isInstanceOf(InvalidCoordinateException.class);
+    }
+
+    @Test
+    void shouldLimitConcurrentExportsPerUser() {
+        when(securityUtils.getCurrentUserId()).thenReturn(Optional.of(7L));
+
+        PlotExportService.Permit permit = exportService.reserve();
+        assertThatThrownBy(() -> exportService.reserve()).isInstanceOf(ExportCapacityException.class);
+
+        permit.close();
+        exportService.reserve();
+    }
+
+    @Test
+    void shouldLimitConcurrentExportsPerInstance() {
+        plotProperties.getExport().setMaxConcurrent(2);
+        plotProperties.getExport().setMaxConcurrentPerUser(10);
+        exportService = new PlotExportServiceImpl(plotRepository, new PlotMapper(), objectMapper, entityManager,
+                plotProperties, securityUtils);
+        when(securityUtils.getCurrentUserId()).thenReturn(Optional.of(7L));
+
+        // Closing twice must not free a second slot
+        PlotExportService.Permit permit = exportService.reserve();
+        permit.close();
+        permit.close();
+        exportService.reserve();
+        exportService.reserve();
+
+        assertThatThrownBy(() -> exportService.reserve())
+                .isInstanceOf(ExportCapacityException.class)
+                .extracting("retryAfterSeconds").isEqualTo(30L);
+    }
+
+    private Plot createPlot(Long id, double latitude, double longitude) {
+        Plot plot = new Plot();
+        plot.setId(id);
+        plot.setPrice(new BigDecimal("1000.00"));
+        plot.setPriceUnit("sqft");
+        plot.setIsForSale(true);
+        plot.setLocation(GeometryUtil.createPoint(latitude, longitude));
+        plot.setLatitude(latitude);
+        plot.setLongitude(longitude);
+        return plot;
+    }
+}
@@ -0,0 +1,119 @@
+package com.company.project.service;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.GeocodedLocation;
+import com.company.project.dto.PlotImportRecord;
+import com.company.project.entity.PlotImportCheckpoint;
+import com.company.project.event.PlotsReloadedEvent;
+import com.company.project.repository.PlotImportCheckpointRepository;
+import com.company.project.repository.PlotRepository;
+import com.company.project.service.impl.PlotImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PlotImportServiceTest {
+
+    // One JSONL line per listing; no coordinates, so the importer geocodes the locality
+    private static final String KAKKANAD_LISTING = "{\"source\": \"magicbricks\", \"city\": \"Kochi\", "
+            + "\"locality\": \"Kakkanad\", \"title\": \"Plot in Kakkanad\", \"price\": {\"amount\": 1800000}, "
+            + "\"area_sqyd\": 200, \"metadata\": {\"api_listing_id\": \"%s\"}}";
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private PlotRepository plotRepository;
+
+    @Mock
+    private PlotImportCheckpointRepository checkpointRepository;
+
+    @Mock
+    private GeocodingService geocodingService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PlotImportService importService;
+
+    private PlotImportCheckpoint checkpoint;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        PlotProperties plotProperties = new PlotProperties();
+        plotProperties.getImports().setDirectory(directory.toString());
+        plotProperties.getImports().setParallelism(1);
+        importService = new PlotImportServiceImpl(plotRepository, checkpointRepository, geocodingService,
+                eventPublisher, plotProperties, new ObjectMapper(),
+                transactionManager, new SimpleMeterRegistry());
+
+        when(checkpointRepository.findByFileNameAndFingerprint(anyString(), anyString())).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any(PlotImportCheckpoint.class))).thenAnswer(invocation -> {
+            checkpoint = invocation.getArgument(0);
+            checkpoint.setId(1L);
+            return checkpoint;
+        });
+        when(checkpointRepository.findById(1L)).thenAnswer(invocation -> Optional.of(checkpoint));
+        when(plotRepository.upsertImportedPlots(anyList(), anyDouble()))
+                .thenAnswer(invocation -> {
+                    int[] rows = new int[((List<?>) invocation.getArgument(0)).size()];
+                    Arrays.fill(rows, 1);
+                    return rows;
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepListingsGeocodedToTheSameLocality() throws Exception {
+        Files.writeString(directory.resolve("kochi.jsonl"),
+                KAKKANAD_LISTING.formatted("1") + "\n" + KAKKANAD_LISTING.formatted("2") + "\n");
+        when(geocodingService.geocode("Kakkanad, Kochi, India")).thenReturn(Optional.of(
+                GeocodedLocation.builder().latitude(10.0159).longitude(76.3419).build()));
+
+        importService.importFile("kochi.jsonl");
+
+        ArgumentCaptor<List<PlotImportRecord>> records = ArgumentCaptor.forClass(List.class);
+        verify(plotRepository).upsertImportedPlots(records.capture(), anyDouble());
+        assertThat(records.getValue()).extracting(PlotImportRecord::getExternalId).containsExactly("1", "2");
+        assertThat(records.getValue()).allMatch(PlotImportRecord::isApproximate);
+        verify(geocodingService, times(1)).geocode(anyString());
+        assertThat(checkpoint.getWrittenCount()).isEqualTo(2);
+        assertThat(checkpoint.getDuplicateCount()).isZero();
+        // Imported rows have no change events, so every instance reloads its plots
+        ArgumentCaptor<PlotsReloadedEvent> reload = ArgumentCaptor.forClass(PlotsReloadedEvent.class);
+        verify(eventPublisher).publishEvent(reload.capture());
+        assertThat(reload.getValue().isRemote()).isFalse();
+    }
+
+    @Test
+    void shouldRecordUnexpectedErrorsAsFailure() throws Exception {
+        Files.writeString(directory.resolve("kochi.jsonl"), KAKKANAD_LISTING.formatted("1") + "\n");
+        when(geocodingService.geocode(anyString())).thenThrow(new IllegalStateException("Geocoding executor shut down"));
+
+        PlotImportCheckpoint result = importService.importFile("kochi.jsonl");
+
+        assertThat(result.getStatus()).isEqualTo(PlotImportCheckpoint.Status.FAILED);
+        assertThat(result.getErrorMessage()).isEqualTo("Geocoding executor shut down");
+    }
+}
@@ -0,0 +1,357 @@
+package com.company.project.service;
+
+import com.company.project.cache.PlotCache;
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotClusterDto;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotMapper;
+import com.company.project.dto.PlotSearchCriteria;
+import com.company.project.dto.PlotWatermark;
+import com.company.project.dto.response.BulkPlotResponse;
+import com.company.project.dto.response.PlotChangesPage;
+import com.company.project.entity.Plot;
+import com.company.project.entity.PlotDeletion;
+import com.company.project.entity.User;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.event.PlotsCreatedEvent;
+import com.company.project.exception.BulkRequestTooLargeException;
+import com.company.project.repository.PlotDeletionRepository;
+import com.company.project.repository.PlotRepository;
+import com.company.project.repository.UserRepository;
+import com.company.project.service.impl.PlotServiceImpl;
+import com.company.project.spatial.PlotPriceGrid;
+import com.company.project.spatial.PlotSpatialIndex;
+import com.company.project.util.GeometryUtil;
+import com.company.project.util.PlotCursor;
+import com.company.project.util.SecurityUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PlotServiceTest {
+
+    @Mock
+    private PlotRepository plotRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SecurityUtils securityUtils;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlotCache plotCache;
+
+    @Mock
+    private PlotDeletionRepository plotDeletionRepository;
+
+    @Mock
+    private PlotPriceGrid plotPriceGrid;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PlotProperties plotProperties;
+
+    private PlotSpatialIndex plotSpatialIndex;
+
+    private PlotService plotService;
+
+    private Plot plot;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        plotProperties = new PlotProperties();
+        PlotMapper plotMapper = new PlotMapper();
+        plotSpatialIndex = new PlotSpatialIndex(plotRepository, plotMapper, plotProperties, transactionManager);
+        plotService = new PlotServiceImpl(plotRepository, plotMapper, userRepository, securityUtils, plotProperties,
+                plotSpatialIndex, eventPublisher, validator, entityManager, plotCache, plotDeletionRepository, plotPriceGrid);
+
+        User owner = new User();
+        owner.setId(7L);
+        plot = new Plot();
+        plot.setId(1L);
+        plot.setUser(owner);
+        plot.setPrice(new BigDecimal("1000.00"));
+        plot.setPriceUnit("per_sqft");
+        plot.setIsForSale(true);
+        plot.setLocation(GeometryUtil.createPoint(9.9312, 76.2673));
+        plot.setLatitude(9.9312);
+        plot.setLongitude(76.2673);
+        plot.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+
+        when(plotRepository.findAll()).thenReturn(List.of(plot));
+        plotSpatialIndex.reload();
+
+        when(securityUtils.getCurrentUser()).thenReturn(Optional.of(owner));
+        when(plotRepository.findById(1L)).thenReturn(Optional.of(plot));
+        // Hibernate only sets @UpdateTimestamp when the change is flushed
+        when(plotRepository.saveAndFlush(any(Plot.class))).thenAnswer(invocation -> {
+            Plot flushed = invocation.getArgument(0);
+            flushed.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 8, 30));
+            return flushed;
+        });
+        // Deliver events to the index as the transactional listener would after commit
+        doAnswer(invocation -> {
+            plotSpatialIndex.onPlotChanged(invocation.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(any(PlotChangedEvent.class));
+        doAnswer(invocation -> {
+            plotSpatialIndex.onPlotsCreated(invocation.getArgument(0));
+            return null;
+        }).when(eventPublisher).publishEvent(any(PlotsCreatedEvent.class));
+    }
+
+    @Test
+    void shouldChangeWatermarksWhenPriceIsUpdated() {
+        PlotWatermark kochi = plotSpatialIndex.watermarkInBounds(9.9, 10.0, 76.2, 76.4);
+
+        PlotDto update = new PlotDto();
+        update.setPrice(new BigDecimal("1200.00"));
+        PlotDto updated = plotService.updatePlot(1L, update);
+
+        assertThat(updated.getUpdatedAt()).isEqualTo(LocalDateTime.of(2024, 1, 2, 8, 30));
+        assertThat(plotSpatialIndex.watermarkInBounds(9.9, 10.0, 76.2, 76.4)).isNotEqualTo(kochi);
+        verify(plotRepository, never()).save(any(Plot.class));
+    }
+
+    @Test
+    void shouldReadWatermarkFromDatabaseEvenWhenIndexIsReady() {
+        PlotWatermark database = new PlotWatermark(2, LocalDateTime.of(2024, 1, 3, 9, 0), 12L);
+        when(plotRepository.findWatermarkWithinBoundingBox(9.9, 76.2, 10.0, 76.4)).thenReturn(database);
+
+        assertThat(plotService.getWatermark(9.9, 10.0, 76.2, 76.4)).isEqualTo(database);
+    }
+
+    @Test
+    void shouldServeBoundsFromIndexOnlyOnceItHasCaughtUp() {
+        when(plotCache.getPage(any(), any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(plotRepository.findPlotsWithinBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyLong(), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+        // The database's time is rounded to microseconds, the index's still carries nanoseconds
+        plot.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0, 0, 1_000_200));
+        plotSpatialIndex.reload();
+        PlotWatermark caughtUp = new PlotWatermark(1, LocalDateTime.of(2024, 1, 1, 12, 0, 0, 1_000_000), null);
+        // A plot created on another instance that the index has not heard of yet
+        PlotWatermark ahead = new PlotWatermark(2, LocalDateTime.of(2024, 1, 1, 12, 5), null);
+
+        assertThat(plotService.getPlotsInBounds(9.9, 10.0, 76.2, 76.4, 0, 10, caughtUp).getContent())
+                .extracting(PlotDto::getId).containsExactly(1L);
+        verify(plotRepository, never()).findPlotsWithinBoundingBox(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyLong(), any());
+
+        plotService.getPlotsInBounds(9.9, 10.0, 76.2, 76.4, 0, 10, ahead);
+        verify(plotRepository).findPlotsWithinBoundingBox(eq(9.9), eq(76.2), eq(10.0), eq(76.4), eq(0L), any());
+    }
+
+    @Test
+    void shouldPageTombstonesBeforePlots() {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<PlotDeletion> deletions = List.of(tombstone(11L, 2L, 1), tombstone(12L, 3L, 2), tombstone(13L, 4L, 3));
+        when(plotDeletionRepository.findPageAfter(eq(since), eq(since), eq(0L), any()))
+                .thenReturn(deletions);
+
+        PlotChangesPage first = plotService.getPlotChanges(since, PlotSearchCriteria.builder().build(), null, 2);
+
+        assertThat(first.getDeleted()).extracting(PlotChangesPage.Tombstone::id).containsExactly(2L, 3L);
+        assertThat(first.getPlots()).isEmpty();
+        assertThat(PlotCursor.decodeDeleted(first.getNextCursor()))
+                .isEqualTo(new PlotCursor.ChangedPosition(LocalDateTime.of(2024, 1, 1, 2, 0), 12L));
+        verify(plotRepository, never()).findBy(any(Specification.class), any());
+    }
+
+    @Test
+    void shouldLeaveOutTombstonesOfPlotsOnTheSamePage() {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        when(plotDeletionRepository.findPageAfter(eq(since), eq(since), eq(0L), any()))
+                .thenReturn(List.of(tombstone(11L, 1L, 1), tombstone(12L, 2L, 2)));
+        doReturn(List.of(plot)).when(plotRepository).findBy(any(Specification.class), any());
+
+        PlotChangesPage page = plotService.getPlotChanges(since, PlotSearchCriteria.builder().build(), null, 2);
+
+        assertThat(page.getPlots()).extracting(PlotDto::getId).containsExactly(1L);
+        assertThat(page.getDeleted()).extracting(PlotChangesPage.Tombstone::id).containsExactly(2L);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void shouldHoldWatermarkBeforeOpenWriteTransactions() {
+        LocalDateTime since = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime openSince = LocalDateTime.of(2024, 1, 1, 1, 0, 0, 500_000_000);
+        when(plotRepository.findChangeHorizonEpochSeconds())
+                .thenReturn(openSince.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / 1000.0);
+        doReturn(List.of()).when(plotRepository).findBy(any(Specification.class), any());
+
+        PlotChangesPage page = plotService.getPlotChanges(since, PlotSearchCriteria.builder().build(), null, 2);
+
+        // Trails the open transaction by the commit lag, truncated to seconds
+        assertThat(page.getWatermark()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 59, 55));
+    }
+
+    @Test
+    void shouldRejectBulkRequestsOverTheLimit() {
+        plotProperties.getBulk().setMaxPlots(2);
+        List<PlotDto> plots = List.of(bulkPlot(9.95, 76.30), bulkPlot(9.96, 76.30), bulkPlot(9.97, 76.30));
+
+        assertThatThrownBy(() -> plotService.createPlots(plots)).isInstanceOf(BulkRequestTooLargeException.class);
+        verify(plotRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void shouldReportBulkRejectionsByRequestIndex() {
+        PlotDto badUnit = bulkPlot(9.99, 76.30);
+        badUnit.setPriceUnit("per_furlong");
+        List<PlotDto> plots = List.of(
+                bulkPlot(9.95, 76.30),
+                badUnit,
+                bulkPlot(9.95001, 76.30),
+                bulkPlot(9.97, 76.31),
+                bulkPlot(10.20, 76.40));
+        // Positions are among the plots that passed validation: 0, 2, 3 and 4 of the request
+        when(plotRepository.findPositionsNearExistingPlots(any(), any(), anyDouble())).thenReturn(Set.of(2));
+        stubSaveAll();
+
+        BulkPlotResponse response = plotService.createPlots(plots);
+
+        assertThat(response.getReceived()).isEqualTo(5);
+        assertThat(response.getCreatedIds()).containsExactly(100L, 101L);
+        assertThat(response.getRejected()).extracting(BulkPlotResponse.Rejection::getIndex).containsExactly(1, 2, 3);
+        assertThat(response.getRejected().get(0).getReason()).startsWith("Price unit must be one of");
+        assertThat(response.getRejected().get(1).getReason()).startsWith("Another plot in this request");
+        assertThat(response.getRejected().get(2).getReason()).startsWith("An existing plot");
+        // Unset sale status defaults on the entity; the request itself is left alone
+        assertThat(plots.get(0).getIsForSale()).isNull();
+        assertThat(plotSpatialIndex.findInBounds(9.9, 10.3, 76.2, 76.5)).extracting(PlotDto::getIsForSale).containsOnly(true);
+    }
+
+    @Test
+    void shouldFlushBulkInsertsInChunksAndPublishOneEvent() {
+        plotProperties.getBulk().setFlushSize(2);
+        List<PlotDto> plots = List.of(bulkPlot(10.01, 76.30), bulkPlot(10.02, 76.30), bulkPlot(10.03, 76.30),
+                bulkPlot(10.04, 76.30), bulkPlot(10.05, 76.30));
+        when(plotRepository.findPositionsNearExistingPlots(any(), any(), anyDouble())).thenReturn(Set.of());
+        stubSaveAll();
+
+        BulkPlotResponse response = plotService.createPlots(plots);
+
+        assertThat(response.getCreated()).isEqualTo(5);
+        verify(plotRepository, times(3)).saveAll(anyList());
+        verify(plotRepository, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+        ArgumentCaptor<PlotsCreatedEvent> event = ArgumentCaptor.forClass(PlotsCreatedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().getPlots()).extracting(PlotDto::getId).containsExactly(100L, 101L, 102L, 103L, 104L);
+        assertThat(plotSpatialIndex.size()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldDeriveClusterCellSizeFromZoom() {
+        // 64 pixel cells: a quarter of the 256 pixel world at zoom 0, halving with every level
+        plotService.getPlotClusters(9.0, 11.0, 75.0, 77.0, 0);
+        plotService.getPlotClusters(9.0, 11.0, 75.0, 77.0, 10);
+        // Out of range zooms are clamped to [0, maxZoom]
+        plotService.getPlotClusters(9.0, 11.0, 75.0, 77.0, -3);
+        plotService.getPlotClusters(9.0, 11.0, 75.0, 77.0, 30);
+
+        ArgumentCaptor<Double> cellSize = ArgumentCaptor.forClass(Double.class);
+        verify(plotRepository, times(4)).findClusterBuckets(eq(9.0), eq(75.0), eq(11.0), eq(77.0), cellSize.capture());
+        assertThat(cellSize.getAllValues()).containsExactly(90.0, 90.0 / 1024, 90.0, 90.0 / (1 << 22));
+    }
+
+    @Test
+    void shouldMergePriceUnitsOfOneCellWeightedByCount() {
+        List<PlotRepository.ClusterBucket> buckets = List.of(
+                clusterBucket(5, 7, "per_sqft", 3, 10.0, 76.0),
+                clusterBucket(6, 7, "per_sqft", 2, 10.6, 76.6),
+                clusterBucket(5, 7, "per_cent", 1, 10.4, 76.4));
+        when(plotRepository.findClusterBuckets(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenReturn(buckets);
+
+        List<PlotClusterDto> clusters = plotService.getPlotClusters(9.0, 11.0, 75.0, 77.0, 10);
+
+        assertThat(clusters).hasSize(2);
+        PlotClusterDto merged = clusters.get(0);
+        assertThat(merged.getCount()).isEqualTo(4);
+        assertThat(merged.getLatitude()).isCloseTo(10.1, within(1e-9));
+        assertThat(merged.getLongitude()).isCloseTo(76.1, within(1e-9));
+        assertThat(merged.getPrices()).extracting(PlotClusterDto.PriceStats::getPriceUnit)
+                .containsExactly("per_sqft", "per_cent");
+        assertThat(merged.getPrices()).extracting(PlotClusterDto.PriceStats::getCount).containsExactly(3L, 1L);
+        assertThat(clusters.get(1).getCount()).isEqualTo(2);
+        assertThat(clusters.get(1).getLatitude()).isEqualTo(10.6);
+    }
+
+    private void stubSaveAll() {
+        AtomicLong nextId = new AtomicLong(100);
+        when(plotRepository.saveAll(ArgumentMatchers.<Plot>anyList())).thenAnswer(invocation -> {
+            List<Plot> chunk = new ArrayList<>(invocation.<List<Plot>>getArgument(0));
+            chunk.forEach(saved -> saved.setId(nextId.getAndIncrement()));
+            return chunk;
+        });
+    }
+
+    private static PlotDto bulkPlot(double latitude, double longitude) {
+        return PlotDto.builder()
+                .price(new BigDecimal("1500.00"))
+                .priceUnit("per_sqft")
+                .latitude(latitude)
+                .longitude(longitude)
+                .build();
+    }
+
+    private static PlotRepository.ClusterBucket clusterBucket(long cellX, long cellY, String priceUnit, long count,
+                                                              double latitude, double longitude) {
+        return new ClusterBucketRow(cellX, cellY, priceUnit, count, latitude, longitude,
+                new BigDecimal("1000.00"), 1200.0, new BigDecimal("1500.00"));
+    }
+
+    private record ClusterBucketRow(Long getCellX, Long getCellY, String getPriceUnit, Long getPlotCount,
+                                    Double getCentroidLat, Double getCentroidLng, BigDecimal getMinPrice,
+                                    Double getMedianPrice, BigDecimal getMaxPrice)
+            implements PlotRepository.ClusterBucket {
+    }
+
+    private static PlotDeletion tombstone(long id, long plotId, int hour) {
+        return PlotDeletion.builder()
+                .id(id)
+                .plotId(plotId)
+                .latitude(9.93)
+                .longitude(76.26)
+                .deletedAt(LocalDateTime.of(2024, 1, 1, hour, 0))
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.company.project.spatial;
+
+import com.company.project.config.GeocodingProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalityGazetteerTest {
+
+    private LocalityGazetteer gazetteer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gazetteer = new LocalityGazetteer(new GeocodingProperties());
+        gazetteer.load(new ByteArrayResource(String.join("\n",
+                "# name,state,lat,lng,aliases",
+                "Kochi,Kerala,9.9312,76.2673,Cochin",
+                "Kakkanad,Kerala,10.0159,76.3419",
+                "Whitefield,Karnataka,12.9698,77.7500",
+                "Bengaluru,Karnataka,12.9716,77.5946,Bangalore",
+                "Aurangabad,Maharashtra,19.8762,75.3433",
+                "Aurangabad,Bihar,24.7521,84.3742",
+                "broken line").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldMatchNamesAndAliases() {
+        assertThat(gazetteer.size()).isEqualTo(6);
+        assertThat(gazetteer.findByName("Whitefield, Bangalore")).get()
+                .extracting(LocalityGazetteer.Locality::name).isEqualTo("Whitefield");
+        assertThat(gazetteer.findByName("  COCHIN ")).get()
+                .extracting(LocalityGazetteer.Locality::name).isEqualTo("Kochi");
+        assertThat(gazetteer.findByName("Nowhere Town")).isEmpty();
+    }
+
+    @Test
+    void shouldLeavePlacesWithinALocalityToNominatim() {
+        assertThat(gazetteer.findByName("Kakkanad Kochi Kerala India")).get()
+                .extracting(LocalityGazetteer.Locality::name).isEqualTo("Kakkanad");
+        assertThat(gazetteer.findByName("Kochi Airport")).isEmpty();
+        assertThat(gazetteer.findByName("Whitefield Main Road, Bangalore")).isEmpty();
+    }
+
+    @Test
+    void shouldBreakTiesByState() {
+        assertThat(gazetteer.findByName("Aurangabad Bihar")).get()
+                .extracting(LocalityGazetteer.Locality::state).isEqualTo("Bihar");
+        assertThat(gazetteer.findByName("Aurangabad, Maharashtra")).get()
+                .extracting(LocalityGazetteer.Locality::state).isEqualTo("Maharashtra");
+    }
+
+    @Test
+    void shouldFindNearestWithinDistance() {
+        assertThat(gazetteer.findNearest(10.01, 76.33, 5_000)).get()
+                .extracting(LocalityGazetteer.Locality::name).isEqualTo("Kakkanad");
+        assertThat(gazetteer.findNearest(9.94, 76.27, 5_000)).get()
+                .extracting(LocalityGazetteer.Locality::name).isEqualTo("Kochi");
+        assertThat(gazetteer.findNearest(11.5, 78.0, 10_000)).isEmpty();
+    }
+}
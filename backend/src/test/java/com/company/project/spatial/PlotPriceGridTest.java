@@ -0,0 +1,106 @@
+package com.company.project.spatial;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotGridCellDto;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.repository.PlotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.*;
+
+class PlotPriceGridTest {
+
+    @Mock
+    private PlotRepository plotRepository;
+
+    private PlotPriceGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        grid = new PlotPriceGrid(plotRepository, new PlotProperties());
+
+        // 100 plots around Kochi priced 1000..100000 per sqm, every other one for sale, and one in Thrissur
+        List<PlotRepository.PriceGridEntry> entries = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            entries.add(entry((long) i, 9.93 + i * 0.0001, 76.26, BigDecimal.valueOf(i * 1000L), i % 2 == 0));
+        }
+        entries.add(entry(101L, 10.5276, 76.2144, new BigDecimal("5000"), true));
+        when(plotRepository.findPriceGridEntries()).thenReturn(entries);
+        grid.reload();
+    }
+
+    @Test
+    void shouldSummarizeCellsWithinBounds() {
+        List<PlotGridCellDto> cells = grid.query(9.9, 10.0, 76.2, 76.4, 4);
+
+        assertThat(cells).hasSize(1);
+        PlotGridCellDto kochi = cells.get(0);
+        assertThat(kochi.getCount()).isEqualTo(100);
+        assertThat(kochi.getForSaleRatio()).isEqualTo(0.5);
+        assertThat(kochi.getMedianPricePerSqm().doubleValue()).isCloseTo(50_000, within(50_000 * 0.02));
+        assertThat(kochi.getP10PricePerSqm().doubleValue()).isCloseTo(10_000, within(10_000 * 0.02));
+        assertThat(kochi.getP90PricePerSqm().doubleValue()).isCloseTo(90_000, within(90_000 * 0.02));
+
+        assertThat(grid.query(9.0, 11.0, 76.0, 77.0, 2)).singleElement()
+                .extracting(PlotGridCellDto::getCount).isEqualTo(101L);
+    }
+
+    @Test
+    void shouldApplyUpdatesAndDeletesInPlace() {
+        // Move the cheapest Kochi plot to Thrissur and delete the most expensive one
+        PlotDto moved = PlotDto.builder().id(1L).latitude(10.5277).longitude(76.2145)
+                .pricePerSqm(new BigDecimal("5000")).isForSale(false).build();
+        grid.onPlotChanged(PlotChangedEvent.moved(moved, 9.9301, 76.26));
+        grid.onPlotChanged(PlotChangedEvent.deleted(PlotDto.builder().id(100L).build()));
+
+        PlotGridCellDto kochi = grid.query(9.9, 10.0, 76.2, 76.4, 4).get(0);
+        assertThat(kochi.getCount()).isEqualTo(98);
+        assertThat(kochi.getP90PricePerSqm().doubleValue()).isLessThan(92_000);
+
+        PlotGridCellDto thrissur = grid.query(10.5, 10.6, 76.2, 76.3, 4).get(0);
+        assertThat(thrissur.getCount()).isEqualTo(2);
+        assertThat(thrissur.getForSaleRatio()).isEqualTo(0.5);
+        assertThat(thrissur.getMedianPricePerSqm().doubleValue()).isCloseTo(5000, within(5000 * 0.02));
+    }
+
+    @Test
+    void shouldAnswerQueriesFromThePreviousGridDuringReload() throws Exception {
+        List<Long> countsDuringReload = new ArrayList<>();
+        when(plotRepository.findPriceGridEntries()).thenAnswer(invocation -> {
+            // Queried from another thread, as a request would be while the database is read
+            CompletableFuture<List<PlotGridCellDto>> query = CompletableFuture.supplyAsync(
+                    () -> grid.query(9.0, 11.0, 76.0, 77.0, 2));
+            countsDuringReload.add(query.get(5, TimeUnit.SECONDS).get(0).getCount());
+            return List.of(entry(1L, 9.9301, 76.26, new BigDecimal("1000"), true));
+        });
+
+        grid.reload();
+
+        assertThat(countsDuringReload).containsExactly(101L);
+        assertThat(grid.query(9.0, 11.0, 76.0, 77.0, 2)).singleElement()
+                .extracting(PlotGridCellDto::getCount).isEqualTo(1L);
+    }
+
+    private PlotRepository.PriceGridEntry entry(Long id, double latitude, double longitude, BigDecimal price, boolean forSale) {
+        return new PlotRepository.PriceGridEntry() {
+            public Long getId() { return id; }
+            public Double getLatitude() { return latitude; }
+            public Double getLongitude() { return longitude; }
+            public BigDecimal getPricePerSqm() { return price; }
+            public Boolean getIsForSale() { return forSale; }
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.company.project.spatial;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotMapper;
+import com.company.project.dto.PlotWatermark;
+import com.company.project.entity.Plot;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.repository.PlotRepository;
+import com.company.project.util.GeometryUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class PlotSpatialIndexTest {
+
+    @Mock
+    private PlotRepository plotRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PlotProperties plotProperties;
+
+    private PlotSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        plotProperties = new PlotProperties();
+        plotProperties.getIndex().setRebuildThreshold(3);
+        index = new PlotSpatialIndex(plotRepository, new PlotMapper(), plotProperties, transactionManager);
+
+        // Kochi, Ernakulam and Thrissur
+        when(plotRepository.findAll()).thenReturn(List.of(
+                createPlot(1L, 9.9312, 76.2673),
+                createPlot(2L, 9.9816, 76.2999),
+                createPlot(3L, 10.5276, 76.2144)));
+        index.reload();
+    }
+
+    @Test
+    void shouldFindPlotsInBounds() {
+        List<PlotDto> plots = index.findInBounds(9.9, 10.0, 76.2, 76.4);
+
+        assertThat(plots).extracting(PlotDto::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldFindNearestWithinRadius() {
+        List<PlotDto> nearest = index.findNearest(9.93, 76.27, 10_000, 5);
+
+        assertThat(nearest).extracting(PlotDto::getId).containsExactly(1L, 2L);
+        assertThat(index.findNearest(9.93, 76.27, 10_000, 1)).extracting(PlotDto::getId).containsExactly(1L);
+    }
+
+    @Test
+    void shouldApplyChangesBeforeAndAfterRebuild() {
+        index.onPlotChanged(PlotChangedEvent.created(toDto(4L, 9.95, 76.28)));
+        index.onPlotChanged(PlotChangedEvent.updated(toDto(1L, 10.52, 76.21)));
+
+        assertThat(index.findInBounds(9.9, 10.0, 76.2, 76.4)).extracting(PlotDto::getId).containsExactly(2L, 4L);
+
+        // Third change crosses the rebuild threshold
+        index.onPlotChanged(PlotChangedEvent.deleted(toDto(2L, 9.9816, 76.2999)));
+
+        assertThat(index.findInBounds(9.9, 10.0, 76.2, 76.4)).extracting(PlotDto::getId).containsExactly(4L);
+        assertThat(index.findInBounds(10.5, 10.6, 76.2, 76.3)).extracting(PlotDto::getId).containsExactly(1L, 3L);
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldChangeWatermarkOnlyForAffectedBounds() {
+        PlotWatermark kochi = index.watermarkInBounds(9.9, 10.0, 76.2, 76.4);
+        assertThat(kochi.count()).isEqualTo(2);
+        assertThat(index.size()).isEqualTo(3);
+
+        PlotDto moved = toDto(3L, 10.53, 76.22);
+        moved.setUpdatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        index.onPlotChanged(PlotChangedEvent.updated(moved));
+
+        assertThat(index.watermarkInBounds(9.9, 10.0, 76.2, 76.4)).isEqualTo(kochi);
+        assertThat(index.watermarkInBounds(10.5, 10.6, 76.2, 76.3).lastModified()).isEqualTo(moved.getUpdatedAt());
+
+        index.onPlotChanged(PlotChangedEvent.deleted(toDto(2L, 9.9816, 76.2999)));
+
+        assertThat(index.watermarkInBounds(9.9, 10.0, 76.2, 76.4).count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldLeaveApproximateLocationsOutOfNearest() {
+        PlotDto geocoded = toDto(4L, 9.9313, 76.2673);
+        geocoded.setLocationApproximate(true);
+        index.onPlotChanged(PlotChangedEvent.created(geocoded));
+
+        assertThat(index.findNearest(9.9313, 76.2673, 10_000, 1)).extracting(PlotDto::getId).containsExactly(1L);
+        assertThat(index.findInBounds(9.9, 10.0, 76.2, 76.4)).extracting(PlotDto::getId).containsExactly(1L, 2L, 4L);
+    }
+
+    @Test
+    void shouldKeepServingThePreviousContentsDuringReload() {
+        List<List<PlotDto>> seenDuringReload = new ArrayList<>();
+        when(plotRepository.findAll()).thenAnswer(invocation -> {
+            seenDuringReload.add(index.findInBounds(9.9, 10.0, 76.2, 76.4));
+            seenDuringReload.add(index.findNearest(9.93, 76.27, 10_000, 5));
+            return List.of(createPlot(1L, 9.9312, 76.2673));
+        });
+
+        index.reload();
+
+        assertThat(seenDuringReload.get(0)).extracting(PlotDto::getId).containsExactly(1L, 2L);
+        assertThat(seenDuringReload.get(1)).extracting(PlotDto::getId).containsExactly(1L, 2L);
+        assertThat(index.findInBounds(9.9, 10.0, 76.2, 76.4)).extracting(PlotDto::getId).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepChangesMadeWhileReloadIsLoading() {
+        when(plotRepository.findAll()).thenAnswer(invocation -> {
+            // Listeners run on request threads; they must not wait for the load to finish
+            Thread writer = new Thread(() -> {
+                index.onPlotChanged(PlotChangedEvent.created(toDto(4L, 9.95, 76.28)));
+                index.onPlotChanged(PlotChangedEvent.deleted(toDto(2L, 9.9816, 76.2999)));
+            });
+            writer.start();
+            writer.join(5000);
+            assertThat(writer.isAlive()).isFalse();
+            // Read before the writes above committed
+            return List.of(createPlot(1L, 9.9312, 76.2673), createPlot(2L, 9.9816, 76.2999));
+        });
+
+        index.reload();
+
+        assertThat(index.findInBounds(9.9, 10.0, 76.2, 76.4)).extracting(PlotDto::getId).containsExactly(1L, 4L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    private Plot createPlot(Long id, double latitude, double longitude) {
+        Plot plot = new Plot();
+        plot.setId(id);
+        plot.setPrice(new BigDecimal("1000.00"));
+        plot.setPriceUnit("per_sqft");
+        plot.setIsForSale(true);
+        plot.setLocation(GeometryUtil.createPoint(latitude, longitude));
+        plot.setLatitude(latitude);
+        plot.setLongitude(longitude);
+        return plot;
+    }
+
+    private PlotDto toDto(Long id, double latitude, double longitude) {
+        return new PlotMapper().toDto(createPlot(id, latitude, longitude));
+    }
+}
@@ -0,0 +1,127 @@
+package com.company.project.stream;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotDto;
+import com.company.project.dto.PlotMapper;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.event.PlotsReloadedEvent;
+import com.company.project.repository.PlotRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PlotChangeRelayTest {
+
+    @Mock
+    private ObjectProvider<DataSource> dataSourceProvider;
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    @Mock
+    private ResultSet resultSet;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private PlotChangeRelay relay;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        PlotProperties plotProperties = new PlotProperties();
+        plotProperties.getStream().setRelay(PlotProperties.Stream.Relay.POSTGRES);
+        relay = new PlotChangeRelay(plotProperties, dataSourceProvider, mock(PlotRepository.class), new PlotMapper(),
+                eventPublisher, new ObjectMapper(), mock(PlatformTransactionManager.class));
+
+        when(dataSourceProvider.getObject()).thenReturn(dataSource);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(connection.createArrayOf(eq("text"), any(Object[].class))).thenReturn(mock(Array.class));
+        when(statement.executeQuery()).thenReturn(resultSet);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void shouldSendTheChangesOfOneTransactionInOneStatement() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        for (long id = 1; id <= 3; id++) {
+            relay.onPlotChanged(PlotChangedEvent.created(PlotDto.builder().id(id).latitude(9.93).longitude(76.27).build()));
+        }
+        verifyNoInteractions(dataSource);
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+
+        ArgumentCaptor<Object[]> payloads = ArgumentCaptor.forClass(Object[].class);
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(connection).createArrayOf(eq("text"), payloads.capture());
+        assertThat(payloads.getValue()).hasSize(3);
+
+        // The next transaction starts a batch of its own
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        relay.onPlotChanged(PlotChangedEvent.created(PlotDto.builder().id(4L).latitude(9.93).longitude(76.27).build()));
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+    }
+
+    @Test
+    void shouldSkipRemoteChanges() {
+        relay.onPlotChanged(PlotChangedEvent.remote(PlotChangedEvent.ChangeType.UPDATED,
+                PlotDto.builder().id(1L).latitude(9.93).longitude(76.27).build(), null, null));
+
+        verifyNoInteractions(dataSourceProvider);
+    }
+
+    @Test
+    void shouldAnnounceLocalReloads() throws Exception {
+        relay.onPlotsReloaded(PlotsReloadedEvent.local());
+
+        ArgumentCaptor<Object[]> payloads = ArgumentCaptor.forClass(Object[].class);
+        verify(connection).createArrayOf(eq("text"), payloads.capture());
+        assertThat(payloads.getValue()).hasSize(1);
+        assertThat((String) payloads.getValue()[0]).contains("\"reload\":true");
+    }
+
+    @Test
+    void shouldReloadWhenAnotherInstanceAnnouncesIt() {
+        relay.receive("{\"origin\":\"other\",\"reload\":true}");
+
+        ArgumentCaptor<PlotsReloadedEvent> reload = ArgumentCaptor.forClass(PlotsReloadedEvent.class);
+        verify(eventPublisher).publishEvent(reload.capture());
+        assertThat(reload.getValue().isRemote()).isTrue();
+    }
+}
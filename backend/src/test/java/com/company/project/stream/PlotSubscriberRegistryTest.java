@@ -0,0 +1,192 @@
+package com.company.project.stream;
+
+import com.company.project.config.PlotProperties;
+import com.company.project.dto.PlotDto;
+import com.company.project.event.PlotChangedEvent;
+import com.company.project.exception.StreamCapacityException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlotSubscriberRegistryTest {
+
+    private PlotProperties plotProperties;
+
+    private PlotSubscriberRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        plotProperties = new PlotProperties();
+        plotProperties.getStream().setCellSizeDegrees(0.1);
+        plotProperties.getStream().setMaxCellsPerSubscriber(16);
+        plotProperties.getStream().setMaxSubscribers(4);
+        plotProperties.getStream().setMaxSubscribersPerClient(3);
+        registry = new PlotSubscriberRegistry(plotProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void shouldMatchOnlySubscribersWhoseViewportContainsThePlot() {
+        // Kochi and Thrissur viewports, plus one covering the whole state
+        SseEmitter kochi = registry.subscribe("203.0.113.7", 9.9, 10.0, 76.2, 76.4);
+        SseEmitter thrissur = registry.subscribe("203.0.113.7", 10.5, 10.6, 76.1, 76.3);
+        SseEmitter kerala = registry.subscribe("203.0.113.7", 8.0, 12.8, 74.8, 77.5);
+
+        PlotChangedEvent created = PlotChangedEvent.created(plot(1L, 9.9312, 76.2673));
+
+        assertThat(registry.subscribersFor(created))
+                .extracting(PlotSubscriberRegistry.Subscriber::emitter)
+                .containsExactlyInAnyOrder(kochi, kerala)
+                .doesNotContain(thrissur);
+        assertThat(registry.size()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldNotifyViewportThePlotMovedOutOf() {
+        SseEmitter kochi = registry.subscribe("203.0.113.7", 9.9, 10.0, 76.2, 76.4);
+        SseEmitter thrissur = registry.subscribe("203.0.113.7", 10.5, 10.6, 76.1, 76.3);
+
+        PlotChangedEvent moved = PlotChangedEvent.moved(plot(1L, 10.5276, 76.2144), 9.9312, 76.2673);
+
+        assertThat(registry.subscribersFor(moved))
+                .extracting(PlotSubscriberRegistry.Subscriber::emitter)
+                .containsExactlyInAnyOrder(kochi, thrissur);
+    }
+
+    @Test
+    void shouldForgetCompletedSubscribers() {
+        SseEmitter kochi = registry.subscribe("203.0.113.7", 9.9, 10.0, 76.2, 76.4);
+        registry.subscribe("203.0.113.7", 9.9, 10.0, 76.2, 76.4);
+
+        // Completion callbacks only run once the emitter is bound to a response, so drop it directly
+        registry.subscribersFor(PlotChangedEvent.deleted(plot(1L, 9.95, 76.3))).stream()
+                .filter(subscriber -> subscriber.emitter() == kochi)
+                .findFirst()
+                .ifPresent(registry::unregister);
+
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(registry.subscribersFor(PlotChangedEvent.deleted(plot(1L, 9.95, 76.3)))).hasSize(1);
+    }
+
+    @Test
+    void shouldRefuseSubscribersBeyondTheLimits() {
+        for (int i = 0; i < 3; i++) {
+            registry.subscribe("203.0.113.7", 9.9, 10.0, 76.2, 76.4);
+        }
+
+        assertThatThrownBy(() -> registry.subscribe("203.0.113.7", 9.9, 10.0, 76.2, 76.4))
+                .isInstanceOf(StreamCapacityException.class);
+
+        registry.subscribe("198.51.100.2", 9.9, 10.0, 76.2, 76.4);
+
+        assertThatThrownBy(() -> registry.subscribe("198.51.100.3", 9.9, 10.0, 76.2, 76.4))
+                .isInstanceOf(StreamCapacityException.class);
+        assertThat(registry.size()).isEqualTo(4);
+
+        // A closed stream frees its place for the same client
+        registry.subscribersFor(PlotChangedEvent.deleted(plot(1L, 9.95, 76.3))).stream()
+                .filter(subscriber -> subscriber.client().equals("203.0.113.7"))
+                .findFirst()
+                .ifPresent(registry::unregister);
+        registry.subscribe("203.0.113.7", 9.9, 10.0, 76.2, 76.4);
+        assertThat(registry.size()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldKeepDeliveringWhileOneClientIsSlow() throws Exception {
+        plotProperties.getStream().setMaxQueuedEvents(2);
+        CountDownLatch slowEntered = new CountDownLatch(1);
+        CountDownLatch slowReleased = new CountDownLatch(1);
+        List<String> slowReceived = new CopyOnWriteArrayList<>();
+        List<String> fastReceived = new CopyOnWriteArrayList<>();
+        List<SseEmitter> emitters = List.of(
+                new RecordingEmitter(message -> {
+                    slowEntered.countDown();
+                    awaitQuietly(slowReleased);
+                    slowReceived.add(message);
+                }),
+                new RecordingEmitter(fastReceived::add));
+        registry.shutdown();
+        registry = new PlotSubscriberRegistry(plotProperties, new SimpleMeterRegistry()) {
+            private int created;
+
+            @Override
+            SseEmitter createEmitter(long timeoutMillis) {
+                return emitters.get(created++);
+            }
+        };
+        registry.subscribe("203.0.113.7", 9.9, 10.0, 76.2, 76.4);
+        registry.subscribe("198.51.100.2", 9.9, 10.0, 76.2, 76.4);
+
+        registry.onPlotChanged(PlotChangedEvent.created(plot(1L, 9.95, 76.3)));
+        assertThat(slowEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (long id = 2; id <= 5; id++) {
+            registry.onPlotChanged(PlotChangedEvent.created(plot(id, 9.95, 76.3)));
+        }
+
+        // The fast client catches up while the slow one is stuck in its first write. The burst can outrun
+        // its writer too, in which case the changes it missed arrive as a reload rather than one by one.
+        await(() -> fastReceived.stream().anyMatch(message -> message.contains("id=5,") || message.contains("event:reload")));
+        assertThat(slowReceived).isEmpty();
+
+        // The slow client's backlog overflowed and was replaced by a reload
+        slowReleased.countDown();
+        await(() -> slowReceived.stream().anyMatch(message -> message.contains("event:reload")));
+        assertThat(slowReceived).noneMatch(message -> message.contains("id=3,"));
+    }
+
+    /**
+     * Emitter that hands each written event, as text, to a callback instead of a response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final Consumer<String> callback;
+
+        RecordingEmitter(Consumer<String> callback) {
+            this.callback = callback;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            callback.accept(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private PlotDto plot(Long id, double latitude, double longitude) {
+        return PlotDto.builder().id(id).latitude(latitude).longitude(longitude).build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.company.project.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class GeohashTest {
+
+    @Test
+    void shouldEncodeKnownLocations() {
+        assertThat(Geohash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(Geohash.encode(42.6, -5.6, 5)).isEqualTo("ezs42");
+    }
+
+    @Test
+    void shouldDecodeToTheSameCell() {
+        Geohash.Cell cell = Geohash.decode("tdr1y");
+
+        assertThat(cell.hash()).isEqualTo("tdr1y");
+        assertThat(Geohash.encode(cell.centerLatitude(), cell.centerLongitude(), 5)).isEqualTo("tdr1y");
+        assertThat(cell.parent(3).hash()).isEqualTo("tdr");
+        assertThatThrownBy(() -> Geohash.decode("tdr1a")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldPickPrecisionFromCellSize() {
+        assertThat(Geohash.precisionFor(1000, 7)).isEqualTo(6);
+        assertThat(Geohash.precisionFor(150, 7)).isEqualTo(7);
+        assertThat(Geohash.precisionFor(10, 7)).isEqualTo(7);
+        assertThat(Geohash.precisionFor(10_000_000, 7)).isEqualTo(1);
+        assertThat(Geohash.cellWidth(5)).isCloseTo(0.0439, within(0.0001));
+    }
+}
@@ -0,0 +1,53 @@
+package com.company.project.util;
+
+import com.company.project.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlotCursorTest {
+
+    @Test
+    void shouldRoundTripEachCursorKind() {
+        assertThat(PlotCursor.decode(PlotCursor.encode(42L))).isEqualTo(42L);
+        assertThat(PlotCursor.decodePriced(PlotCursor.encodePriced(new BigDecimal("1076.3910"), 7L)))
+                .isEqualTo(new PlotCursor.PricedPosition(new BigDecimal("1076.3910"), 7L));
+
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 5, 1, 10, 15, 30, 123_456_000);
+        assertThat(PlotCursor.decodeChanged(PlotCursor.encodeChanged(updatedAt, 9L)))
+                .isEqualTo(new PlotCursor.ChangedPosition(updatedAt, 9L));
+        assertThat(PlotCursor.decodeDeleted(PlotCursor.encodeDeleted(updatedAt, 4L)))
+                .isEqualTo(new PlotCursor.ChangedPosition(updatedAt, 4L));
+    }
+
+    @Test
+    void shouldTellTombstoneCursorsFromPlotCursors() {
+        LocalDateTime at = LocalDateTime.of(2024, 5, 1, 10, 15, 30);
+
+        assertThat(PlotCursor.isDeleted(PlotCursor.encodeDeleted(at, 4L))).isTrue();
+        assertThat(PlotCursor.isDeleted(PlotCursor.encodeChanged(at, 4L))).isFalse();
+        assertThat(PlotCursor.isDeleted(null)).isFalse();
+        assertThatThrownBy(() -> PlotCursor.decodeChanged(PlotCursor.encodeDeleted(at, 4L)))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    @Test
+    void shouldTreatMissingCursorAsFirstPage() {
+        assertThat(PlotCursor.decode(null)).isZero();
+        assertThat(PlotCursor.decodeChanged(" ")).isNull();
+    }
+
+    @Test
+    void shouldRejectCursorsOfAnotherKind() {
+        String listingCursor = PlotCursor.encode(42L);
+
+        assertThatThrownBy(() -> PlotCursor.decodeChanged(listingCursor)).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> PlotCursor.decode(PlotCursor.encodeChanged(LocalDateTime.now(), 1L)))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> PlotCursor.decodeChanged("not a cursor")).isInstanceOf(InvalidCursorException.class);
+    }
+}
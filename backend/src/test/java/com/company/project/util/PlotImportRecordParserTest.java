@@ -0,0 +1,59 @@
+package com.company.project.util;
+
+import com.company.project.dto.PlotImportRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PlotImportRecordParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldDeriveUnitPriceFromAreaInListingUrl() throws Exception {
+        PlotImportRecord record = PlotImportRecordParser.parse(objectMapper.readTree("""
+                {"source": "magicbricks", "country": "India", "city": "Kochi", "locality": "Thrippunithura",
+                 "coordinates": {"latitude": 9.95, "longitude": 76.35},
+                 "price": {"amount": 6500000, "currency": "INR", "text": "65 Lac"},
+                 "listing_url": "https://www.magicbricks.com/propertyDetails-3-BHK-1300-Sqft-Builder-Floor&id=abc",
+                 "title": "3BHK Builder Floor Apartment in Thrippunithura",
+                 "metadata": {"api_listing_id": "81924079"}}
+                """));
+
+        assertThat(record.getSource()).isEqualTo("magicbricks");
+        assertThat(record.getExternalId()).isEqualTo("81924079");
+        assertThat(record.getPrice()).isEqualByComparingTo(new BigDecimal("5000.00"));
+        assertThat(record.getPriceUnit()).isEqualTo("per_sqft");
+        assertThat(record.getLatitude()).isEqualTo(9.95);
+        assertThat(record.getLocationQuery()).isEqualTo("Thrippunithura, Kochi, India");
+    }
+
+    @Test
+    void shouldReadStagingLayoutAndLeaveMissingCoordinatesForGeocoding() throws Exception {
+        PlotImportRecord record = PlotImportRecordParser.parse(objectMapper.readTree("""
+                {"raw_data": {"title": "Plot in Kakkanad", "price": 1800000, "area_sqyd": 200,
+                              "listing_url": "https://www.magicbricks.com/plot-kakkanad", "source": "magicbricks"},
+                 "source": "magicbricks_listings", "city": "Kochi", "metadata": {}}
+                """));
+
+        assertThat(record.getExternalId()).isEqualTo("https://www.magicbricks.com/plot-kakkanad");
+        assertThat(record.getPrice()).isEqualByComparingTo(new BigDecimal("1000.00"));
+        assertThat(record.getPriceUnit()).isEqualTo("per_sqft");
+        assertThat(record.getLatitude()).isNull();
+        assertThat(record.getLocationQuery()).isEqualTo("Kochi, India");
+    }
+
+    @Test
+    void shouldRejectRecordsWithoutArea() {
+        assertThatThrownBy(() -> PlotImportRecordParser.parse(objectMapper.readTree("""
+                {"source": "magicbricks", "title": "Residential plot", "price": {"amount": 2500000},
+                 "metadata": {"api_listing_id": "1"}}
+                """)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("area");
+    }
+}
@@ -0,0 +1,45 @@
+package com.company.project.util;
+
+import com.company.project.exception.InvalidPriceUnitException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PriceUnitsTest {
+
+    @Test
+    void shouldNormalizeCommonSpellings() {
+        assertThat(PriceUnits.normalize("per_sqft")).isEqualTo("per_sqft");
+        assertThat(PriceUnits.normalize("Per Sq Ft")).isEqualTo("per_sqft");
+        assertThat(PriceUnits.normalize("sq.m")).isEqualTo("per_sqm");
+        assertThat(PriceUnits.normalize(" ACRE ")).isEqualTo("per_acre");
+        assertThat(PriceUnits.normalize("ha")).isEqualTo("per_hectare");
+        assertThat(PriceUnits.normalize("  ")).isNull();
+    }
+
+    @Test
+    void shouldAcceptEveryStoredUnit() {
+        for (String unit : AppConstants.PRICE_UNITS) {
+            assertThat(PriceUnits.normalize(unit)).isEqualTo(unit);
+        }
+    }
+
+    @Test
+    void shouldConvertPricesToPerSquareMeter() {
+        assertThat(PriceUnits.toPricePerSqm(new BigDecimal("1000"), "per_sqft")).isEqualByComparingTo("10763.9104");
+        assertThat(PriceUnits.toPricePerSqm(new BigDecimal("2500"), "per_sqm")).isEqualByComparingTo("2500");
+        assertThat(PriceUnits.toPricePerSqm(new BigDecimal("404685.64224"), "per_cent")).isEqualByComparingTo("10000");
+        assertThat(PriceUnits.toPricePerSqm(new BigDecimal("10000000"), "per_hectare")).isEqualByComparingTo("1000");
+        assertThat(PriceUnits.toPricePerSqm(new BigDecimal("1000"), "per_bigha")).isNull();
+    }
+
+    @Test
+    void shouldRejectUnknownUnits() {
+        assertThatThrownBy(() -> PriceUnits.normalize("per_bigha"))
+                .isInstanceOf(InvalidPriceUnitException.class)
+                .hasMessageContaining("per_bigha");
+    }
+}